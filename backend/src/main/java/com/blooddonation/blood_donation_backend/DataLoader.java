@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import com.blooddonation.blood_donation_backend.model.Hospital;
 import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+import com.blooddonation.blood_donation_backend.service.HospitalService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class DataLoader implements CommandLineRunner {
 
     private final HospitalRepository repo;
+    private final HospitalService hospitalService;
 
     @Override
     public void run(String... args) throws Exception {
@@ -50,8 +52,8 @@ public class DataLoader implements CommandLineRunner {
                     .bloodStock(s2)
                     .build();
 
-            repo.save(h1);
-            repo.save(h2);
+            hospitalService.save(h1);
+            hospitalService.save(h2);
             System.out.println("Loaded sample hospitals.");
         }
     }
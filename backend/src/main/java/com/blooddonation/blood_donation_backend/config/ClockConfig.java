@@ -0,0 +1,18 @@
+package com.blooddonation.blood_donation_backend.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The clock services read "now" from, so tests can pin it instead of waiting for midnight
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
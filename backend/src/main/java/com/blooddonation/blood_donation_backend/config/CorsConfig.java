@@ -2,15 +2,24 @@ package com.blooddonation.blood_donation_backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+
 import java.util.List;
 
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Response headers browsers may read cross-origin; shared with SecurityConfig's CORS source,
+     * which is the one the security filter chain applies
+     */
+    public static final List<String> EXPOSED_HEADERS = List.of(CursorPage.NEXT_CURSOR_HEADER, HttpHeaders.ETAG);
+
     @Bean
     public CorsFilter corsFilter() {
         CorsConfiguration config = new CorsConfiguration();
@@ -20,6 +29,7 @@ public class CorsConfig {
         ));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(EXPOSED_HEADERS);
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,14 @@
+package com.blooddonation.blood_donation_backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. the nightly demand forecast fold). Tests that drive
+ * the jobs themselves turn them off with bloodcare.scheduling.enabled=false.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "bloodcare.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig { }
@@ -8,17 +8,22 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
 import com.blooddonation.blood_donation_backend.model.Hospital;
 import com.blooddonation.blood_donation_backend.model.User;
-import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
-import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.model.MedicineLot;
+import com.blooddonation.blood_donation_backend.pharmacy.service.MedicineInventoryService;
 import com.blooddonation.blood_donation_backend.repository.UserRepository;
+import com.blooddonation.blood_donation_backend.service.HospitalService;
+import com.blooddonation.blood_donation_backend.service.RequestService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -29,10 +34,13 @@ public class AdminController {
     private UserRepository userRepository;
 
     @Autowired
-    private HospitalRepository hospitalRepository;
+    private HospitalService hospitalService;
 
     @Autowired
-    private BloodRequestRepository bloodRequestRepository;
+    private RequestService requestService;
+
+    @Autowired
+    private MedicineInventoryService medicineInventoryService;
 
     // 1. Get all users
     @GetMapping("/users")
@@ -43,31 +51,58 @@ public class AdminController {
     // 2. Get all hospitals
     @GetMapping("/hospitals")
     public List<Hospital> getAllHospitals() {
-        return hospitalRepository.findAll();
+        return hospitalService.findAll();
     }
 
     // 3. Update hospital stock
     @PutMapping("/hospitals/{id}")
     public ResponseEntity<Hospital> updateHospital(@PathVariable Long id, @RequestBody Hospital hospitalDetails) {
-        return hospitalRepository.findById(id).map(hospital -> {
+        return hospitalService.findById(id).map(hospital -> {
             hospital.setName(hospitalDetails.getName());
             hospital.setLocation(hospitalDetails.getLocation());
             hospital.setContact(hospitalDetails.getContact());
-            hospital.setBloodStock(hospitalDetails.getBloodStock());
-            return ResponseEntity.ok(hospitalRepository.save(hospital));
+            hospital.setLatitude(hospitalDetails.getLatitude());
+            hospital.setLongitude(hospitalDetails.getLongitude());
+            hospital.setBloodStock(hospitalDetails.getBloodStock()); // written to the stock ledger per group
+            return ResponseEntity.ok(hospitalService.save(hospital));
         }).orElse(ResponseEntity.notFound().build());
     }
 
     // 4. Delete hospital
     @DeleteMapping("/hospitals/{id}")
     public ResponseEntity<Void> deleteHospital(@PathVariable Long id) {
-        hospitalRepository.deleteById(id);
+        hospitalService.delete(id);
         return ResponseEntity.ok().build();
     }
 
-    // 5. Get all blood requests
+    // 5. Get blood requests, one keyset page at a time (next page cursor in X-Next-Cursor)
     @GetMapping("/requests")
-    public List<BloodRequest> getAllRequests() {
-        return bloodRequestRepository.findAll();
+    public ResponseEntity<?> getAllRequests(@RequestParam(required = false) String status,
+                                            @RequestParam(required = false) String bloodGroup,
+                                            @RequestParam(required = false) String location,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<BloodRequestDto> page = requestService.listRequests(status, bloodGroup, location, cursor, size);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 6. Medicine lots, first to expire first
+    @GetMapping("/medicines/{id}/lots")
+    public List<MedicineLot> getMedicineLots(@PathVariable Long id) {
+        return medicineInventoryService.lots(id);
+    }
+
+    // 7. Receive a delivery of a medicine as a new lot (lotNumber, quantity, expiryDate)
+    @PostMapping("/medicines/{id}/lots")
+    public ResponseEntity<?> receiveMedicineLot(@PathVariable Long id, @RequestBody MedicineLot lot) {
+        try {
+            return ResponseEntity.ok(medicineInventoryService.receiveLot(id, lot));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
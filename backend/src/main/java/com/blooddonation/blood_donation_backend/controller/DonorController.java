@@ -1,21 +1,21 @@
 package com.blooddonation.blood_donation_backend.controller;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.dto.DonorMatchDto;
 import com.blooddonation.blood_donation_backend.dto.UserProfileDto;
-import com.blooddonation.blood_donation_backend.model.User;
-import com.blooddonation.blood_donation_backend.repository.UserRepository;
-import com.blooddonation.blood_donation_backend.security.CustomerUserDetailsService;
-import com.blooddonation.blood_donation_backend.security.JwtUtil;
+import com.blooddonation.blood_donation_backend.service.DonorMatchingService;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -24,44 +24,56 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearerAuth")   // ✅ Added this
 public class DonorController {
 
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
-    private final CustomerUserDetailsService customUserDetailsService;
+    private final DonorMatchingService donorMatchingService;
 
-    public DonorController(UserRepository userRepository, JwtUtil jwtUtil, CustomerUserDetailsService customUserDetailsService) {
-        this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
-        this.customUserDetailsService = customUserDetailsService;
+    public DonorController(DonorMatchingService donorMatchingService) {
+        this.donorMatchingService = donorMatchingService;
     }
 
+    // Donors of one group, paged by id; the next page's cursor comes back in X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<UserProfileDto>> donorsByGroup(
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
-            @RequestParam("group") String group
+    public ResponseEntity<?> donorsByGroup(
+            @RequestParam("group") String group,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit
     ) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        try {
+            CursorPage<UserProfileDto> page = donorMatchingService.donorsOfGroup(group, cursor, limit);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
+    }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.getEmailFromToken(token);
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-
-        if (!jwtUtil.validateToken(token, userDetails)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    // Ranked compatible donors for an existing blood request
+    @GetMapping("/match/{requestId}")
+    @PreAuthorize("hasAnyRole('ADMIN','HOSPITAL')")
+    public ResponseEntity<?> matchForRequest(
+            @PathVariable Long requestId,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        try {
+            List<DonorMatchDto> matches = donorMatchingService.matchForRequest(requestId, limit);
+            return ResponseEntity.ok(matches);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
+    }
 
-        List<User> users = userRepository.findByBloodGroup(group);
-        List<UserProfileDto> donors = users.stream()
-                .filter(u -> "DONOR".equalsIgnoreCase(String.valueOf(u.getRole())))
-                .map(u -> new UserProfileDto(
-                        u.getId(),
-                        u.getName(),
-                        u.getEmail(),
-                        String.valueOf(u.getRole()),
-                        u.getBloodGroup()))
-                .toList();
-
-        return ResponseEntity.ok(donors);
+    // Ranked compatible donors for a recipient group, nearby donors first
+    @GetMapping("/match")
+    @PreAuthorize("hasAnyRole('ADMIN','HOSPITAL')")
+    public ResponseEntity<?> match(
+            @RequestParam("group") String group,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(donorMatchingService.match(group, location, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
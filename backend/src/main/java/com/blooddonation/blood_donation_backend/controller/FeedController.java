@@ -0,0 +1,64 @@
+package com.blooddonation.blood_donation_backend.controller;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.service.LiveFeedService;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private final LiveFeedService liveFeedService;
+
+    public FeedController(LiveFeedService liveFeedService) {
+        this.liveFeedService = liveFeedService;
+    }
+
+    // Live SOS events and request status changes as server-sent events, instead of polling
+    // GET /api/sos and GET /api/requests. types=sos,request (default both); reconnecting clients
+    // send Last-Event-ID (or lastEventId) to resume where they left off.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Long lastEventId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventIdHeader) {
+        BloodGroup group = null;
+        if (bloodGroup != null && !bloodGroup.isBlank()) {
+            group = BloodGroup.parse(bloodGroup);
+            if (group == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown blood group: " + bloodGroup);
+            }
+        }
+        Set<String> typeFilter = null;
+        if (types != null && !types.isBlank()) {
+            typeFilter = Arrays.stream(types.split(","))
+                    .map(t -> t.trim().toLowerCase(Locale.ROOT))
+                    .filter(t -> !t.isEmpty())
+                    .collect(Collectors.toSet());
+        }
+        LiveFeedService.Filter filter = new LiveFeedService.Filter(typeFilter, group, LocationKey.of(location));
+        // The emitter is the response body, so errors are raised as status exceptions
+        try {
+            return liveFeedService.subscribe(filter, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
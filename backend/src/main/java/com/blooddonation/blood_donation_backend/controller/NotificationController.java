@@ -1,5 +1,69 @@
 package com.blooddonation.blood_donation_backend.controller;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.blooddonation.blood_donation_backend.model.Notfication;
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.security.CurrentUser;
+import com.blooddonation.blood_donation_backend.service.NotificationService;
+
+@RestController
+@RequestMapping("/api/notifications")
 public class NotificationController {
-    
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    // My inbox, newest first (pass the last id as beforeId for the next page)
+    @GetMapping
+    public ResponseEntity<List<Notfication>> myNotifications(
+            @CurrentUser User user,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) Integer size) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(notificationService.list(user.getId(), beforeId, unreadOnly, size));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> unreadCount(@CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(Map.of("unread", notificationService.unreadCount(user.getId())));
+    }
+
+    // Idempotent: 204 when already read too; 404 only for a missing or someone else's notification
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(@CurrentUser User user, @PathVariable Long id) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return notificationService.markRead(user.getId(), id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllRead(@CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(Map.of("marked", notificationService.markAllRead(user.getId())));
+    }
 }
@@ -5,19 +5,30 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.dto.DemandForecastDto;
+import com.blooddonation.blood_donation_backend.dto.RequestRollupDto;
 import com.blooddonation.blood_donation_backend.model.BloodRequest;
-import com.blooddonation.blood_donation_backend.model.Hospital;
-import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
-import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
-import com.blooddonation.blood_donation_backend.repository.UserRepository;
+import com.blooddonation.blood_donation_backend.model.StockMovement;
+import com.blooddonation.blood_donation_backend.service.DemandForecastService;
+import com.blooddonation.blood_donation_backend.service.HospitalStockService;
+import com.blooddonation.blood_donation_backend.service.RequestAnalyticsService;
+import com.blooddonation.blood_donation_backend.service.ReportCounterService;
+import com.blooddonation.blood_donation_backend.service.RequestExportService;
+import com.blooddonation.blood_donation_backend.service.RequestService;
 
 @RestController
 @RequestMapping("/api/admin/reports")
@@ -25,86 +36,165 @@ import com.blooddonation.blood_donation_backend.repository.UserRepository;
 public class ReportController {
 
     @Autowired
-    private HospitalRepository hospitalRepository;
+    private RequestService requestService;
 
     @Autowired
-    private BloodRequestRepository bloodRequestRepository;
+    private HospitalStockService hospitalStockService;
 
     @Autowired
-    private UserRepository userRepository;
+    private ReportCounterService reportCounterService;
+
+    @Autowired
+    private RequestExportService requestExportService;
+
+    @Autowired
+    private RequestAnalyticsService requestAnalyticsService;
+
+    @Autowired
+    private DemandForecastService demandForecastService;
 
     // 1. Get total counts
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getSummary() {
         Map<String, Object> report = new HashMap<>();
-        report.put("totalHospitals", hospitalRepository.count());
-        report.put("totalRequests", bloodRequestRepository.count());
-        report.put("totalUsers", userRepository.count());
+        report.put("totalHospitals", reportCounterService.get(ReportCounterService.HOSPITALS_TOTAL));
+        report.put("totalRequests", reportCounterService.get(ReportCounterService.REQUESTS_TOTAL));
+        report.put("totalUsers", reportCounterService.get(ReportCounterService.USERS_TOTAL));
         return ResponseEntity.ok(report);
     }
 
     // 2. Get blood stock summary (all hospitals combined)
     @GetMapping("/stock")
     public ResponseEntity<Map<String, Integer>> getBloodStockSummary() {
-        List<Hospital> hospitals = hospitalRepository.findAll();
-        Map<String, Integer> stockSummary = new HashMap<>();
-
-        for (Hospital h : hospitals) {
-            if (h.getBloodStock() != null) {
-                h.getBloodStock().forEach((group, qty) ->
-                    stockSummary.merge(group, qty, Integer::sum)
-                );
-            }
-        }
-
-        return ResponseEntity.ok(stockSummary);
+        return ResponseEntity.ok(hospitalStockService.totalsByBloodGroup());
     }
 
     // 3. Get request status summary (counts)
     @GetMapping("/requests/summary")
     public ResponseEntity<Map<String, Long>> getRequestsSummary() {
         Map<String, Long> statusSummary = new HashMap<>();
-        statusSummary.put("Pending", bloodRequestRepository.countByStatus("Pending"));
-        statusSummary.put("Approved", bloodRequestRepository.countByStatus("Approved"));
-        statusSummary.put("Rejected", bloodRequestRepository.countByStatus("Rejected"));
+        statusSummary.put("Pending", reportCounterService.get(ReportCounterService.requestStatus("PENDING")));
+        statusSummary.put("Approved", reportCounterService.get(ReportCounterService.requestStatus("APPROVED")));
+        statusSummary.put("Rejected", reportCounterService.get(ReportCounterService.requestStatus("REJECTED")));
         return ResponseEntity.ok(statusSummary);
     }
 
-    // 4. Get detailed requests by status (lists)
+    // 4. Get detailed requests by status, one keyset page at a time (next page cursor in X-Next-Cursor)
     @GetMapping("/requests/{status}")
-    public ResponseEntity<List<BloodRequest>> getRequestsByStatus(@PathVariable String status) {
-        List<BloodRequest> requests = bloodRequestRepository.findByStatus(status);
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<?> getRequestsByStatus(@PathVariable String status,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<BloodRequestDto> page = requestService.listRequests(status, null, null, cursor, size);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
-    // 5. Get requests between two dates
+    // 5. Get requests between two dates, streamed (format=json|ndjson|csv, default json array)
     @GetMapping("/requests/by-date")
-    public ResponseEntity<List<BloodRequest>> getRequestsByDate(
+    public ResponseEntity<?> getRequestsByDate(
             @RequestParam String startDate,
-            @RequestParam String endDate) {
-
-        // Convert String to LocalDateTime
-        java.time.LocalDateTime start = java.time.LocalDate.parse(startDate).atStartOfDay();
-        java.time.LocalDateTime end = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
-
-        List<BloodRequest> requests = bloodRequestRepository.findByRequestedAtBetween(start, end);
-        return ResponseEntity.ok(requests);
+            @RequestParam String endDate,
+            @RequestParam(required = false) String format) {
+        return export(null, startDate, endDate, format);
     }
-        // 6. Get requests by status + date range
+
+    // 6. Get requests by status + date range, streamed like the above
     @GetMapping("/requests/by-status-date")
-    public ResponseEntity<List<BloodRequest>> getRequestsByStatusAndDate(
+    public ResponseEntity<?> getRequestsByStatusAndDate(
             @RequestParam String status,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String format) {
+        return export(BloodRequest.normalizeStatus(status), startDate, endDate, format);
+    }
 
-        java.time.LocalDateTime start = java.time.LocalDate.parse(startDate).atStartOfDay();
-        java.time.LocalDateTime end = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
+    // Rows go from a database cursor straight to the response; nothing is collected in memory
+    private ResponseEntity<?> export(String status, String startDate, String endDate, String format) {
+        java.time.LocalDateTime start;
+        java.time.LocalDateTime end;
+        RequestExportService.Format fmt;
+        try {
+            start = java.time.LocalDate.parse(startDate).atStartOfDay();
+            end = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
+            fmt = RequestExportService.Format.parse(format);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
-        List<BloodRequest> requests = bloodRequestRepository.findByStatusAndRequestedAtBetween(
-                status.toUpperCase(), start, end);
+        StreamingResponseBody body = out -> requestExportService.export(status, start, end, fmt, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(fmt.mediaType());
+        // StreamingResponseBody runs on the MVC async executor, bounded by spring.mvc.async.request-timeout
+        if (fmt != RequestExportService.Format.JSON) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("requests-" + startDate + "-to-" + endDate + "." + fmt.extension())
+                    .build().toString());
+        }
+        return response.body(body);
+    }
+
+    // 7. Stock movement journal, newest first (pass the last id as beforeId for the next page)
+    @GetMapping("/stock/movements")
+    public ResponseEntity<List<StockMovement>> getStockMovements(
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(hospitalStockService.movements(hospitalId, beforeId, size));
+    }
+
+    // 8. Recompute national stock totals by replaying the movement journal
+    @PostMapping("/stock/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildStockTotals() {
+        return ResponseEntity.ok(hospitalStockService.rebuildTotals());
+    }
+
+    // 9. Recompute all dashboard aggregates from the source tables and list any drift
+    @GetMapping("/consistency")
+    public ResponseEntity<Map<String, Object>> checkConsistency() {
+        return ResponseEntity.ok(reportCounterService.check());
+    }
 
-        return ResponseEntity.ok(requests);
+    // 10. Rebuild all dashboard aggregates from the source tables
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAggregates() {
+        Map<String, Object> rebuilt = new HashMap<>();
+        rebuilt.put("counters", reportCounterService.rebuild());
+        rebuilt.put("stock", hospitalStockService.rebuildTotals());
+        rebuilt.put("requestRollups", requestAnalyticsService.rebuild());
+        return ResponseEntity.ok(rebuilt);
     }
 
+    // 11. Request counts and approval latency percentiles per hour/day/week, from the hourly rollups
+    @GetMapping("/analytics/requests")
+    public ResponseEntity<?> getRequestAnalytics(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) String location) {
+        try {
+            java.time.LocalDateTime start = java.time.LocalDate.parse(startDate).atStartOfDay();
+            java.time.LocalDateTime end = java.time.LocalDate.parse(endDate).plusDays(1).atStartOfDay();
+            List<RequestRollupDto> rollups = requestAnalyticsService.rollups(
+                    RequestAnalyticsService.Granularity.parse(granularity), start, end, bloodGroup, location);
+            return ResponseEntity.ok(rollups);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 12. Daily demand per hospital and blood group with projected shortfall dates, soonest first
+    @GetMapping("/forecast")
+    public ResponseEntity<List<DemandForecastDto>> getDemandForecast(@RequestParam(required = false) Long hospitalId) {
+        return ResponseEntity.ok(demandForecastService.forecasts(hospitalId));
+    }
+
+    // 13. Fold any closed days not yet in the forecast (normally done by the nightly job)
+    @PostMapping("/forecast/refresh")
+    public ResponseEntity<Map<String, Integer>> refreshDemandForecast() {
+        return ResponseEntity.ok(Map.of("foldedRows", demandForecastService.refresh()));
+    }
 }
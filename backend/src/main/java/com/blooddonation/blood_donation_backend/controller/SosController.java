@@ -5,13 +5,18 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.blooddonation.blood_donation_backend.dto.SosRoutingDto;
 import com.blooddonation.blood_donation_backend.model.SosEvent;
 import com.blooddonation.blood_donation_backend.repository.SosRepository;
+import com.blooddonation.blood_donation_backend.service.GeoGrid;
+import com.blooddonation.blood_donation_backend.service.LiveFeedService;
+import com.blooddonation.blood_donation_backend.service.SosRoutingService;
 
 @RestController
 @RequestMapping("/api/sos")
@@ -19,17 +24,42 @@ import com.blooddonation.blood_donation_backend.repository.SosRepository;
 public class SosController {
 
     private final SosRepository sosRepository;
+    private final LiveFeedService liveFeedService;
+    private final SosRoutingService sosRoutingService;
 
-    public SosController(SosRepository sosRepository) {
+    public SosController(SosRepository sosRepository, LiveFeedService liveFeedService,
+                         SosRoutingService sosRoutingService) {
         this.sosRepository = sosRepository;
+        this.liveFeedService = liveFeedService;
+        this.sosRoutingService = sosRoutingService;
     }
 
+    // Raise an SOS; with latitude/longitude the response carries the nearest hospitals and donors
     @PostMapping
-    public ResponseEntity<SosEvent> createSOS(@RequestBody SosEvent event) {
+    public ResponseEntity<?> createSOS(@RequestBody SosEvent event) {
+        if ((event.getLatitude() != null || event.getLongitude() != null)
+                && !GeoGrid.isValid(event.getLatitude(), event.getLongitude())) {
+            return ResponseEntity.badRequest().body("latitude/longitude must both be given and in range");
+        }
         SosEvent saved = sosRepository.save(event);
+        saved.setRouting(sosRoutingService.route(saved));
+        liveFeedService.sosRaised(saved); // pushed to /api/feed/stream subscribers
         return ResponseEntity.ok(saved);
     }
 
+    // Recompute the routing of an existing SOS (stock and donors may have changed)
+    @GetMapping("/{id}/routing")
+    public ResponseEntity<SosRoutingDto> getRouting(@PathVariable Long id) {
+        return sosRepository.findById(id)
+                .map(sos -> {
+                    SosRoutingDto routing = sosRoutingService.route(sos);
+                    return routing == null
+                            ? ResponseEntity.unprocessableEntity().<SosRoutingDto>build()
+                            : ResponseEntity.ok(routing);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
     public List<SosEvent> getAllSOS() {
         return sosRepository.findAll();
@@ -0,0 +1,27 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Paging headers for list endpoints that keep a plain array as the response body.
+     */
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.set(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return headers;
+    }
+}
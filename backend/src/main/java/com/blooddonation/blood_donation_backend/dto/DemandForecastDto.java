@@ -0,0 +1,22 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Forecast for one hospital and blood group. shortfallDate is the first day stock is expected
+ * to run out at the current daily demand scaled by the weekly profile; daysOfCover and
+ * shortfallDate are null when there is no measurable demand. weekdayFactors scale dailyDemand
+ * for each day of the week and average 1 (all 1 until there are enough weeks of history).
+ */
+public record DemandForecastDto(
+        Long hospitalId,
+        String bloodGroup,
+        double dailyDemand,
+        int unitsOnHand,
+        Double daysOfCover,
+        LocalDate shortfallDate,
+        LocalDate observedThrough,
+        Map<DayOfWeek, Double> weekdayFactors
+) {}
@@ -0,0 +1,14 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+/**
+ * A compatible donor candidate, listed in rank order by the matching endpoints.
+ */
+public record DonorMatchDto(
+        Long id,
+        String name,
+        String email,
+        String bloodGroup,
+        String location,
+        boolean sameLocation,
+        boolean exactGroup
+) {}
@@ -0,0 +1,31 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the blood request listing, ordered by (requestedAt, id) descending.
+ * Sent to clients as an opaque URL-safe token.
+ */
+public record RequestCursor(LocalDateTime requestedAt, Long id) {
+
+    public static RequestCursor of(BloodRequestDto last) {
+        return new RequestCursor(last.getRequestedAt(), last.getId());
+    }
+
+    public String encode() {
+        String raw = requestedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RequestCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new RequestCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One time bucket of request analytics. Latency percentiles are in minutes, reported as the
+ * upper bound of the histogram bucket they fall in; null when nothing was approved.
+ */
+public record RequestRollupDto(
+        LocalDateTime bucketStart,
+        long created,
+        long approved,
+        long rejected,
+        Long approvalLatencyP50Minutes,
+        Long approvalLatencyP90Minutes,
+        Long approvalLatencyP99Minutes
+) {}
@@ -0,0 +1,17 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import java.util.List;
+
+/**
+ * Where to send an SOS: the nearest hospitals holding compatible stock and the nearest
+ * compatible donors, each nearest first. Distances are great-circle kilometres.
+ */
+public record SosRoutingDto(List<HospitalHit> hospitals, List<DonorHit> donors) {
+
+    /**
+     * units is the stock of all groups the SOS blood group can receive (all groups when none was given)
+     */
+    public record HospitalHit(Long id, String name, String location, String contact, double distanceKm, int units) {}
+
+    public record DonorHit(Long id, String name, String bloodGroup, double distanceKm) {}
+}
@@ -0,0 +1,102 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ABO/Rh blood groups. Stored by name in normalized columns; {@link #label()} is the
+ * human form ("A+", "O-") used by the API and the legacy free-text columns.
+ */
+public enum BloodGroup {
+    A_POS("A+"), A_NEG("A-"),
+    B_POS("B+"), B_NEG("B-"),
+    AB_POS("AB+"), AB_NEG("AB-"),
+    O_POS("O+"), O_NEG("O-");
+
+    private static final Map<BloodGroup, List<BloodGroup>> DONORS_FOR = new EnumMap<>(BloodGroup.class);
+
+    static {
+        for (BloodGroup recipient : values()) {
+            List<BloodGroup> donors = new ArrayList<>();
+            for (BloodGroup donor : values()) {
+                if (donor.canDonateTo(recipient)) {
+                    donors.add(donor);
+                }
+            }
+            // closest match first, so universal donors (O-) are only used when nothing nearer is available
+            donors.sort(Comparator.comparingInt(BloodGroup::antigenCount).reversed());
+            DONORS_FOR.put(recipient, Collections.unmodifiableList(donors));
+        }
+    }
+
+    private final String label;
+
+    BloodGroup(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public boolean hasA() {
+        return name().startsWith("A");
+    }
+
+    public boolean hasB() {
+        return name().startsWith("B") || name().startsWith("AB");
+    }
+
+    public boolean rhPositive() {
+        return name().endsWith("_POS");
+    }
+
+    /**
+     * Red cell compatibility: the donor must not carry an antigen the recipient lacks.
+     */
+    public boolean canDonateTo(BloodGroup recipient) {
+        return (!hasA() || recipient.hasA())
+                && (!hasB() || recipient.hasB())
+                && (!rhPositive() || recipient.rhPositive());
+    }
+
+    /**
+     * Donor groups compatible with this recipient, in order of preference.
+     */
+    public List<BloodGroup> compatibleDonors() {
+        return DONORS_FOR.get(this);
+    }
+
+    private int antigenCount() {
+        return (hasA() ? 1 : 0) + (hasB() ? 1 : 0) + (rhPositive() ? 1 : 0);
+    }
+
+    /**
+     * Parse a label ("ab+", " O - ") or enum name ("AB_POS"); null when blank or unrecognised.
+     */
+    public static BloodGroup parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = canonical(value);
+        for (BloodGroup group : values()) {
+            if (group.label.equals(key) || group.name().equals(key)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Upper-case with spaces removed. The backfill applies the same rule in SQL
+     * (UPPER(REPLACE(col, ' ', ''))), so keep the two in step.
+     */
+    static String canonical(String value) {
+        return value.replace(" ", "").toUpperCase(Locale.ROOT);
+    }
+}
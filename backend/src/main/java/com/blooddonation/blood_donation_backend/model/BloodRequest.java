@@ -1,15 +1,30 @@
 package com.blooddonation.blood_donation_backend.model;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_blood_request_requested_at_id", columnList = "requested_at, id"),
+    @Index(name = "idx_blood_request_group_requested_at", columnList = "blood_group_code, requested_at, id"),
+    @Index(name = "idx_blood_request_location_requested_at", columnList = "location_key, requested_at, id")
+})
 public class BloodRequest {
 
     @Id
@@ -19,8 +34,20 @@ public class BloodRequest {
     private String patientName;
     private String bloodGroup;
     private String location;
-    private String status; // PENDING, ACCEPTED, REJECTED
+    private String status; // PENDING, APPROVED, ACCEPTED, REJECTED (always stored upper-case)
     private LocalDateTime requestedAt;
+    private LocalDateTime approvedAt;  // set when the request first moves to APPROVED
+    private LocalDateTime rejectedAt;  // set when the request first moves to REJECTED
+
+    // Normalized copies of bloodGroup/location for index-backed search; maintained on save
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @Column(name = "blood_group_code", length = 8)
+    private BloodGroup bloodGroupCode;
+
+    @JsonIgnore
+    @Column(name = "location_key")
+    private String locationKey;
 
     @ManyToOne
     @JoinColumn(name = "requested_by")
@@ -32,11 +59,25 @@ public class BloodRequest {
         this.patientName = patientName;
         this.bloodGroup = bloodGroup;
         this.location = location;
-        this.status = status;
+        this.status = normalizeStatus(status);
         this.requestedAt = LocalDateTime.now();
         this.requestedBy = requestedBy;
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        if (this.requestedAt == null) {
+            this.requestedAt = LocalDateTime.now();
+        }
+        this.bloodGroupCode = BloodGroup.parse(bloodGroup);
+        this.locationKey = LocationKey.of(location);
+    }
+
+    public static String normalizeStatus(String status) {
+        return status == null ? null : status.trim().toUpperCase(Locale.ROOT);
+    }
+
     // getters and setters
     public Long getId() { return id; }
     public String getPatientName() { return patientName; }
@@ -49,11 +90,20 @@ public class BloodRequest {
     public void setLocation(String location) { this.location = location; }
 
     public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(String status) { this.status = normalizeStatus(status); }
 
     public LocalDateTime getRequestedAt() { return requestedAt; }
     public void setRequestedAt(LocalDateTime requestedAt) { this.requestedAt = requestedAt; }
 
+    public LocalDateTime getApprovedAt() { return approvedAt; }
+    public void setApprovedAt(LocalDateTime approvedAt) { this.approvedAt = approvedAt; }
+
+    public LocalDateTime getRejectedAt() { return rejectedAt; }
+    public void setRejectedAt(LocalDateTime rejectedAt) { this.rejectedAt = rejectedAt; }
+
     public User getRequestedBy() { return requestedBy; }
     public void setRequestedBy(User requestedBy) { this.requestedBy = requestedBy; }
+
+    public BloodGroup getBloodGroupCode() { return bloodGroupCode; }
+    public String getLocationKey() { return locationKey; }
 }
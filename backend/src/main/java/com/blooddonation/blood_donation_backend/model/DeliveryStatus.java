@@ -0,0 +1,13 @@
+package com.blooddonation.blood_donation_backend.model;
+
+/**
+ * Outbox state of a notification's mail delivery.
+ * PENDING rows wait for nextAttemptAt; SENDING rows are leased by a dispatcher until nextAttemptAt.
+ */
+public enum DeliveryStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED,   // gave up after the last retry
+    SKIPPED   // nothing to send to (e.g. the user has no email address)
+}
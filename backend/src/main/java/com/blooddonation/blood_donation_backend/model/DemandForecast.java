@@ -0,0 +1,73 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running demand estimate for one (hospital, blood group): an exponentially weighted moving
+ * average of units approved per day, folded forward one closed day at a time by
+ * DemandForecastService. smoothedUnits / weight is the bias-corrected daily rate.
+ * weekdayUnits / weekdayWeights hold the same kind of average per day of week (Monday first),
+ * smoothed over weeks rather than days, and give the weekly seasonal baseline.
+ */
+@Entity
+@Table(name = "demand_forecasts",
+       uniqueConstraints = @UniqueConstraint(name = "ux_demand_forecasts_hospital_group",
+                                             columnNames = {"hospital_id", "blood_group"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DemandForecast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(name = "smoothed_units", nullable = false)
+    private double smoothedUnits;
+
+    @Column(nullable = false)
+    private double weight;
+
+    @Column(name = "weekday_units")
+    private double[] weekdayUnits;
+
+    @Column(name = "weekday_weights")
+    private double[] weekdayWeights;
+
+    @Column(name = "total_units", nullable = false)
+    private long totalUnits;
+
+    @Column(name = "first_day")
+    private LocalDate firstDay;
+
+    // Last day folded into the average; days up to and including it are never read again
+    @Column(name = "last_day")
+    private LocalDate lastDay;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public double dailyRate() {
+        return weight > 0 ? smoothedUnits / weight : 0;
+    }
+}
@@ -4,16 +4,12 @@ package com.blooddonation.blood_donation_backend.model;
 import java.util.HashMap;
 import java.util.Map;
 
-import jakarta.persistence.CollectionTable;
-import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.MapKeyColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,11 +31,14 @@ public class Hospital {
     private String location;
     private String contact;
 
-    // store blood stock as map: "A+" -> 12, "O-" -> 5, ...
-    @ElementCollection
-    @CollectionTable(name = "hospital_blood_stock", joinColumns = @JoinColumn(name = "hospital_id"))
-    @MapKeyColumn(name = "blood_group")
-    @Column(name = "units")
+    // optional coordinates (WGS84 degrees), used to route SOS events to the nearest hospitals
+    private Double latitude;
+    private Double longitude;
+
+    // blood stock as map: "A+" -> 12, "O-" -> 5, ...
+    // Not persisted here: the hospital_stock_ledger table is the source of truth and
+    // HospitalStockService fills this in for reads and applies it on writes.
+    @Transient
     @Builder.Default
     private Map<String, Integer> bloodStock = new HashMap<>();
 }
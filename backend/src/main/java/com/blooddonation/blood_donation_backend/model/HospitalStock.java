@@ -0,0 +1,53 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per (hospital, blood group) holding the units on hand. Quantities are changed with
+ * single conditional UPDATE/UPSERT statements (see HospitalStockService) rather than by
+ * loading and saving the row; every change bumps the version so entity-level writes stay
+ * optimistic.
+ */
+@Entity
+@Table(name = "hospital_stock_ledger",
+       uniqueConstraints = @UniqueConstraint(name = "ux_hospital_stock_ledger_hospital_group",
+                                             columnNames = {"hospital_id", "blood_group"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HospitalStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(nullable = false)
+    private int units;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
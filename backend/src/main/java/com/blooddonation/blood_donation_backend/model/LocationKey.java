@@ -0,0 +1,19 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of a free-text location used for indexed equality lookups.
+ * The backfill applies the same rule in SQL (LOWER(TRIM(col))), so keep the two in step.
+ */
+public final class LocationKey {
+
+    private LocationKey() {}
+
+    public static String of(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
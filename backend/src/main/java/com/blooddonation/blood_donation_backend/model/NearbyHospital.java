@@ -16,6 +16,8 @@ public class NearbyHospital {
     private String name;
     private String address;
     private String contactNumber;
+    private Double latitude;   // optional, WGS84 degrees
+    private Double longitude;
 
     @Column(name = "user_id") // add this
     private Long userId;
@@ -33,6 +35,12 @@ public class NearbyHospital {
     public String getContactNumber() { return contactNumber; }
     public void setContactNumber(String contactNumber) { this.contactNumber = contactNumber; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
 }
@@ -1,5 +1,82 @@
 package com.blooddonation.blood_donation_backend.model;
 
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification for one user (e.g. a low-stock appeal sent to compatible donors). Each row is
+ * both the user's inbox entry and the outbox entry for its mail delivery: it is inserted with
+ * the change that caused it, and NotificationDispatcher sends it later.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user", columnList = "user_id, id"),
+    @Index(name = "idx_notifications_outbox", columnList = "delivery_status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class Notfication {
-    
+
+    public static final String TYPE_LOW_STOCK = "LOW_STOCK";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(name = "hospital_id")
+    private Long hospitalId;
+
+    @Column(name = "blood_group", length = 16)
+    private String bloodGroup;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_status", length = 16)
+    private DeliveryStatus deliveryStatus;
+
+    @JsonIgnore
+    @Column(name = "delivery_attempts")
+    private Integer deliveryAttempts;
+
+    @JsonIgnore
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @JsonIgnore
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
 }
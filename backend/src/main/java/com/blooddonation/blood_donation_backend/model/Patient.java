@@ -7,6 +7,8 @@ import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,6 +16,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
@@ -24,7 +27,9 @@ import jakarta.validation.constraints.Pattern;
  * Patient Entity - Stores patient information with encrypted fingerprint data
  */
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+    @Index(name = "ux_patients_aadhaar_hash", columnList = "aadhaar_hash", unique = true)
+})
 public class Patient {
     
     @Id
@@ -54,6 +59,13 @@ public class Patient {
     @Column(name = "aadhaar_number")
     private String aadhaarNumber;
     
+    /**
+     * Blind index of the Aadhaar number (HMAC) so lookups can use a unique DB index
+     */
+    @JsonIgnore
+    @Column(name = "aadhaar_hash", length = 64)
+    private String aadhaarHash;
+    
     /**
      * Encrypted fingerprint template - stored as Base64 encoded string
      * This contains the processed fingerprint data, not the raw image
@@ -104,6 +116,9 @@ public class Patient {
     public String getAadhaarNumber() { return aadhaarNumber; }
     public void setAadhaarNumber(String aadhaarNumber) { this.aadhaarNumber = aadhaarNumber; }
     
+    public String getAadhaarHash() { return aadhaarHash; }
+    public void setAadhaarHash(String aadhaarHash) { this.aadhaarHash = aadhaarHash; }
+    
     public String getFingerprintTemplate() { return fingerprintTemplate; }
     public void setFingerprintTemplate(String fingerprintTemplate) { this.fingerprintTemplate = fingerprintTemplate; }
     
@@ -0,0 +1,35 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A named dashboard count (e.g. "requests.status.PENDING"), kept current by atomic
+ * increments from ReportCounterService instead of being counted on every read.
+ */
+@Entity
+@Table(name = "report_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportCounter {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long value;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
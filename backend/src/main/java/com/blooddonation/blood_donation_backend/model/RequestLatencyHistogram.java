@@ -0,0 +1,50 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Approval latency histogram per hour and (blood group, location key): how many approvals in
+ * that hour fell into each latency bucket (see RequestAnalyticsService#LATENCY_BOUNDS_MINUTES).
+ * Histograms add up across rows, so percentiles for any range come from summing buckets.
+ */
+@Entity
+@Table(name = "request_latency_histogram",
+       uniqueConstraints = @UniqueConstraint(name = "ux_request_latency_histogram_bucket",
+                                             columnNames = {"bucket_start", "blood_group", "location_key", "latency_bucket"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestLatencyHistogram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(name = "location_key", nullable = false)
+    private String locationKey;
+
+    @Column(name = "latency_bucket", nullable = false)
+    private int latencyBucket;
+
+    @Column(nullable = false)
+    private long count;
+}
@@ -0,0 +1,53 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hourly request counts per (blood group, location key). Created requests are counted in the
+ * hour they were requested; approvals and rejections in the hour the status changed.
+ * Maintained incrementally by RequestAnalyticsService.
+ */
+@Entity
+@Table(name = "request_rollups_hourly",
+       uniqueConstraints = @UniqueConstraint(name = "ux_request_rollups_hourly_bucket",
+                                             columnNames = {"bucket_start", "blood_group", "location_key"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(name = "location_key", nullable = false)
+    private String locationKey;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private long approved;
+
+    @Column(nullable = false)
+    private long rejected;
+}
@@ -2,11 +2,15 @@ package com.blooddonation.blood_donation_backend.model;
 
 import java.time.LocalDateTime;
 
+import com.blooddonation.blood_donation_backend.dto.SosRoutingDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
 @Table(name = "sos_events")
@@ -17,9 +21,17 @@ public class SosEvent {
 
     private String userId;     // user triggering SOS
     private String message;    // e.g. "Help Blood!"
-    private String location;   // optional, can integrate with GPS later
+    private String location;   // optional free text
+    private Double latitude;   // optional GPS fix (WGS84 degrees); enables nearest hospital/donor routing
+    private Double longitude;
+    private String bloodGroup; // optional, narrows routing to hospitals with stock and compatible donors
     private LocalDateTime timestamp = LocalDateTime.now();
 
+    // Nearest hospitals and donors, computed when the SOS is raised; not stored
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SosRoutingDto routing;
+
     public Long getId() { return id; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
@@ -30,6 +42,18 @@ public class SosEvent {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getBloodGroup() { return bloodGroup; }
+    public void setBloodGroup(String bloodGroup) { this.bloodGroup = bloodGroup; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public SosRoutingDto getRouting() { return routing; }
+    public void setRouting(SosRoutingDto routing) { this.routing = routing; }
 }
@@ -0,0 +1,63 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Immutable journal entry for one change to a hospital's stock of one blood group.
+ * Rows are only ever inserted (by HospitalStockService, in the same transaction as the
+ * ledger change); replaying the deltas reproduces every balance.
+ */
+@Entity
+@Immutable
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_hospital_group", columnList = "hospital_id, blood_group, id"),
+    @Index(name = "idx_stock_movements_created_at", columnList = "created_at")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(name = "balance_after", nullable = false)
+    private int balanceAfter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private StockMovementReason reason;
+
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,3 @@
+package com.blooddonation.blood_donation_backend.model;
+
+public enum StockMovementReason { OPENING, APPROVAL, ADJUSTMENT, SET, HOSPITAL_REMOVED }
@@ -0,0 +1,49 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * National units on hand per blood group, maintained incrementally from stock movements.
+ * Each group is split over a fixed number of stripes (hospital_id % stripes) so approvals at
+ * different hospitals don't queue on a single hot row; a snapshot sums the stripes.
+ */
+@Entity
+@Table(name = "blood_stock_totals",
+       uniqueConstraints = @UniqueConstraint(name = "ux_blood_stock_totals_group_stripe",
+                                             columnNames = {"blood_group", "stripe"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTotal {
+
+    public static final int STRIPES = 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "blood_group", nullable = false, length = 16)
+    private String bloodGroup;
+
+    @Column(nullable = false)
+    private int stripe;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,18 +1,27 @@
 package com.blooddonation.blood_donation_backend.model;
 
+import com.blooddonation.blood_donation_backend.security.UserChangeListener;
+import com.blooddonation.blood_donation_backend.service.DonorIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({UserChangeListener.class, DonorIndexListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,4 +46,18 @@ public class User {
 
     @Column(nullable = false)
     private String bloodGroup;
+
+    private String location;  // optional, used to rank nearby donors first
+
+    // optional coordinates (WGS84 degrees), used for nearest-donor routing of SOS events
+    private Double latitude;
+    private Double longitude;
+
+    // email as last read from or written to the database; lets UserChangeListener evict
+    // the old cache key when the email changes
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String persistedEmail;
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.blooddonation.blood_donation_backend.pharmacy.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.CreateOrderRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderDto;
+import com.blooddonation.blood_donation_backend.pharmacy.service.OrderService;
+import com.blooddonation.blood_donation_backend.pharmacy.service.OutOfStockException;
+import com.blooddonation.blood_donation_backend.security.CurrentUser;
+
+@RestController
+@RequestMapping("/api/pharmacy/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    // Place an order for the caller (the userId in the body is ignored)
+    @PostMapping
+    public ResponseEntity<?> placeOrder(@CurrentUser User user, @RequestBody CreateOrderRequest request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrder(user.getId(), request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OutOfStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "medicineIds", e.getMedicineIds()));
+        }
+    }
+
+    // My orders, newest first
+    @GetMapping
+    public ResponseEntity<List<OrderDto>> myOrders(@CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(orderService.ordersFor(user.getId()));
+    }
+}
@@ -2,12 +2,19 @@ package com.blooddonation.blood_donation_backend.pharmacy.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.blooddonation.blood_donation_backend.pharmacy.dto.MedicineSummaryDto;
 import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
+import com.blooddonation.blood_donation_backend.pharmacy.service.MedicineCatalogService;
+import com.blooddonation.blood_donation_backend.pharmacy.service.MedicineSearchIndex;
 import com.blooddonation.blood_donation_backend.pharmacy.service.MedicineService;
 @RestController
 @RequestMapping("/api/pharmacy")
@@ -19,13 +26,51 @@ public class PharmacyController {
         this.medicineService = medicineService;
     }
 
+    // Catalog page (sort=name|price|-price|newest); next page cursor in X-Next-Cursor.
+    // Answers If-None-Match with 304 while the catalog is unchanged.
     @GetMapping("/medicines")
-    public List<Medicine> getAllMedicines() {
-        return medicineService.getAllMedicines();
+    public ResponseEntity<?> getMedicines(@RequestParam(required = false) String sort,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "0") int size,
+                                          WebRequest request) {
+        MedicineCatalogService.Sort order;
+        try {
+            order = MedicineCatalogService.Sort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (request.checkNotModified(medicineService.getCatalogEtag(order, cursor, size))) {
+            return null; // 304 already prepared
+        }
+        try {
+            MedicineCatalogService.CatalogPage page = medicineService.getCatalogPage(order, cursor, size);
+            List<MedicineSummaryDto> items = page.page().items();
+            return ResponseEntity.ok()
+                    .headers(page.page().headers())
+                    .eTag(page.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(items);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/medicines/{id}")
+    public ResponseEntity<Medicine> getMedicine(@PathVariable Long id) {
+        return medicineService.getMedicineById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     @GetMapping("/search")
-    public List<Medicine> search(@RequestParam String name) {
-        return medicineService.searchMedicines(name);
+    public List<Medicine> search(@RequestParam String name,
+                                 @RequestParam(defaultValue = "50") int limit) {
+        return medicineService.searchMedicines(name, limit);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<MedicineSearchIndex.Hit> autocomplete(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return medicineService.autocomplete(q, limit);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.blooddonation.blood_donation_backend.pharmacy.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in the medicine catalog: the sort value of the last row (name or price)
+ * and its id. Sent to clients as an opaque URL-safe token.
+ */
+public record CatalogCursor(String value, Long id) {
+
+    public String encode() {
+        String raw = (value == null ? "" : value) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new CatalogCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
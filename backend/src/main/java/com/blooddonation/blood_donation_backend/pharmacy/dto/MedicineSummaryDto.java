@@ -0,0 +1,11 @@
+package com.blooddonation.blood_donation_backend.pharmacy.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Catalog listing row. description is cut to the first few hundred characters;
+ * the full text comes with GET /api/pharmacy/medicines/{id}.
+ */
+public record MedicineSummaryDto(Long id, String name, String description, BigDecimal price,
+                                 Integer stock, String imageUrl, LocalDate expiryDate) {}
@@ -0,0 +1,29 @@
+package com.blooddonation.blood_donation_backend.pharmacy.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import com.blooddonation.blood_donation_backend.pharmacy.model.DeliveryType;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Order;
+import com.blooddonation.blood_donation_backend.pharmacy.model.OrderItem;
+import com.blooddonation.blood_donation_backend.pharmacy.model.OrderStatus;
+
+public record OrderDto(Long id, Long userId, OrderStatus status, DeliveryType deliveryType,
+                       BigDecimal totalPrice, OffsetDateTime createdAt, List<Item> items) {
+
+    public record Item(Long medicineId, String medicineName, Integer quantity, BigDecimal priceAtPurchase) {}
+
+    public static OrderDto of(Order order) {
+        List<Item> items = order.getItems().stream()
+                .map(OrderDto::item)
+                .toList();
+        return new OrderDto(order.getId(), order.getUserId(), order.getStatus(), order.getDeliveryType(),
+                order.getTotalPrice(), order.getCreatedAt(), items);
+    }
+
+    private static Item item(OrderItem item) {
+        return new Item(item.getMedicine().getId(), item.getMedicine().getName(),
+                item.getQuantity(), item.getPriceAtPurchase());
+    }
+}
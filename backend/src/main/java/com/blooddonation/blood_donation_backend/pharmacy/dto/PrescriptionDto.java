@@ -0,0 +1,18 @@
+package com.blooddonation.blood_donation_backend.pharmacy.dto;
+
+import java.time.OffsetDateTime;
+
+import com.blooddonation.blood_donation_backend.pharmacy.model.Prescription;
+
+/**
+ * Prescription metadata; the file itself is served from downloadUrl
+ */
+public record PrescriptionDto(Long id, String originalFilename, String contentType, Long sizeBytes,
+                              String sha256, OffsetDateTime uploadedAt, String downloadUrl) {
+
+    public static PrescriptionDto of(Prescription prescription) {
+        return new PrescriptionDto(prescription.getId(), prescription.getOriginalFilename(),
+                prescription.getContentType(), prescription.getSizeBytes(), prescription.getContentHash(),
+                prescription.getUploadedAt(), "/api/pharmacy/prescriptions/" + prescription.getId() + "/file");
+    }
+}
@@ -0,0 +1,47 @@
+package com.blooddonation.blood_donation_backend.pharmacy.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Units of one lot taken by an order line, so a recalled lot can be traced to its orders
+ */
+@Entity
+@Table(name = "order_lot_allocations", indexes = {
+        @Index(name = "idx_lot_allocations_order", columnList = "order_id"),
+        @Index(name = "idx_lot_allocations_lot", columnList = "lot_id")
+})
+public class LotAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getMedicineId() { return medicineId; }
+    public void setMedicineId(Long medicineId) { this.medicineId = medicineId; }
+    public Long getLotId() { return lotId; }
+    public void setLotId(Long lotId) { this.lotId = lotId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -9,11 +9,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "medicines")
+@Table(name = "medicines", indexes = {
+        // keysets of the catalog listing
+        @Index(name = "idx_medicines_name_id", columnList = "name, id"),
+        @Index(name = "idx_medicines_price_id", columnList = "price, id")
+})
 public class Medicine {
 
     @Id
@@ -0,0 +1,64 @@
+package com.blooddonation.blood_donation_backend.pharmacy.model;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One received batch of a medicine with its own expiry date. Medicine.stock is the sum of the
+ * quantities of its lots that are not expired; orders take from the lot that expires first.
+ * A lot without an expiry date never expires.
+ */
+@Entity
+@Table(name = "medicine_lots", indexes = {
+        @Index(name = "idx_medicine_lots_fefo", columnList = "medicine_id, expiry_date"),
+        @Index(name = "idx_medicine_lots_expiry", columnList = "expired, expiry_date")
+})
+public class MedicineLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    private String lotNumber;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private LocalDate expiryDate;
+
+    // Set by the expiry sweeper; the remaining quantity is then no longer counted as stock
+    @Column(nullable = false)
+    private boolean expired;
+
+    private OffsetDateTime expiredAt;
+
+    private OffsetDateTime receivedAt = OffsetDateTime.now();
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public Long getMedicineId() { return medicineId; }
+    public void setMedicineId(Long medicineId) { this.medicineId = medicineId; }
+    public String getLotNumber() { return lotNumber; }
+    public void setLotNumber(String lotNumber) { this.lotNumber = lotNumber; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public LocalDate getExpiryDate() { return expiryDate; }
+    public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; }
+    public boolean isExpired() { return expired; }
+    public void setExpired(boolean expired) { this.expired = expired; }
+    public OffsetDateTime getExpiredAt() { return expiredAt; }
+    public void setExpiredAt(OffsetDateTime expiredAt) { this.expiredAt = expiredAt; }
+    public OffsetDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(OffsetDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
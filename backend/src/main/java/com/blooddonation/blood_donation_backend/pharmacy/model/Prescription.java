@@ -8,11 +8,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_user", columnList = "user_id, uploaded_at")
+})
 public class Prescription {
 @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
 private Long id;
@@ -26,6 +29,16 @@ private Long userId;
 private String fileUrl; // stored path or cloud URL
 
 
+// SHA-256 of the content; the file is stored once per distinct content
+@Column(length = 64)
+private String contentHash;
+
+
+private String contentType;
+private Long sizeBytes;
+private String originalFilename;
+
+
 private OffsetDateTime uploadedAt = OffsetDateTime.now();
 
 
@@ -35,5 +48,13 @@ public Long getUserId() { return userId; }
 public void setUserId(Long userId) { this.userId = userId; }
 public String getFileUrl() { return fileUrl; }
 public void setFileUrl(String fileUrl) { this.fileUrl = fileUrl; }
+public String getContentHash() { return contentHash; }
+public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+public String getContentType() { return contentType; }
+public void setContentType(String contentType) { this.contentType = contentType; }
+public Long getSizeBytes() { return sizeBytes; }
+public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+public String getOriginalFilename() { return originalFilename; }
+public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
 public OffsetDateTime getUploadedAt() { return uploadedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.blooddonation.blood_donation_backend.pharmacy.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.blooddonation.blood_donation_backend.pharmacy.model.MedicineLot;
+
+public interface MedicineLotRepository extends JpaRepository<MedicineLot, Long> {
+    // Lots in the order orders take from them (first expiry first, undated last)
+    List<MedicineLot> findByMedicineIdOrderByExpiryDateAscIdAsc(Long medicineId);
+
+    // Every lot of a medicine in one statement
+    @Modifying
+    @Query("DELETE FROM MedicineLot l WHERE l.medicineId = :medicineId")
+    int deleteByMedicineId(@Param("medicineId") Long medicineId);
+}
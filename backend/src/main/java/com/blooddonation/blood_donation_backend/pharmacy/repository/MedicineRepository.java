@@ -2,6 +2,7 @@ package com.blooddonation.blood_donation_backend.pharmacy.repository;
 
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,4 +16,14 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
 List<Medicine> search(@Param("q") String q);
 // Custom finder method for search
     List<Medicine> findByNameContainingIgnoreCase(String keyword);
+// id, name and description of every medicine, for the in-memory search index
+    @Query("SELECT m.id AS id, m.name AS name, m.description AS description FROM Medicine m")
+    Stream<SearchFields> streamSearchFields();
+
+    // The fields the search index reads
+    interface SearchFields {
+        Long getId();
+        String getName();
+        String getDescription();
+    }
 }
\ No newline at end of file
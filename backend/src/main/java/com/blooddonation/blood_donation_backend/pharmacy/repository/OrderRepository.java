@@ -3,9 +3,17 @@ package com.blooddonation.blood_donation_backend.pharmacy.repository;
 
 import com.blooddonation.blood_donation_backend.pharmacy.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+
+// Orders with their lines and medicines in one query, newest first
+@Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.medicine "
+        + "WHERE o.userId = :userId ORDER BY o.createdAt DESC")
+List<Order> findWithItemsByUserId(@Param("userId") Long userId);
+}
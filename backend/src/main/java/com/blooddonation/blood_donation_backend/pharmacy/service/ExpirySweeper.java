@@ -0,0 +1,112 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retires expired medicine lots. Each batch locks a set of medicines (in id order, like order
+ * placement), marks all their lots past expiry as expired and takes the remaining units off
+ * the medicines' stock, in two statements and one short transaction. A medicine left with
+ * nothing sellable shows stock 0 in the catalog.
+ */
+@Slf4j
+@Service
+public class ExpirySweeper {
+
+    private static final String LOCK_DUE =
+            "SELECT m.id FROM medicines m WHERE m.id IN "
+            + "(SELECT l.medicine_id FROM medicine_lots l WHERE NOT l.expired AND l.expiry_date < ?) "
+            + "ORDER BY m.id LIMIT ? FOR UPDATE";
+
+    // Lots of the locked medicines that are past expiry, then their units off each medicine's
+    // stock. The expiry subquery still sees the lots as unexpired (same statement snapshot),
+    // hence the date filter there.
+    private static final String SWEEP =
+            "WITH swept AS (UPDATE medicine_lots SET expired = true, expired_at = ? "
+            + "WHERE medicine_id = ANY(?) AND NOT expired AND expiry_date < ? RETURNING medicine_id, quantity), "
+            + "totals AS (SELECT medicine_id, SUM(quantity) AS units, COUNT(*) AS lots FROM swept GROUP BY medicine_id) "
+            + "UPDATE medicines m SET stock = GREATEST(m.stock - t.units, 0), updated_at = ?, "
+            + "expiry_date = (SELECT MIN(l.expiry_date) FROM medicine_lots l WHERE l.medicine_id = m.id "
+            + "AND NOT l.expired AND l.quantity > 0 AND (l.expiry_date IS NULL OR l.expiry_date >= ?)) "
+            + "FROM totals t WHERE m.id = t.medicine_id RETURNING t.lots";
+
+    private final MedicineInventoryService inventory;
+    private final MedicineCatalogService catalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    public ExpirySweeper(MedicineInventoryService inventory,
+                         MedicineCatalogService catalog,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${bloodcare.pharmacy.expiry.batch-size:500}") int batchSize) {
+        this.inventory = inventory;
+        this.catalog = catalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Lots existing stock first, then retire whatever expired while the application was down
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        inventory.backfillOpeningLots();
+        sweep();
+    }
+
+    /**
+     * Expire every lot whose expiry date has passed, a batch of medicines per transaction
+     */
+    @Scheduled(cron = "${bloodcare.pharmacy.expiry.cron:0 5 0 * * *}")
+    public int sweep() {
+        LocalDate today = LocalDate.now();
+        int lots = 0;
+        int medicines;
+        do {
+            int[] batch = tx.execute(status -> sweepBatch(today));
+            medicines = batch[0];
+            lots += batch[1];
+        } while (medicines == batchSize && !Thread.currentThread().isInterrupted());
+        if (lots > 0) {
+            log.info("Expired {} medicine lots", lots);
+        }
+        return lots;
+    }
+
+    // {medicines locked, lots expired}
+    private int[] sweepBatch(LocalDate today) {
+        List<Long> ids = jdbcTemplate.queryForList(LOCK_DUE, Long.class, today, batchSize);
+        if (ids.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        Timestamp now = Timestamp.from(OffsetDateTime.now().toInstant());
+        Long[] medicineIds = ids.toArray(Long[]::new);
+        List<Integer> lots = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SWEEP);
+            ps.setTimestamp(1, now);
+            ps.setArray(2, con.createArrayOf("bigint", medicineIds));
+            ps.setObject(3, today);
+            ps.setTimestamp(4, now);
+            ps.setObject(5, today);
+            return ps;
+        }, (rs, i) -> rs.getInt("lots"));
+        catalog.invalidate();
+        return new int[] {ids.size(), lots.stream().mapToInt(Integer::intValue).sum()};
+    }
+}
@@ -0,0 +1,198 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.CatalogCursor;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.MedicineSummaryDto;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
+
+/**
+ * Paged medicine catalog behind a read-through cache. Every committed catalog write (medicine
+ * add/update/delete, stock taken by an order) bumps a version; cached pages and ETags carry the
+ * version they were read at, so a bump retires all of them at once. A page read while a write
+ * commits is never cached under the new version. The TTL bounds how stale another instance's
+ * cache can be, since the version is only bumped where the write happened.
+ */
+@Service
+public class MedicineCatalogService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 100;
+    static final int DESCRIPTION_CHARS = 200;
+
+    private static final String SELECT =
+            "SELECT id, name, LEFT(description, " + DESCRIPTION_CHARS + ") AS description, price, stock, image_url, expiry_date "
+            + "FROM medicines ";
+
+    /**
+     * Catalog orders; each is a keyset over (sort column, id) with a matching index
+     */
+    public enum Sort {
+        NAME("name ASC, id ASC", "(name, id) > (?, ?)"),
+        PRICE("price ASC, id ASC", "(price, id) > (?, ?)"),
+        PRICE_DESC("price DESC, id DESC", "(price, id) < (?, ?)"),
+        NEWEST("id DESC", "id < ?");
+
+        private final String orderBy;
+        private final String after;
+
+        Sort(String orderBy, String after) {
+            this.orderBy = orderBy;
+            this.after = after;
+        }
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NAME;
+            }
+            return switch (value.trim().toLowerCase()) {
+                case "name" -> NAME;
+                case "price" -> PRICE;
+                case "-price" -> PRICE_DESC;
+                case "newest" -> NEWEST;
+                default -> throw new IllegalArgumentException("Unknown sort: " + value + " (name, price, -price, newest)");
+            };
+        }
+    }
+
+    /**
+     * A page as served: rows, next page cursor and the ETag identifying this exact content
+     */
+    public record CatalogPage(CursorPage<MedicineSummaryDto> page, String etag) {}
+
+    private record Entry(long version, long loadedAt, CatalogPage page) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final long ttlNanos;
+    // Random per process, so an ETag from before a restart never matches
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    // Guarded by itself; access order, so the least recently used page is evicted first
+    private final Map<String, Entry> cache;
+
+    public MedicineCatalogService(JdbcTemplate jdbcTemplate,
+                                  @Value("${bloodcare.pharmacy.catalog.cache-size:1000}") int maxEntries,
+                                  @Value("${bloodcare.pharmacy.catalog.cache-ttl:PT1M}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MedicineCatalogService.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * ETag the page would have right now, without reading it; lets a conditional GET be
+     * answered with 304 straight away
+     */
+    public String currentEtag(Sort sort, String cursor, int size) {
+        return etag(version.get(), key(sort, cursor, clampSize(size)));
+    }
+
+    public CatalogPage page(Sort sort, String cursor, int size) {
+        int limit = clampSize(size);
+        String key = key(sort, cursor, limit);
+        long current = version.get();
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && entry.version() == current && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                return entry.page();
+            }
+        }
+        CatalogPage page = new CatalogPage(load(sort, cursor == null ? null : CatalogCursor.decode(cursor), limit),
+                etag(current, key));
+        synchronized (cache) {
+            // A write committed while we were reading: serve what we read, but don't keep it
+            if (version.get() == current) {
+                cache.put(key, new Entry(current, System.nanoTime(), page));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Retire every cached page once the current transaction commits (at once outside one)
+     */
+    public void invalidate() {
+        TxHooks.afterCommit(this::bump);
+    }
+
+    private void bump() {
+        synchronized (cache) {
+            version.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private CursorPage<MedicineSummaryDto> load(Sort sort, CatalogCursor after, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (after != null) {
+            sql.append("WHERE ").append(sort.after).append(' ');
+            switch (sort) {
+                case NAME -> args.add(after.value());
+                case PRICE, PRICE_DESC -> args.add(parsePrice(after.value()));
+                case NEWEST -> { }
+            }
+            args.add(after.id());
+        }
+        sql.append("ORDER BY ").append(sort.orderBy).append(" LIMIT ?");
+        args.add(limit + 1);
+
+        List<MedicineSummaryDto> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> new MedicineSummaryDto(
+                rs.getLong("id"), rs.getString("name"), rs.getString("description"), rs.getBigDecimal("price"),
+                rs.getInt("stock"), rs.getString("image_url"),
+                rs.getDate("expiry_date") == null ? null : rs.getDate("expiry_date").toLocalDate()), args.toArray());
+        if (rows.size() <= limit) {
+            return new CursorPage<>(List.copyOf(rows), null);
+        }
+        List<MedicineSummaryDto> items = rows.subList(0, limit);
+        MedicineSummaryDto last = items.get(limit - 1);
+        String value = switch (sort) {
+            case NAME -> last.name();
+            case PRICE, PRICE_DESC -> last.price().toPlainString();
+            case NEWEST -> "";
+        };
+        return new CursorPage<>(List.copyOf(items), new CatalogCursor(value, last.id()).encode());
+    }
+
+    private String etag(long version, String key) {
+        String digest = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        return "\"" + epoch + "-" + version + "-" + digest + "\"";
+    }
+
+    private static String key(Sort sort, String cursor, int limit) {
+        return sort + "|" + limit + "|" + (cursor == null ? "" : cursor);
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor for a price sort");
+        }
+    }
+
+    private static int clampSize(int size) {
+        return size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,186 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
+import com.blooddonation.blood_donation_backend.pharmacy.model.MedicineLot;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineLotRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-lot medicine inventory. Medicine.stock stays the total of the unexpired lots, so listings
+ * and the order-time stock check keep reading one column. Every change to a medicine's lots is
+ * made while holding that medicine's row lock (orders, receipts and the expiry sweeper all take
+ * it first), which keeps the total and the lots in step and fixes the lock order.
+ */
+@Slf4j
+@Service
+public class MedicineInventoryService {
+
+    // Medicines from before lots existed get their whole stock as one opening lot
+    private static final String BACKFILL =
+            "INSERT INTO medicine_lots (medicine_id, lot_number, quantity, expiry_date, expired, received_at) "
+            + "SELECT m.id, 'OPENING', m.stock, m.expiry_date, false, ? FROM medicines m "
+            + "WHERE m.stock > 0 AND NOT EXISTS (SELECT 1 FROM medicine_lots l WHERE l.medicine_id = m.id)";
+
+    // First expiry first out: walk each medicine's sellable lots by expiry date and take from
+    // each lot what is still wanted after the lots before it. Expired lots the sweeper has not
+    // reached yet are skipped.
+    private static final String ALLOCATE =
+            "WITH wanted AS (SELECT * FROM unnest(?, ?) AS w(medicine_id, quantity)), "
+            + "ranked AS (SELECT l.id, l.quantity, w.quantity AS wanted, "
+            + "SUM(l.quantity) OVER (PARTITION BY l.medicine_id ORDER BY l.expiry_date NULLS LAST, l.id) - l.quantity AS taken_before "
+            + "FROM medicine_lots l JOIN wanted w ON w.medicine_id = l.medicine_id "
+            + "WHERE NOT l.expired AND l.quantity > 0 AND (l.expiry_date IS NULL OR l.expiry_date >= ?)), "
+            + "take AS (SELECT id, LEAST(quantity, wanted - taken_before) AS units FROM ranked WHERE taken_before < wanted) "
+            + "UPDATE medicine_lots l SET quantity = l.quantity - take.units FROM take WHERE l.id = take.id "
+            + "RETURNING l.id AS lot_id, l.medicine_id, take.units";
+
+    // Medicine.expiryDate shows the next lot to expire
+    private static final String REFRESH_EXPIRY =
+            "UPDATE medicines m SET expiry_date = (SELECT MIN(l.expiry_date) FROM medicine_lots l "
+            + "WHERE l.medicine_id = m.id AND NOT l.expired AND l.quantity > 0) WHERE m.id = ANY(?)";
+
+    private static final String ADD_STOCK =
+            "UPDATE medicines SET stock = stock + ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_ALLOCATION =
+            "INSERT INTO order_lot_allocations (order_id, medicine_id, lot_id, quantity) VALUES (?, ?, ?, ?)";
+
+    private final MedicineLotRepository lotRepository;
+    private final MedicineCatalogService catalog;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MedicineInventoryService(MedicineLotRepository lotRepository,
+                                    MedicineCatalogService catalog,
+                                    JdbcTemplate jdbcTemplate) {
+        this.lotRepository = lotRepository;
+        this.catalog = catalog;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record Allocation(Long lotId, Long medicineId, int quantity) {}
+
+    @Transactional
+    public int backfillOpeningLots() {
+        int created = jdbcTemplate.update(BACKFILL, Timestamp.from(OffsetDateTime.now().toInstant()));
+        if (created > 0) {
+            log.info("Created opening lots for {} medicines", created);
+        }
+        return created;
+    }
+
+    /**
+     * Stock of a medicine created with units on hand becomes its first lot
+     */
+    @Transactional
+    public void openingLot(Medicine medicine) {
+        if (medicine.getStock() == null || medicine.getStock() <= 0) {
+            return;
+        }
+        MedicineLot lot = new MedicineLot();
+        lot.setMedicineId(medicine.getId());
+        lot.setLotNumber("OPENING");
+        lot.setQuantity(medicine.getStock());
+        lot.setExpiryDate(medicine.getExpiryDate());
+        lotRepository.save(lot);
+    }
+
+    /**
+     * Book a delivery as a new lot and add it to the medicine's stock
+     */
+    @Transactional
+    public MedicineLot receiveLot(Long medicineId, MedicineLot received) {
+        if (received.getQuantity() == null || received.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Lot quantity must be positive");
+        }
+        if (received.getExpiryDate() != null && received.getExpiryDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Lot expired on " + received.getExpiryDate());
+        }
+        // Takes the medicine row lock before touching its lots
+        int updated = jdbcTemplate.update(ADD_STOCK, received.getQuantity(),
+                Timestamp.from(OffsetDateTime.now().toInstant()), medicineId);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Medicine not found with id " + medicineId);
+        }
+        MedicineLot lot = new MedicineLot();
+        lot.setMedicineId(medicineId);
+        lot.setLotNumber(received.getLotNumber());
+        lot.setQuantity(received.getQuantity());
+        lot.setExpiryDate(received.getExpiryDate());
+        MedicineLot saved = lotRepository.saveAndFlush(lot);
+        refreshExpiry(new Long[] {medicineId});
+        catalog.invalidate();
+        return saved;
+    }
+
+    /**
+     * Drop the lots of a deleted medicine. The caller must already have deleted the medicine row in
+     * this transaction: that holds its lock, so no lot can be received for it in between.
+     */
+    @Transactional
+    public int removeLots(Long medicineId) {
+        return lotRepository.deleteByMedicineId(medicineId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MedicineLot> lots(Long medicineId) {
+        return lotRepository.findByMedicineIdOrderByExpiryDateAscIdAsc(medicineId);
+    }
+
+    /**
+     * Take the wanted units from each medicine's lots, first expiry first. The caller must already
+     * hold the medicine rows (OrderService's reservation does). Returns the medicines whose
+     * sellable lots could not cover the quantity; the caller then rolls back.
+     */
+    List<Long> allocate(Map<Long, Integer> wanted, List<Allocation> allocations) {
+        Long[] ids = wanted.keySet().toArray(Long[]::new);
+        Integer[] quantities = wanted.values().toArray(Integer[]::new);
+        Map<Long, Integer> taken = new HashMap<>();
+        jdbcTemplate.query(ALLOCATE, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", quantities));
+            ps.setObject(3, LocalDate.now());
+        }, rs -> {
+            Allocation allocation = new Allocation(rs.getLong("lot_id"), rs.getLong("medicine_id"), rs.getInt("units"));
+            allocations.add(allocation);
+            taken.merge(allocation.medicineId(), allocation.quantity(), Integer::sum);
+        });
+        List<Long> shortOf = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : wanted.entrySet()) {
+            if (taken.getOrDefault(line.getKey(), 0) < line.getValue()) {
+                shortOf.add(line.getKey());
+            }
+        }
+        if (shortOf.isEmpty()) {
+            refreshExpiry(ids);
+        }
+        return shortOf;
+    }
+
+    void recordAllocations(Long orderId, List<Allocation> allocations) {
+        List<Object[]> rows = allocations.stream()
+                .map(a -> new Object[] {orderId, a.medicineId(), a.lotId(), a.quantity()})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_ALLOCATION, rows);
+    }
+
+    private void refreshExpiry(Long[] medicineIds) {
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(REFRESH_EXPIRY);
+            ps.setArray(1, con.createArrayOf("bigint", medicineIds));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,576 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over medicine names and descriptions. Terms live in sorted maps, so a
+ * prefix is a range scan; a trigram dictionary over the terms finds near misses, which are then
+ * confirmed by edit distance. Name hits outrank description hits, exact terms outrank prefixes and
+ * prefixes outrank typos. Deletes and replacements leave tombstones; once they pile up the index
+ * is compacted and the live documents renumbered.
+ */
+@Component
+public final class MedicineSearchIndex {
+
+    static final double NAME_WEIGHT = 3.0;
+    static final double DESCRIPTION_WEIGHT = 1.0;
+    static final double EXACT = 1.0;
+    static final double PREFIX = 0.7;
+    static final double ONE_TYPO = 0.5;
+    static final double TWO_TYPOS = 0.3;
+
+    // Caps on how many dictionary terms one query token may expand to
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_FUZZY_TERMS = 32;
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> nameTerms = new TreeMap<>();
+    private final TreeMap<String, Postings> descriptionTerms = new TreeMap<>();
+    // Terms by trigram and length, for typo lookups
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    // Documents by ordinal; a null slot is a deleted or replaced document
+    private final ArrayList<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private int tombstones;
+
+    public record Hit(Long id, String name, double score) {}
+
+    private record Doc(Long id, String name, String normalizedName) {}
+
+    // One dictionary term a query token matched, and what a hit on it is worth
+    private record Expansion(Postings postings, double weight) {}
+
+    /**
+     * Add or replace a medicine
+     */
+    public void put(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int ordinal = docs.size();
+            String displayName = name == null ? "" : name;
+            docs.add(new Doc(id, displayName, normalize(displayName)));
+            ordinalById.put(id, ordinal);
+            for (String term : tokenize(displayName)) {
+                addPosting(nameTerms, term, ordinal);
+            }
+            for (String term : tokenize(description)) {
+                addPosting(descriptionTerms, term, ordinal);
+            }
+            // Updates tombstone the old version too, so check here as well as in remove()
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nameTerms.clear();
+            descriptionTerms.clear();
+            termsByTrigram.clear();
+            docs.clear();
+            ordinalById.clear();
+            tombstones = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for free text, highest score first. Every query token is expanded to exact and
+     * prefix term matches, or, when it has none and is at least four letters, to typo matches.
+     * Tokens that match nothing are ignored. Medicines must match all remaining tokens; when none
+     * do, the commonest tokens are dropped one at a time.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<List<Expansion>> perToken = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                List<Expansion> expansions = new ArrayList<>();
+                // The token itself sorts first in its prefix range, so this covers exact matches too
+                expandPrefix(nameTerms, token, NAME_WEIGHT, expansions);
+                expandPrefix(descriptionTerms, token, DESCRIPTION_WEIGHT, expansions);
+                // A word (or word start) the catalogue knows is taken as spelled; only unknown ones get typo matching
+                if (expansions.isEmpty() && token.length() >= 4) {
+                    expandFuzzy(token, true, expansions);
+                }
+                perToken.add(expansions);
+            }
+            // A word the catalogue doesn't know can't narrow anything down
+            perToken.removeIf(List::isEmpty);
+            if (perToken.isEmpty()) {
+                return List.of();
+            }
+            // Nothing matches everything: drop the commonest token and try again
+            perToken.sort(Comparator.comparingLong(MedicineSearchIndex::cost));
+            DocSet matches = matchAll(perToken);
+            while (matches.size == 0 && perToken.size() > 1) {
+                perToken.remove(perToken.size() - 1);
+                matches = matchAll(perToken);
+            }
+            return top(matches, String.join(" ", tokens), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Name completions for what the user has typed so far: earlier tokens must match a name term
+     * exactly (or with a typo), the last one is a prefix. Medicine names starting with the text win.
+     */
+    public List<Hit> autocomplete(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<List<Expansion>> perToken = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                List<Expansion> expansions = new ArrayList<>();
+                if (i == tokens.size() - 1) {
+                    expandPrefix(nameTerms, token, NAME_WEIGHT, expansions);
+                } else {
+                    Postings exact = nameTerms.get(token);
+                    if (exact != null) {
+                        expansions.add(new Expansion(exact, NAME_WEIGHT * EXACT));
+                    }
+                    if (exact == null && token.length() >= 4) {
+                        expandFuzzy(token, false, expansions);
+                    }
+                }
+                perToken.add(expansions);
+            }
+            return top(matchAll(perToken), String.join(" ", tokens), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Documents matching every token, scored by the sum of each token's best weight. Starts from
+    // the cheapest token; a small candidate set is checked against the other tokens' postings by
+    // binary search instead of reading those postings end to end.
+    private DocSet matchAll(List<List<Expansion>> perToken) {
+        List<List<Expansion>> ordered = new ArrayList<>(perToken);
+        ordered.sort(Comparator.comparingLong(MedicineSearchIndex::cost));
+        if (ordered.isEmpty()) {
+            return DocSet.EMPTY;
+        }
+        DocSet matches = materialize(ordered.get(0));
+        for (int i = 1; i < ordered.size() && matches.size > 0; i++) {
+            List<Expansion> expansions = ordered.get(i);
+            long probeCost = (long) matches.size * expansions.size() * 20;
+            matches = probeCost < cost(expansions)
+                    ? probe(matches, expansions)
+                    : DocSet.intersect(matches, materialize(expansions));
+        }
+        return matches;
+    }
+
+    private void expandPrefix(NavigableMap<String, Postings> terms, String token, double fieldWeight, List<Expansion> expansions) {
+        int expanded = 0;
+        for (Map.Entry<String, Postings> entry : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            boolean exact = entry.getKey().length() == token.length();
+            expansions.add(new Expansion(entry.getValue(), fieldWeight * (exact ? EXACT : PREFIX)));
+            if (++expanded >= MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+    }
+
+    // Terms within one edit (two from eight letters) of the token, in the name and optionally the description
+    private void expandFuzzy(String token, boolean descriptions, List<Expansion> expansions) {
+        int maxEdits = token.length() >= 8 ? 2 : 1;
+        List<String> grams = trigrams(token);
+        Set<String> candidates = new HashSet<>();
+        for (int length = Math.max(1, token.length() - maxEdits); length <= token.length() + maxEdits; length++) {
+            List<Set<String>> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                lists.add(termsByTrigram.getOrDefault(gramKey(gram, length), Set.of()));
+            }
+            // Each edit destroys at most three trigrams, so a close term shares all but 3 * maxEdits
+            // of them and must turn up under at least one of the rarest 3 * maxEdits + 1
+            lists.sort(Comparator.comparingInt(Set::size));
+            for (int i = 0; i < Math.min(lists.size(), 3 * maxEdits + 1); i++) {
+                candidates.addAll(lists.get(i));
+            }
+        }
+        int expanded = 0;
+        for (String candidate : candidates) {
+            int edits = editDistance(token, candidate, maxEdits);
+            if (edits == 0 || edits > maxEdits) {
+                continue;
+            }
+            double typo = edits == 1 ? ONE_TYPO : TWO_TYPOS;
+            Postings name = nameTerms.get(candidate);
+            if (name != null) {
+                expansions.add(new Expansion(name, NAME_WEIGHT * typo));
+            }
+            Postings description = descriptions ? descriptionTerms.get(candidate) : null;
+            if (description != null) {
+                expansions.add(new Expansion(description, DESCRIPTION_WEIGHT * typo));
+            }
+            if ((name != null || description != null) && ++expanded >= MAX_FUZZY_TERMS) {
+                return;
+            }
+        }
+    }
+
+    // Live documents of all expansions, each with its best weight
+    private DocSet materialize(List<Expansion> expansions) {
+        if (expansions.isEmpty()) {
+            return DocSet.EMPTY;
+        }
+        List<DocSet> sets = new ArrayList<>(expansions.size());
+        for (Expansion expansion : expansions) {
+            Postings postings = expansion.postings();
+            DocSet set = new DocSet(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = postings.ordinals[i];
+                if (docs.get(ordinal) != null) {
+                    set.append(ordinal, expansion.weight());
+                }
+            }
+            sets.add(set);
+        }
+        // Pairwise rounds keep the merge at n log k rather than n * k
+        while (sets.size() > 1) {
+            List<DocSet> merged = new ArrayList<>((sets.size() + 1) / 2);
+            for (int i = 0; i < sets.size(); i += 2) {
+                merged.add(i + 1 < sets.size() ? DocSet.union(sets.get(i), sets.get(i + 1)) : sets.get(i));
+            }
+            sets = merged;
+        }
+        return sets.get(0);
+    }
+
+    private static DocSet probe(DocSet candidates, List<Expansion> expansions) {
+        DocSet result = new DocSet(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            int ordinal = candidates.ordinals[i];
+            double best = 0;
+            for (Expansion expansion : expansions) {
+                if (expansion.weight() > best
+                        && Arrays.binarySearch(expansion.postings().ordinals, 0, expansion.postings().size, ordinal) >= 0) {
+                    best = expansion.weight();
+                }
+            }
+            if (best > 0) {
+                result.append(ordinal, candidates.scores[i] + best);
+            }
+        }
+        return result;
+    }
+
+    private static long cost(List<Expansion> expansions) {
+        long cost = 0;
+        for (Expansion expansion : expansions) {
+            cost += expansion.postings().size;
+        }
+        return cost;
+    }
+
+    private List<Hit> top(DocSet matches, String phrase, int limit) {
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparingInt(h -> h.name().length())
+                .thenComparing(Hit::id);
+        // Worst of the best `limit` at the head
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, order.reversed());
+        for (int i = 0; i < matches.size; i++) {
+            Doc doc = docs.get(matches.ordinals[i]);
+            double score = matches.scores[i];
+            if (doc.normalizedName().equals(phrase)) {
+                score += 2 * NAME_WEIGHT;
+            } else if (doc.normalizedName().startsWith(phrase)) {
+                score += NAME_WEIGHT;
+            }
+            if (best.size() == limit && score < best.peek().score()) {
+                continue; // cheap reject before building a hit
+            }
+            Hit hit = new Hit(doc.id(), doc.name(), score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (order.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    private void removeLocked(Long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal != null) {
+            docs.set(ordinal, null);
+            tombstones++;
+        }
+    }
+
+    private void addPosting(Map<String, Postings> terms, String term, int ordinal) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            terms.put(term, postings);
+            for (String gram : trigrams(term)) {
+                termsByTrigram.computeIfAbsent(gramKey(gram, term.length()), g -> new HashSet<>()).add(term);
+            }
+        }
+        postings.add(ordinal);
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones > 1024 && tombstones > docs.size() / 4) {
+            compact();
+        }
+    }
+
+    // Renumber the live documents densely, rewrite the postings to the new ordinals and forget
+    // terms nothing uses any more. Renumbering keeps the relative order, so postings stay sorted.
+    private void compact() {
+        int[] renumbered = new int[docs.size()];
+        List<Doc> live = new ArrayList<>(ordinalById.size());
+        for (int ordinal = 0; ordinal < docs.size(); ordinal++) {
+            Doc doc = docs.get(ordinal);
+            if (doc == null) {
+                renumbered[ordinal] = -1;
+            } else {
+                renumbered[ordinal] = live.size();
+                ordinalById.put(doc.id(), live.size());
+                live.add(doc);
+            }
+        }
+        compact(nameTerms, renumbered);
+        compact(descriptionTerms, renumbered);
+        termsByTrigram.values().removeIf(terms -> {
+            terms.removeIf(term -> !nameTerms.containsKey(term) && !descriptionTerms.containsKey(term));
+            return terms.isEmpty();
+        });
+        docs.clear();
+        docs.addAll(live);
+        docs.trimToSize();
+        tombstones = 0;
+    }
+
+    private static void compact(Map<String, Postings> terms, int[] renumbered) {
+        terms.values().removeIf(postings -> {
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = renumbered[postings.ordinals[i]];
+                if (ordinal >= 0) {
+                    postings.ordinals[kept++] = ordinal;
+                }
+            }
+            postings.size = kept;
+            if (kept > 0 && kept < postings.ordinals.length / 4) {
+                postings.ordinals = Arrays.copyOf(postings.ordinals, kept * 2);
+            }
+            return kept == 0;
+        });
+    }
+
+    // Ordinal slots in use, tombstones included
+    int ordinals() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cased, accent-free words, each once
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SPLIT.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    static String normalize(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase().strip();
+    }
+
+    // Trigrams of the term padded with boundary markers, so short terms still have some
+    static List<String> trigrams(String term) {
+        String padded = "^" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Trigram dictionary key: terms are also bucketed by length, so a typo lookup only reads
+    // terms whose length is within reach
+    private static String gramKey(String gram, int length) {
+        return gram + (char) Math.min(length, Character.MAX_VALUE);
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent swaps count as one edit), or max + 1 once it
+     * is known to exceed max
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, previous2[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    // Growable list of document ordinals for one term
+    private static final class Postings {
+        int[] ordinals = new int[2];
+        int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    // Documents in ascending ordinal order with a score each; postings are ascending too, because
+    // ordinals are handed out in insertion order
+    private static final class DocSet {
+        static final DocSet EMPTY = new DocSet(0);
+
+        int[] ordinals;
+        double[] scores;
+        int size;
+
+        DocSet(int capacity) {
+            ordinals = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void append(int ordinal, double score) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size * 2));
+                scores = Arrays.copyOf(scores, ordinals.length);
+            }
+            ordinals[size] = ordinal;
+            scores[size++] = score;
+        }
+
+        // Documents in either set; a document in both keeps the larger score
+        static DocSet union(DocSet a, DocSet b) {
+            DocSet result = new DocSet(a.size + b.size);
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                if (j == b.size || (i < a.size && a.ordinals[i] < b.ordinals[j])) {
+                    result.append(a.ordinals[i], a.scores[i++]);
+                } else if (i == a.size || b.ordinals[j] < a.ordinals[i]) {
+                    result.append(b.ordinals[j], b.scores[j++]);
+                } else {
+                    result.append(a.ordinals[i], Math.max(a.scores[i], b.scores[j]));
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        // Documents in both sets, scores summed
+        static DocSet intersect(DocSet a, DocSet b) {
+            DocSet result = new DocSet(Math.min(a.size, b.size));
+            int i = 0;
+            int j = 0;
+            while (i < a.size && j < b.size) {
+                if (a.ordinals[i] < b.ordinals[j]) {
+                    i++;
+                } else if (b.ordinals[j] < a.ordinals[i]) {
+                    j++;
+                } else {
+                    result.append(a.ordinals[i], a.scores[i++] + b.scores[j++]);
+                }
+            }
+            return result;
+        }
+    }
+}
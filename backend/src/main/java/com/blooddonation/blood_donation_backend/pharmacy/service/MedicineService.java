@@ -2,23 +2,62 @@ package com.blooddonation.blood_donation_backend.pharmacy.service;
 
 import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
 import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineRepository.SearchFields;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class MedicineService {
 
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     private final MedicineRepository repo;
+    private final MedicineCatalogService catalog;
+    private final MedicineInventoryService inventory;
+    private final MedicineSearchIndex searchIndex;
 
-    public MedicineService(MedicineRepository repo) {
+    public MedicineService(MedicineRepository repo, MedicineCatalogService catalog, MedicineInventoryService inventory,
+                           MedicineSearchIndex searchIndex) {
         this.repo = repo;
+        this.catalog = catalog;
+        this.inventory = inventory;
+        this.searchIndex = searchIndex;
+    }
+
+    // Build the search index from the catalogue once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadSearchIndex() {
+        searchIndex.clear();
+        try (Stream<SearchFields> rows = repo.streamSearchFields()) {
+            rows.forEach(row -> searchIndex.put(row.getId(), row.getName(), row.getDescription()));
+        }
+        log.info("Medicine search index loaded with {} medicines", searchIndex.size());
+    }
+
+    // One page of the catalog (slim rows), served from cache while nothing has changed
+    public MedicineCatalogService.CatalogPage getCatalogPage(MedicineCatalogService.Sort sort, String cursor, int size) {
+        return catalog.page(sort, cursor, size);
     }
 
-    // Get all medicines
-    public List<Medicine> getAllMedicines() {
-        return repo.findAll();
+    // ETag of that page as of now, for answering conditional requests without loading it
+    public String getCatalogEtag(MedicineCatalogService.Sort sort, String cursor, int size) {
+        return catalog.currentEtag(sort, cursor, size);
     }
 
     // Get medicine by ID
@@ -26,31 +65,75 @@ public class MedicineService {
         return repo.findById(id);
     }
 
-    // Search medicines by name (contains, case-insensitive)
-    public List<Medicine> searchMedicines(String keyword) {
-        return repo.findByNameContainingIgnoreCase(keyword);
+    // Search medicines by name and description, best match first (typos and partial words allowed)
+    public List<Medicine> searchMedicines(String keyword, int limit) {
+        List<MedicineSearchIndex.Hit> hits = searchIndex.search(keyword, clampLimit(limit));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Medicine> byId = new HashMap<>();
+        for (Medicine medicine : repo.findAllById(hits.stream().map(MedicineSearchIndex.Hit::id).toList())) {
+            byId.put(medicine.getId(), medicine);
+        }
+        List<Medicine> result = new ArrayList<>(hits.size());
+        for (MedicineSearchIndex.Hit hit : hits) {
+            Medicine medicine = byId.get(hit.id());
+            if (medicine != null) {
+                result.add(medicine);
+            }
+        }
+        return result;
     }
 
-    // Add new medicine
+    // Name suggestions for a partially typed query, served from the index alone
+    public List<MedicineSearchIndex.Hit> autocomplete(String prefix, int limit) {
+        return searchIndex.autocomplete(prefix, clampLimit(limit));
+    }
+
+    // Add new medicine; its initial stock becomes the first lot
+    @Transactional
     public Medicine addMedicine(Medicine medicine) {
-        return repo.save(medicine);
+        Medicine saved = repo.save(medicine);
+        inventory.openingLot(saved);
+        indexAfterCommit(saved);
+        return saved;
     }
 
-    // Update existing medicine
+    // Update existing medicine. Stock and expiry follow the lots (see MedicineInventoryService.receiveLot)
+    @Transactional
     public Medicine updateMedicine(Long id, Medicine updated) {
         return repo.findById(id).map(existing -> {
             existing.setName(updated.getName());
-            existing.setStock(updated.getStock());
-            existing.setExpiryDate(updated.getExpiryDate());
             existing.setPrice(updated.getPrice());
             existing.setDescription(updated.getDescription());
             existing.setImageUrl(updated.getImageUrl());
-            return repo.save(existing);
+            Medicine saved = repo.save(existing);
+            indexAfterCommit(saved);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Medicine not found with id " + id));
     }
 
-    // Delete medicine
+    // Delete a medicine and its lots together
+    @Transactional
     public void deleteMedicine(Long id) {
         repo.deleteById(id);
+        // Delete (and lock) the medicine row before its lots, so a delivery booked meanwhile can't orphan one
+        repo.flush();
+        inventory.removeLots(id);
+        catalog.invalidate();
+        TxHooks.afterCommit(() -> searchIndex.remove(id));
+    }
+
+    // Index changes only become visible once the write is committed
+    private void indexAfterCommit(Medicine medicine) {
+        Long id = medicine.getId();
+        String name = medicine.getName();
+        String description = medicine.getDescription();
+        catalog.invalidate();
+        TxHooks.afterCommit(() -> searchIndex.put(id, name, description));
+    }
+
+    private static int clampLimit(int limit) {
+        return limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
     }
 }
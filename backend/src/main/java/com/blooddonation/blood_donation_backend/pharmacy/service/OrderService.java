@@ -0,0 +1,181 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.pharmacy.dto.CreateOrderRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderDto;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderItemRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.model.DeliveryType;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Order;
+import com.blooddonation.blood_donation_backend.pharmacy.model.OrderItem;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.OrderRepository;
+
+/**
+ * Order placement. All lines of an order are reserved by one conditional UPDATE: a line only
+ * takes stock when enough is left, so two checkouts racing for the last units cannot both win.
+ * Rows are locked in id order first, so orders sharing several medicines cannot deadlock. The
+ * units are then taken from the medicines' lots, first expiry first. If any line comes up short
+ * the transaction rolls back and nothing stays reserved.
+ */
+@Service
+public class OrderService {
+
+    // Lock the wanted rows in a fixed order, then take stock only where enough is left.
+    // Under READ COMMITTED the stock check is re-evaluated against the latest committed row.
+    private static final String RESERVE =
+            "WITH wanted AS (SELECT * FROM unnest(?, ?) AS w(id, quantity)), "
+            + "locked AS (SELECT m.id FROM medicines m JOIN wanted w ON w.id = m.id ORDER BY m.id FOR UPDATE OF m) "
+            + "UPDATE medicines m SET stock = m.stock - w.quantity, updated_at = ? "
+            + "FROM wanted w JOIN locked l ON l.id = w.id "
+            + "WHERE m.id = w.id AND m.stock >= w.quantity "
+            + "RETURNING m.id, m.name, m.price";
+
+    private final OrderRepository orderRepository;
+    private final MedicineRepository medicineRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MedicineCatalogService catalog;
+    private final MedicineInventoryService inventory;
+    private final int maxLines;
+    private final int maxQuantity;
+
+    public OrderService(OrderRepository orderRepository,
+                        MedicineRepository medicineRepository,
+                        JdbcTemplate jdbcTemplate,
+                        MedicineCatalogService catalog,
+                        MedicineInventoryService inventory,
+                        @Value("${bloodcare.pharmacy.orders.max-lines:50}") int maxLines,
+                        @Value("${bloodcare.pharmacy.orders.max-quantity:100}") int maxQuantity) {
+        this.orderRepository = orderRepository;
+        this.medicineRepository = medicineRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalog = catalog;
+        this.inventory = inventory;
+        this.maxLines = maxLines;
+        this.maxQuantity = maxQuantity;
+    }
+
+    /**
+     * Reserve stock for every line and record the order at the prices the rows had when reserved
+     */
+    @Transactional
+    public OrderDto placeOrder(Long userId, CreateOrderRequest request) {
+        Map<Long, Integer> wanted = consolidate(request);
+        Map<Long, Reserved> reserved = reserve(wanted);
+        // The medicine rows are locked now; take the units from their lots, first expiry first
+        List<MedicineInventoryService.Allocation> allocations = new ArrayList<>();
+        List<Long> shortOf = inventory.allocate(wanted, allocations);
+        if (!shortOf.isEmpty()) {
+            throw new OutOfStockException(shortOf);
+        }
+        catalog.invalidate(); // the catalog shows stock
+
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setDeliveryType(request.getDeliveryType() == null ? DeliveryType.NORMAL : request.getDeliveryType());
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderDto.Item> items = new ArrayList<>(wanted.size());
+        for (Map.Entry<Long, Integer> line : wanted.entrySet()) {
+            Reserved row = reserved.get(line.getKey());
+            OrderItem item = new OrderItem();
+            item.setMedicine(medicineRepository.getReferenceById(line.getKey()));
+            item.setQuantity(line.getValue());
+            item.setPriceAtPurchase(row.price());
+            order.addItem(item);
+            total = total.add(row.price().multiply(BigDecimal.valueOf(line.getValue())));
+            items.add(new OrderDto.Item(line.getKey(), row.name(), line.getValue(), row.price()));
+        }
+        order.setTotalPrice(total);
+        Order saved = orderRepository.save(order);
+        inventory.recordAllocations(saved.getId(), allocations);
+        return new OrderDto(saved.getId(), saved.getUserId(), saved.getStatus(), saved.getDeliveryType(),
+                saved.getTotalPrice(), saved.getCreatedAt(), items);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDto> ordersFor(Long userId) {
+        return orderRepository.findWithItemsByUserId(userId).stream()
+                .map(OrderDto::of)
+                .toList();
+    }
+
+    // One line per medicine, in request order; duplicate lines are added up
+    private Map<Long, Integer> consolidate(CreateOrderRequest request) {
+        List<OrderItemRequest> lines = request == null ? null : request.getItems();
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+        Map<Long, Integer> wanted = new LinkedHashMap<>();
+        for (OrderItemRequest line : lines) {
+            if (line == null || line.getMedicineId() == null) {
+                throw new IllegalArgumentException("Every item needs a medicineId");
+            }
+            if (line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for medicine " + line.getMedicineId());
+            }
+            int quantity = wanted.merge(line.getMedicineId(), line.getQuantity(), Integer::sum);
+            if (quantity > maxQuantity) {
+                throw new IllegalArgumentException("At most " + maxQuantity + " units of medicine " + line.getMedicineId());
+            }
+        }
+        if (wanted.size() > maxLines) {
+            throw new IllegalArgumentException("At most " + maxLines + " different medicines per order");
+        }
+        return wanted;
+    }
+
+    private Map<Long, Reserved> reserve(Map<Long, Integer> wanted) {
+        Long[] ids = wanted.keySet().toArray(Long[]::new);
+        Integer[] quantities = wanted.values().toArray(Integer[]::new);
+        Timestamp now = Timestamp.from(OffsetDateTime.now().toInstant());
+        Map<Long, Reserved> reserved = new HashMap<>();
+        jdbcTemplate.query(RESERVE, ps -> {
+            Array idArray = ps.getConnection().createArrayOf("bigint", ids);
+            Array quantityArray = ps.getConnection().createArrayOf("integer", quantities);
+            ps.setArray(1, idArray);
+            ps.setArray(2, quantityArray);
+            ps.setTimestamp(3, now);
+        }, rs -> {
+            reserved.put(rs.getLong("id"), new Reserved(rs.getString("name"), rs.getBigDecimal("price")));
+        });
+        if (reserved.size() == wanted.size()) {
+            return reserved;
+        }
+
+        // Something came up short; throwing rolls back the lines that did go through
+        Set<Long> known = new HashSet<>(medicineRepository.findAllById(wanted.keySet()).stream()
+                .map(Medicine::getId)
+                .toList());
+        List<Long> unknown = new ArrayList<>();
+        List<Long> shortOf = new ArrayList<>();
+        for (Long id : wanted.keySet()) {
+            if (!known.contains(id)) {
+                unknown.add(id);
+            } else if (!reserved.containsKey(id)) {
+                shortOf.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown medicines " + unknown);
+        }
+        throw new OutOfStockException(shortOf);
+    }
+
+    private record Reserved(String name, BigDecimal price) {}
+}
@@ -0,0 +1,20 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.util.List;
+
+/**
+ * An order asked for more of some medicines than is in stock; nothing was reserved
+ */
+public class OutOfStockException extends RuntimeException {
+
+    private final List<Long> medicineIds;
+
+    public OutOfStockException(List<Long> medicineIds) {
+        super("Not enough stock for medicines " + medicineIds);
+        this.medicineIds = List.copyOf(medicineIds);
+    }
+
+    public List<Long> getMedicineIds() {
+        return medicineIds;
+    }
+}
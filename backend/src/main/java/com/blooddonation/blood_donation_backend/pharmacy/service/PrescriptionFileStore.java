@@ -0,0 +1,137 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed file store for prescriptions on the local disk. A file is streamed through a
+ * fixed direct buffer into a temp file while its SHA-256 is computed, then moved to
+ * ab/cd/&lt;hash&gt; under the root. Content that is already stored is not written twice, so an
+ * upload of a known file leaves one copy. Stored files are never modified.
+ */
+@Slf4j
+@Component
+public class PrescriptionFileStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxBytes;
+
+    public PrescriptionFileStore(@Value("${bloodcare.prescriptions.storage-dir:data/prescriptions}") String storageDir,
+                                 @Value("${bloodcare.prescriptions.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        this.maxBytes = maxSize.toBytes();
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Where a stored file ended up; deduplicated is true when the content was already there
+     */
+    public record StoredFile(String sha256, long size, String relativePath, boolean deduplicated) {}
+
+    public StoredFile store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "upload-", ".part");
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try (ReadableByteChannel in = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (in.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("File is larger than " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(false);
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = relativePath(hash);
+            Path target = root.resolve(relativePath);
+            if (Files.exists(target)) {
+                return new StoredFile(hash, size, relativePath, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+            } catch (FileAlreadyExistsException e) {
+                // the same content was stored concurrently
+                return new StoredFile(hash, size, relativePath, true);
+            }
+            return new StoredFile(hash, size, relativePath, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store prescription file", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * The stored file for a content hash
+     */
+    public Path path(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 content hash: " + sha256);
+        }
+        return root.resolve(relativePath(sha256));
+    }
+
+    private static String relativePath(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary upload {}", path, e);
+        }
+    }
+}
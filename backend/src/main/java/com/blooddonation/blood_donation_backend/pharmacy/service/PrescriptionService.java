@@ -0,0 +1,110 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.PrescriptionDto;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Prescription;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.PrescriptionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prescription uploads and access. The file goes to the content-addressed store and the row
+ * keeps its hash, so two uploads of the same scan share one file. A prescription is readable by
+ * the user who uploaded it and by admins.
+ */
+@Slf4j
+@Service
+public class PrescriptionService {
+
+    private static final Set<String> ALLOWED_TYPES = Set.of(
+            "application/pdf", "image/jpeg", "image/png", "image/webp");
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionFileStore fileStore;
+
+    public PrescriptionService(PrescriptionRepository prescriptionRepository, PrescriptionFileStore fileStore) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.fileStore = fileStore;
+    }
+
+    /**
+     * A prescription's stored file, ready to be served
+     */
+    public record StoredPrescription(Prescription prescription, Path path) {}
+
+    @Transactional
+    public PrescriptionDto upload(Long userId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No file uploaded");
+        }
+        String contentType = file.getContentType() == null ? "" : file.getContentType().toLowerCase();
+        if (!ALLOWED_TYPES.contains(contentType)) {
+            throw new IllegalArgumentException("Unsupported file type " + file.getContentType()
+                    + " (PDF, JPEG, PNG or WebP)");
+        }
+
+        // The multipart part is already on disk; this streams it into the store
+        PrescriptionFileStore.StoredFile stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = fileStore.store(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the uploaded file", e);
+        }
+        if (stored.deduplicated()) {
+            log.debug("Prescription upload {} matches stored content", stored.sha256());
+        }
+
+        Prescription prescription = new Prescription();
+        prescription.setUserId(userId);
+        prescription.setFileUrl(stored.relativePath());
+        prescription.setContentHash(stored.sha256());
+        prescription.setContentType(contentType);
+        prescription.setSizeBytes(stored.size());
+        prescription.setOriginalFilename(cleanFilename(file.getOriginalFilename()));
+        return PrescriptionDto.of(prescriptionRepository.save(prescription));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PrescriptionDto> prescriptionsFor(Long userId) {
+        return prescriptionRepository.findByUserIdOrderByUploadedAtDesc(userId).stream()
+                .map(PrescriptionDto::of)
+                .toList();
+    }
+
+    /**
+     * The prescription and its file, or empty when it does not exist or the user may not read it
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredPrescription> find(Long id, User user) {
+        return prescriptionRepository.findById(id)
+                .filter(p -> p.getContentHash() != null)
+                .filter(p -> p.getUserId().equals(user.getId()) || "ADMIN".equalsIgnoreCase(user.getRole()))
+                .map(p -> new StoredPrescription(p, fileStore.path(p.getContentHash())))
+                .filter(stored -> Files.isRegularFile(stored.path()));
+    }
+
+    // Keep the name only, never a client-side path
+    private static String cleanFilename(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String base = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1).strip();
+        if (base.isEmpty()) {
+            return null;
+        }
+        return base.length() > 255 ? base.substring(0, 255) : base;
+    }
+}
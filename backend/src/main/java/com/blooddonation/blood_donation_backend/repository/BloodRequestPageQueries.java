@@ -0,0 +1,21 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+
+/**
+ * Keyset pages of the request listing. Each filter combination is its own statement, so the
+ * database plans it against the matching (code, requested_at, id) index instead of settling on
+ * one generic plan for "column = :x OR :x IS NULL".
+ */
+public interface BloodRequestPageQueries {
+
+    /**
+     * Up to limit rows newest first, after (cursorAt, cursorId) when given; null filters are left out
+     */
+    List<BloodRequestDto> findPage(String status, BloodGroup bloodGroup, String locationKey,
+                                   LocalDateTime cursorAt, Long cursorId, int limit);
+}
@@ -0,0 +1,66 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class BloodRequestPageQueriesImpl implements BloodRequestPageQueries {
+
+    private static final String SELECT = "SELECT new com.blooddonation.blood_donation_backend.dto.BloodRequestDto("
+            + "r.id, r.patientName, r.bloodGroup, r.location, r.status, r.requestedAt, u.name) "
+            + "FROM BloodRequest r LEFT JOIN r.requestedBy u "
+            // Keyset paging needs a time on every row: entities default it on save and
+            // RequestService.backfillNormalizedColumns dates older rows, so this drops nothing
+            + "WHERE r.requestedAt IS NOT NULL ";
+
+    private static final String ORDER = "ORDER BY r.requestedAt DESC, r.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BloodRequestDto> findPage(String status, BloodGroup bloodGroup, String locationKey,
+                                          LocalDateTime cursorAt, Long cursorId, int limit) {
+        boolean after = cursorAt != null && cursorId != null;
+        TypedQuery<BloodRequestDto> query = entityManager.createQuery(
+                pageQuery(status != null, bloodGroup != null, locationKey != null, after), BloodRequestDto.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (bloodGroup != null) {
+            query.setParameter("bloodGroup", bloodGroup);
+        }
+        if (locationKey != null) {
+            query.setParameter("locationKey", locationKey);
+        }
+        if (after) {
+            query.setParameter("cursorAt", cursorAt);
+            query.setParameter("cursorId", cursorId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    // One fixed text per combination (16 in all), so each gets its own prepared statement and plan
+    static String pageQuery(boolean status, boolean bloodGroup, boolean locationKey, boolean after) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (status) {
+            jpql.append("AND r.status = :status ");
+        }
+        if (bloodGroup) {
+            jpql.append("AND r.bloodGroupCode = :bloodGroup ");
+        }
+        if (locationKey) {
+            jpql.append("AND r.locationKey = :locationKey ");
+        }
+        if (after) {
+            jpql.append("AND (r.requestedAt < :cursorAt OR (r.requestedAt = :cursorAt AND r.id < :cursorId)) ");
+        }
+        return jpql.append(ORDER).toString();
+    }
+}
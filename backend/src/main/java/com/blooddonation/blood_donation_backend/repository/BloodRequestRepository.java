@@ -1,16 +1,28 @@
 package com.blooddonation.blood_donation_backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
 import com.blooddonation.blood_donation_backend.model.BloodRequest;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long> {
+public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long>, BloodRequestPageQueries {
 
     // Count requests by status
     long countByStatus(String status);
@@ -18,18 +30,44 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
     // Get list of requests by status
     List<BloodRequest> findByStatus(String status);
 
-    // Case-insensitive search by blood group
-    @Query("SELECT r FROM BloodRequest r WHERE LOWER(r.bloodGroup) = LOWER(:bloodGroup)")
-    List<BloodRequest> findByBloodGroupIgnoreCase(@Param("bloodGroup") String bloodGroup);
+    // Search by normalized blood group / location key (indexed columns, see BloodRequest#normalize)
+    List<BloodRequest> findByBloodGroupCode(BloodGroup bloodGroupCode);
+
+    List<BloodRequest> findByLocationKey(String locationKey);
+
+    List<BloodRequest> findByBloodGroupCodeAndLocationKey(BloodGroup bloodGroupCode, String locationKey);
+
+    // Load a request holding its row lock, so concurrent status changes are applied one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BloodRequest r WHERE r.id = :id")
+    Optional<BloodRequest> findByIdForUpdate(@Param("id") Long id);
+
+    // Backfill normalized columns for rows written before they existed (set-based, idempotent)
+    @Modifying
+    @Query("UPDATE BloodRequest r SET r.bloodGroupCode = :code "
+            + "WHERE r.bloodGroupCode IS NULL AND UPPER(REPLACE(r.bloodGroup, ' ', '')) IN (:label, :name)")
+    int backfillBloodGroupCode(@Param("code") BloodGroup code,
+                               @Param("label") String label,
+                               @Param("name") String name);
 
-    // Case-insensitive search by location
-    @Query("SELECT r FROM BloodRequest r WHERE LOWER(r.location) = LOWER(:location)")
-    List<BloodRequest> findByLocationIgnoreCase(@Param("location") String location);
+    @Modifying
+    @Query("UPDATE BloodRequest r SET r.status = UPPER(TRIM(r.status)) WHERE r.status <> UPPER(TRIM(r.status))")
+    int normalizeStatuses();
 
-    // Case-insensitive search by both
-    @Query("SELECT r FROM BloodRequest r WHERE LOWER(r.bloodGroup) = LOWER(:bloodGroup) AND LOWER(r.location) = LOWER(:location)")
-    List<BloodRequest> findByBloodGroupAndLocationIgnoreCase(@Param("bloodGroup") String bloodGroup,
-                                                            @Param("location") String location);
+    @Modifying
+    @Query("UPDATE BloodRequest r SET r.locationKey = LOWER(TRIM(r.location)) "
+            + "WHERE r.locationKey IS NULL AND r.location IS NOT NULL AND TRIM(r.location) <> ''")
+    int backfillLocationKeys();
+
+    // Rows saved without a request time take the latest time among the requests before them (by id),
+    // else the earliest after them, so the newest-first listing keeps them in creation order
+    @Modifying
+    @Query("UPDATE BloodRequest r SET r.requestedAt = COALESCE("
+            + "(SELECT MAX(p.requestedAt) FROM BloodRequest p WHERE p.id < r.id AND p.requestedAt IS NOT NULL), "
+            + "(SELECT MIN(n.requestedAt) FROM BloodRequest n WHERE n.id > r.id AND n.requestedAt IS NOT NULL), "
+            + "CURRENT_TIMESTAMP) "
+            + "WHERE r.requestedAt IS NULL")
+    int backfillRequestedAt();
 
     @Query("SELECT r FROM BloodRequest r WHERE r.requestedAt BETWEEN :startDate AND :endDate")
     List<BloodRequest> findByRequestedAtBetween(@Param("startDate") java.time.LocalDateTime startDate,
@@ -39,4 +77,30 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
     List<BloodRequest> findByStatusAndRequestedAtBetween(@Param("status") String status,
                                                         @Param("startDate") java.time.LocalDateTime startDate,
                                                         @Param("endDate") java.time.LocalDateTime endDate);
+
+    // Export cursor: DTO rows oldest first, fetched from the driver in batches (needs an open transaction).
+    // With and without a status filter are separate statements so each keeps its own plan.
+    String EXPORT_SELECT = "SELECT new com.blooddonation.blood_donation_backend.dto.BloodRequestDto("
+            + "r.id, r.patientName, r.bloodGroup, r.location, r.status, r.requestedAt, u.name) "
+            + "FROM BloodRequest r LEFT JOIN r.requestedBy u "
+            + "WHERE r.requestedAt BETWEEN :startDate AND :endDate ";
+
+    String EXPORT_ORDER = "ORDER BY r.requestedAt, r.id";
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + EXPORT_ORDER)
+    Stream<BloodRequestDto> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND r.status = :status " + EXPORT_ORDER)
+    Stream<BloodRequestDto> streamForExportWithStatus(@Param("status") String status,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
 }
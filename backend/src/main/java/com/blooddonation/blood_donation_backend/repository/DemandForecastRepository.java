@@ -0,0 +1,14 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.DemandForecast;
+
+@Repository
+public interface DemandForecastRepository extends JpaRepository<DemandForecast, Long> {
+
+    List<DemandForecast> findByHospitalId(Long hospitalId);
+}
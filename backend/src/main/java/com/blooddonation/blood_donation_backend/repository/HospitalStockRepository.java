@@ -0,0 +1,17 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.HospitalStock;
+
+@Repository
+public interface HospitalStockRepository extends JpaRepository<HospitalStock, Long> {
+
+    List<HospitalStock> findByHospitalId(Long hospitalId);
+
+    List<HospitalStock> findByHospitalIdIn(Collection<Long> hospitalIds);
+}
@@ -1,5 +1,40 @@
 package com.blooddonation.blood_donation_backend.repository;
 
-public class NotificationRepository {
-    
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.Notfication;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notfication, Long> {
+
+    // Newest first, keyset on id: one query per combination of cursor and unread filter
+    List<Notfication> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    List<Notfication> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long beforeId, Pageable pageable);
+
+    List<Notfication> findByUserIdAndReadAtIsNullOrderByIdDesc(Long userId, Pageable pageable);
+
+    List<Notfication> findByUserIdAndIdLessThanAndReadAtIsNullOrderByIdDesc(Long userId, Long beforeId, Pageable pageable);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    long countByUserIdAndReadAtIsNull(Long userId);
+
+    // Scoped to the owner so one user can't touch another's notifications
+    @Modifying
+    @Query("UPDATE Notfication n SET n.readAt = :readAt "
+            + "WHERE n.id = :id AND n.userId = :userId AND n.readAt IS NULL")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE Notfication n SET n.readAt = :readAt WHERE n.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
 }
@@ -1,9 +1,11 @@
 package com.blooddonation.blood_donation_backend.repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -38,4 +40,45 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
      * Check if patient exists by phone
      */
     boolean existsByPhone(String phone);
+    
+    /**
+     * Find patient by Aadhaar blind index
+     */
+    Optional<Patient> findByAadhaarHash(String aadhaarHash);
+    
+    /**
+     * Check if patient exists by Aadhaar blind index
+     */
+    boolean existsByAadhaarHash(String aadhaarHash);
+    
+    /**
+     * Find patient by Aadhaar blind index together with medical records in a single fetch
+     */
+    @Query("SELECT DISTINCT p FROM Patient p LEFT JOIN FETCH p.medicalRecords WHERE p.aadhaarHash = :aadhaarHash")
+    Optional<Patient> findByAadhaarHashWithMedicalRecords(String aadhaarHash);
+    
+    /**
+     * Find patients enrolled with an Aadhaar number but without a blind index yet
+     */
+    List<Patient> findByAadhaarNumberIsNotNullAndAadhaarHashIsNull();
+
+    /**
+     * Which of the given blind index values are already taken
+     */
+    @Query("SELECT p.aadhaarHash FROM Patient p WHERE p.aadhaarHash IN :hashes")
+    List<String> findTakenAadhaarHashes(Collection<String> hashes);
+    
+    /**
+     * Stream id and encrypted fingerprint template of every patient, earliest enrolled first (used to build the fingerprint index)
+     */
+    @Query("SELECT p.id AS id, p.fingerprintTemplate AS fingerprintTemplate FROM Patient p ORDER BY p.createdAt, p.id")
+    Stream<FingerprintTemplateView> streamFingerprintTemplates();
+    
+    /**
+     * Minimal projection for fingerprint indexing
+     */
+    interface FingerprintTemplateView {
+        UUID getId();
+        String getFingerprintTemplate();
+    }
 }
\ No newline at end of file
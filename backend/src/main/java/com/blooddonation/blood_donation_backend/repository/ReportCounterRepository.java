@@ -0,0 +1,9 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.ReportCounter;
+
+@Repository
+public interface ReportCounterRepository extends JpaRepository<ReportCounter, String> { }
@@ -0,0 +1,22 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.StockMovement;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Newest first, keyset on id: one query per filter combination, so each keeps its own plan
+    List<StockMovement> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<StockMovement> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    List<StockMovement> findByHospitalIdOrderByIdDesc(Long hospitalId, Pageable pageable);
+
+    List<StockMovement> findByHospitalIdAndIdLessThanOrderByIdDesc(Long hospitalId, Long beforeId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.blooddonation.blood_donation_backend.model.StockTotal;
+
+@Repository
+public interface StockTotalRepository extends JpaRepository<StockTotal, Long> {
+
+    // National units on hand per blood group (sums the stripes)
+    @Query("SELECT t.bloodGroup AS bloodGroup, SUM(t.units) AS units FROM StockTotal t GROUP BY t.bloodGroup")
+    List<GroupTotal> sumByBloodGroup();
+
+    interface GroupTotal {
+        String getBloodGroup();
+        Long getUnits();
+    }
+}
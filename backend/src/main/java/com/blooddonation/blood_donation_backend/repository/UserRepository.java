@@ -2,8 +2,10 @@ package com.blooddonation.blood_donation_backend.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.blooddonation.blood_donation_backend.model.User;
 
@@ -13,4 +15,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // new
     List<User> findByBloodGroup(String bloodGroup);
+
+    /**
+     * Stream the fields the donor index needs for every donor (used to build the index at startup)
+     */
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.role AS role, "
+            + "u.bloodGroup AS bloodGroup, u.location AS location, u.latitude AS latitude, u.longitude AS longitude "
+            + "FROM User u WHERE UPPER(u.role) = 'DONOR'")
+    Stream<DonorView> streamDonors();
+
+    /**
+     * Minimal projection for donor indexing
+     */
+    interface DonorView {
+        Long getId();
+        String getName();
+        String getEmail();
+        String getRole();
+        String getBloodGroup();
+        String getLocation();
+        Double getLatitude();
+        Double getLongitude();
+    }
 }
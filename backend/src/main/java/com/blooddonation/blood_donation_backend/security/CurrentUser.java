@@ -0,0 +1,20 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated caller into a controller method parameter.
+ * Supported parameter types are {@link org.springframework.security.core.userdetails.UserDetails}
+ * (taken straight from the security context) and the
+ * {@link com.blooddonation.blood_donation_backend.model.User} entity (loaded at most once per request).
+ * Resolves to null when the request is not authenticated.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
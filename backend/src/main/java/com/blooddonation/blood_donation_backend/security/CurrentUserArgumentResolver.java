@@ -0,0 +1,64 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.repository.UserRepository;
+
+/**
+ * Resolves {@link CurrentUser} parameters from the authentication set by {@link JwtRequestFilter},
+ * so controllers never re-parse the Authorization header or re-validate the token.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".USER";
+
+    private final UserRepository userRepository;
+
+    public CurrentUserArgumentResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (User.class.isAssignableFrom(type) || UserDetails.class.isAssignableFrom(type));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken
+                || !(auth.getPrincipal() instanceof UserDetails principal)) {
+            return null;
+        }
+
+        if (UserDetails.class.isAssignableFrom(parameter.getParameterType())) {
+            return principal;
+        }
+
+        // Entity lookup is cached on the request so several parameters/calls share one query
+        Object cached = webRequest.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User user) {
+            return user;
+        }
+        User user = userRepository.findByEmail(principal.getUsername()).orElse(null);
+        if (user != null) {
+            webRequest.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -12,21 +12,31 @@ import com.blooddonation.blood_donation_backend.repository.UserRepository;
 public class CustomerUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public CustomerUserDetailsService(UserRepository userRepository) {
+    public CustomerUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = principalCache.generation();
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         // Return Spring Security UserDetails
-        return org.springframework.security.core.userdetails.User
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
                 .password(user.getPassword())
                 .roles(user.getRole()) // Roles must match DB string
                 .build();
+        principalCache.put(email, userDetails, generation);
+        return userDetails;
     }
 }
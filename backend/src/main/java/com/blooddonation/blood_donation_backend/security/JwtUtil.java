@@ -1,29 +1,50 @@
 package com.blooddonation.blood_donation_backend.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String CREDENTIAL_VERSION_CLAIM = "cv";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private long jwtExpiration;
 
-    // ✅ Generate SecretKey
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // ✅ Key and parser are built once; JwtParser is immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)   // ✅ 0.11.x uses setSigningKey
+                .build();
     }
 
     // 🔹 Generate JWT with email
@@ -32,43 +53,50 @@ public class JwtUtil {
                 .setSubject(email)   // ✅ use setSubject for 0.11.x
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    // 🔹 Overloaded method to accept UserDetails
+    // 🔹 Overloaded method to accept UserDetails: carries roles and credential version as claims
     public String generateToken(UserDetails userDetails) {
-        return generateToken(userDetails.getUsername());
+        return Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .claim(ROLES_CLAIM, authorityNames(userDetails.getAuthorities()))
+                .claim(CREDENTIAL_VERSION_CLAIM, credentialVersion(userDetails.getPassword()))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
     }
 
-    // 🔹 Extract email (subject) from token
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())   // ✅ 0.11.x uses setSigningKey
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    // 🔹 Verify signature and expiry once and return all claims (throws JwtException if invalid)
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // 🔹 Verify once and return subject, roles and expiry (throws JwtException if invalid)
+    public TokenClaims parseAndValidate(String token) {
+        Claims claims = parseClaims(token);
+        List<String> roles = claims.get(ROLES_CLAIM) instanceof Collection<?> values
+                ? values.stream().map(String::valueOf).toList()
+                : null;
+        return new TokenClaims(
+                claims.getSubject(),
+                roles,
+                claims.get(CREDENTIAL_VERSION_CLAIM, String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
     }
 
-    // 🔹 Check if token expired
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    // 🔹 Extract email (subject) from token
+    public String getEmailFromToken(String token) {
+        return parseClaims(token).getSubject();
     }
 
     // 🔹 Validate JWT (basic)
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException ex) {
             return false;
@@ -78,10 +106,40 @@ public class JwtUtil {
     // 🔹 Validate JWT against user
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String email = getEmailFromToken(token);
-            return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return matches(parseAndValidate(token), userDetails);
         } catch (JwtException | IllegalArgumentException ex) {
             return false;
         }
     }
+
+    // 🔹 Check already-verified claims against the current principal.
+    // Tokens issued before a role or password change no longer match.
+    public boolean matches(TokenClaims claims, UserDetails userDetails) {
+        if (!userDetails.getUsername().equals(claims.subject())) {
+            return false;
+        }
+        if (claims.roles() != null
+                && !new HashSet<>(claims.roles()).equals(new HashSet<>(authorityNames(userDetails.getAuthorities())))) {
+            return false;
+        }
+        return claims.credentialVersion() == null
+                || claims.credentialVersion().equals(credentialVersion(userDetails.getPassword()));
+    }
+
+    private static List<String> authorityNames(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    // Short fingerprint of the stored password hash; changes whenever the password does
+    private static String credentialVersion(String passwordHash) {
+        if (passwordHash == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, TTL-evicting cache of user principals keyed by subject (email).
+ * Lets authenticated requests skip the users table; entries are dropped
+ * when the user row changes (see {@link UserChangeListener}). A principal loaded before an
+ * invalidation is not cached, so a read racing a role or password change cannot put the old
+ * row back.
+ */
+@Component
+public class PrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    // Bumped by every invalidation
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(@Value("${bloodcare.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${bloodcare.security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        // access-ordered so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cached principal for the subject, or null when absent or expired.
+     * A fresh copy is returned because callers (e.g. ProviderManager) may erase credentials on it.
+     */
+    public UserDetails get(String subject) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(subject);
+            if (entry != null && entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(subject);
+                entry = null;
+            }
+        }
+        return entry == null ? null : User.withUserDetails(entry.details()).build();
+    }
+
+    /**
+     * Take before reading the user row and pass to {@link #put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a principal read at the given generation; skipped if anything was invalidated since
+     */
+    public void put(String subject, UserDetails details, long readAt) {
+        Entry entry = new Entry(User.withUserDetails(details).build(), System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            if (generation.get() == readAt) {
+                entries.put(subject, entry);
+            }
+        }
+    }
+
+    public void invalidate(String subject) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(subject);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private record Entry(UserDetails details, long expiresAt) {}
+}
@@ -0,0 +1,16 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a verified JWT, extracted in a single parse.
+ * roles and credentialVersion are null for tokens issued before they were added.
+ */
+public record TokenClaims(
+        String subject,
+        List<String> roles,
+        String credentialVersion,
+        Date issuedAt,
+        Date expiresAt
+) {}
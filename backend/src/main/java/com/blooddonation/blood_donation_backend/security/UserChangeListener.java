@@ -0,0 +1,47 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import org.springframework.stereotype.Component;
+
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link User}: drops the cached principal whenever the row is updated
+ * or removed, so a role or password change takes effect on the next request. Eviction
+ * happens after commit (a request reading before that would still see the old row) and
+ * covers the previous email as well when it changed.
+ */
+@Component
+public class UserChangeListener {
+
+    private final PrincipalCache principalCache;
+
+    public UserChangeListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void onLoad(User user) {
+        user.setPersistedEmail(user.getEmail());
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        String previous = user.getPersistedEmail();
+        String current = user.getEmail();
+        user.setPersistedEmail(current);
+        TxHooks.afterCommit(() -> {
+            principalCache.invalidate(current);
+            if (previous != null && !previous.equals(current)) {
+                principalCache.invalidate(previous);
+            }
+        });
+    }
+}
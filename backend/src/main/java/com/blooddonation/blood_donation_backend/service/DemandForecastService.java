@@ -0,0 +1,299 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.dto.DemandForecastDto;
+import com.blooddonation.blood_donation_backend.model.DemandForecast;
+import com.blooddonation.blood_donation_backend.model.HospitalStock;
+import com.blooddonation.blood_donation_backend.model.StockMovementReason;
+import com.blooddonation.blood_donation_backend.repository.DemandForecastRepository;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-hospital, per-blood-group demand forecast. Demand is the units taken from stock by request
+ * approvals (APPROVAL movements in the stock journal). A scheduled job folds each newly closed
+ * day into an exponentially weighted daily rate and into a per-weekday baseline smoothed over
+ * weeks, so the journal is read once, a day at a time. Reads combine the stored rate, scaled by
+ * the weekday baseline, with the live ledger to project when stock runs out.
+ */
+@Slf4j
+@Service
+public class DemandForecastService {
+
+    // Approved units per hospital, group and calendar day over [from, to)
+    private static final String DAILY_DEMAND =
+            "SELECT hospital_id, blood_group, CAST(created_at AS date) AS day, SUM(-delta) AS units "
+            + "FROM stock_movements WHERE reason = ? AND created_at >= ? AND created_at < ? "
+            + "GROUP BY hospital_id, blood_group, CAST(created_at AS date) ORDER BY day";
+
+    private static final String FIRST_DEMAND =
+            "SELECT MIN(created_at) FROM stock_movements WHERE reason = ?";
+
+    // Observations of every weekday needed before the weekly profile is trusted over a flat rate
+    private static final int MIN_SEASON_WEEKS = 2;
+
+    private final DemandForecastRepository forecastRepository;
+    private final HospitalStockRepository stockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final double alpha;
+    private final double seasonAlpha;
+    private final Duration grace;
+
+    public DemandForecastService(DemandForecastRepository forecastRepository,
+                                 HospitalStockRepository stockRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 Clock clock,
+                                 @Value("${bloodcare.forecast.window-days:28}") int windowDays,
+                                 @Value("${bloodcare.forecast.season-weeks:8}") int seasonWeeks,
+                                 @Value("${bloodcare.forecast.grace:PT10M}") Duration grace) {
+        this.forecastRepository = forecastRepository;
+        this.stockRepository = stockRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        // Same centre of mass as a simple moving average over windowDays (seasonWeeks for the weekdays)
+        this.alpha = 2.0 / (windowDays + 1);
+        this.seasonAlpha = 2.0 / (seasonWeeks + 1);
+        this.grace = grace;
+    }
+
+    /**
+     * Fold every day that has closed since the last run into the forecasts. A day counts as closed
+     * once the grace period after midnight has passed, so approvals committed around midnight are in.
+     * The table lock keeps concurrent runs (several instances, a manual refresh) from folding a day twice.
+     */
+    @Scheduled(cron = "${bloodcare.forecast.cron:0 15 0 * * *}")
+    @Transactional
+    public int refresh() {
+        jdbcTemplate.execute("LOCK TABLE demand_forecasts IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM demand_forecasts WHERE hospital_id NOT IN (SELECT id FROM hospitals)");
+
+        LocalDate through = LocalDateTime.now(clock).minus(grace).toLocalDate().minusDays(1);
+        Map<String, DemandForecast> forecasts = new HashMap<>();
+        LocalDate foldedThrough = null;
+        for (DemandForecast forecast : forecastRepository.findAll()) {
+            forecasts.put(key(forecast.getHospitalId(), forecast.getBloodGroup()), forecast);
+            if (forecast.getLastDay() != null
+                    && (foldedThrough == null || forecast.getLastDay().isAfter(foldedThrough))) {
+                foldedThrough = forecast.getLastDay();
+            }
+        }
+        if (foldedThrough != null && !foldedThrough.isBefore(through)) {
+            return 0;
+        }
+
+        // First run starts at the earliest approval; afterwards only the days since the last fold are read
+        LocalDateTime from;
+        if (foldedThrough != null) {
+            from = foldedThrough.plusDays(1).atStartOfDay();
+        } else {
+            LocalDateTime first = jdbcTemplate.queryForObject(FIRST_DEMAND, LocalDateTime.class,
+                    StockMovementReason.APPROVAL.name());
+            if (first == null) {
+                return 0;
+            }
+            from = first.toLocalDate().atStartOfDay();
+        }
+        LocalDateTime to = through.plusDays(1).atStartOfDay();
+        int[] days = {0};
+        jdbcTemplate.query(DAILY_DEMAND, rs -> {
+            Long hospitalId = rs.getLong("hospital_id");
+            String bloodGroup = rs.getString("blood_group");
+            DemandForecast forecast = forecasts.computeIfAbsent(key(hospitalId, bloodGroup),
+                    k -> DemandForecast.builder().hospitalId(hospitalId).bloodGroup(bloodGroup).build());
+            observe(forecast, rs.getDate("day").toLocalDate(), rs.getLong("units"), alpha, seasonAlpha);
+            days[0]++;
+        }, StockMovementReason.APPROVAL.name(), from, to);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (DemandForecast forecast : forecasts.values()) {
+            decayThrough(forecast, through, alpha, seasonAlpha);
+            forecast.setUpdatedAt(now);
+        }
+        forecastRepository.saveAll(forecasts.values());
+        log.info("Folded {} hospital-day demand rows through {} into {} forecasts", days[0], through, forecasts.size());
+        return days[0];
+    }
+
+    /**
+     * Catch up on the days missed while the application was down
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeForecasts() {
+        refresh();
+    }
+
+    /**
+     * Forecasts for one hospital (or all when hospitalId is null), soonest shortfall first
+     */
+    @Transactional(readOnly = true)
+    public List<DemandForecastDto> forecasts(Long hospitalId) {
+        List<DemandForecast> forecasts = hospitalId == null
+                ? forecastRepository.findAll()
+                : forecastRepository.findByHospitalId(hospitalId);
+        List<HospitalStock> stock = hospitalId == null
+                ? stockRepository.findAll()
+                : stockRepository.findByHospitalId(hospitalId);
+        Map<String, Integer> onHand = new HashMap<>();
+        for (HospitalStock row : stock) {
+            onHand.merge(key(row.getHospitalId(), row.getBloodGroup()), row.getUnits(), Integer::sum);
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        List<DemandForecastDto> result = new ArrayList<>(forecasts.size());
+        for (DemandForecast forecast : forecasts) {
+            int units = onHand.getOrDefault(key(forecast.getHospitalId(), forecast.getBloodGroup()), 0);
+            result.add(project(forecast, units, today, seasonAlpha));
+        }
+        result.sort(Comparator.comparing(DemandForecastDto::shortfallDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(DemandForecastDto::hospitalId)
+                .thenComparing(DemandForecastDto::bloodGroup));
+        return result;
+    }
+
+    /**
+     * Fold one day's demand into the averages, first decaying them over any idle days in between
+     */
+    static void observe(DemandForecast forecast, LocalDate day, long units, double alpha, double seasonAlpha) {
+        if (forecast.getLastDay() != null && !day.isAfter(forecast.getLastDay())) {
+            return; // already folded
+        }
+        if (forecast.getFirstDay() == null) {
+            forecast.setFirstDay(day);
+        } else {
+            decayThrough(forecast, day.minusDays(1), alpha, seasonAlpha);
+        }
+        forecast.setSmoothedUnits((1 - alpha) * forecast.getSmoothedUnits() + alpha * units);
+        forecast.setWeight((1 - alpha) * forecast.getWeight() + alpha);
+        foldWeekday(forecast, day.getDayOfWeek(), units, 1, seasonAlpha);
+        forecast.setTotalUnits(forecast.getTotalUnits() + units);
+        forecast.setLastDay(day);
+    }
+
+    /**
+     * Fold zero-demand days up to and including the given day. The weight keeps growing while the
+     * rate decays, which is what a run of idle days should do to the estimate.
+     */
+    static void decayThrough(DemandForecast forecast, LocalDate day, double alpha, double seasonAlpha) {
+        if (forecast.getLastDay() == null || !day.isAfter(forecast.getLastDay())) {
+            return;
+        }
+        long idle = ChronoUnit.DAYS.between(forecast.getLastDay(), day);
+        double keep = Math.pow(1 - alpha, idle);
+        forecast.setSmoothedUnits(forecast.getSmoothedUnits() * keep);
+        forecast.setWeight(forecast.getWeight() * keep + (1 - keep));
+        // Every weekday gets one zero per whole idle week, the first idle % 7 of them one more
+        LocalDate next = forecast.getLastDay().plusDays(1);
+        for (int i = 0; i < 7 && i < idle; i++) {
+            foldWeekday(forecast, next.plusDays(i).getDayOfWeek(), 0, idle / 7 + (i < idle % 7 ? 1 : 0), seasonAlpha);
+        }
+        forecast.setLastDay(day);
+    }
+
+    /**
+     * Fold the same value into one weekday's average the given number of times
+     */
+    private static void foldWeekday(DemandForecast forecast, DayOfWeek dayOfWeek, double units, long times,
+                                    double seasonAlpha) {
+        if (forecast.getWeekdayUnits() == null || forecast.getWeekdayWeights() == null) {
+            forecast.setWeekdayUnits(new double[7]);
+            forecast.setWeekdayWeights(new double[7]);
+        }
+        int i = dayOfWeek.getValue() - 1;
+        double keep = Math.pow(1 - seasonAlpha, times);
+        forecast.getWeekdayUnits()[i] = forecast.getWeekdayUnits()[i] * keep + (1 - keep) * units;
+        forecast.getWeekdayWeights()[i] = forecast.getWeekdayWeights()[i] * keep + (1 - keep);
+    }
+
+    /**
+     * How much busier each weekday (Monday first) is than the average day. All 1 until every
+     * weekday has been seen MIN_SEASON_WEEKS times or when there is no demand to spread.
+     */
+    static double[] weekdayFactors(DemandForecast forecast, double seasonAlpha) {
+        double[] factors = {1, 1, 1, 1, 1, 1, 1};
+        double[] units = forecast.getWeekdayUnits();
+        double[] weights = forecast.getWeekdayWeights();
+        if (units == null || weights == null) {
+            return factors;
+        }
+        double minWeight = 1 - Math.pow(1 - seasonAlpha, MIN_SEASON_WEEKS) - 1e-9;
+        double[] rates = new double[7];
+        double sum = 0;
+        for (int i = 0; i < 7; i++) {
+            if (weights[i] < minWeight) {
+                return factors;
+            }
+            rates[i] = units[i] / weights[i];
+            sum += rates[i];
+        }
+        if (sum <= 1e-9) {
+            return factors;
+        }
+        for (int i = 0; i < 7; i++) {
+            factors[i] = rates[i] * 7 / sum;
+        }
+        return factors;
+    }
+
+    /**
+     * Walk the days from today, taking the daily rate scaled by each weekday's factor, until the
+     * units on hand no longer cover a day. That day is the shortfall.
+     */
+    static DemandForecastDto project(DemandForecast forecast, int unitsOnHand, LocalDate today, double seasonAlpha) {
+        double rate = forecast.dailyRate();
+        double[] factors = weekdayFactors(forecast, seasonAlpha);
+        Double daysOfCover = null;
+        LocalDate shortfall = null;
+        if (rate > 1e-6) {
+            // The factors average 1, so any whole week takes 7 days of the rate: skip those, leaving
+            // at least a week to walk one day at a time
+            double remaining = Math.max(unitsOnHand, 0);
+            long weeks = Math.max((long) Math.floor(remaining / (7 * rate)) - 1, 0);
+            remaining -= weeks * 7 * rate;
+            LocalDate day = today.plusWeeks(weeks);
+            double cover = weeks * 7;
+            double demand = rate * factors[day.getDayOfWeek().getValue() - 1];
+            while (demand <= remaining) {
+                remaining -= demand;
+                cover++;
+                day = day.plusDays(1);
+                demand = rate * factors[day.getDayOfWeek().getValue() - 1];
+            }
+            daysOfCover = cover + remaining / demand;
+            shortfall = day;
+        }
+        Map<DayOfWeek, Double> byWeekday = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            byWeekday.put(dayOfWeek, factors[dayOfWeek.getValue() - 1]);
+        }
+        return new DemandForecastDto(forecast.getHospitalId(), forecast.getBloodGroup(), rate, unitsOnHand,
+                daysOfCover, shortfall, forecast.getLastDay(), byWeekday);
+    }
+
+    private static String key(Long hospitalId, String bloodGroup) {
+        return hospitalId + "|" + Objects.requireNonNullElse(bloodGroup, "");
+    }
+}
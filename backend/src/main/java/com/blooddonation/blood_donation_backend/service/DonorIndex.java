@@ -0,0 +1,180 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.stereotype.Component;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+
+/**
+ * Donor Index - In-memory index of eligible donors by blood group and location key.
+ * Matching walks the compatible groups in preference order and stops as soon as it has
+ * enough candidates, so the cost depends on the requested limit, not the number of donors.
+ */
+@Component
+public class DonorIndex {
+
+    private final Map<Long, Entry> donorsById = new ConcurrentHashMap<>();
+    // sorted by id, so a group can be listed page by page
+    private final Map<BloodGroup, NavigableSet<Long>> idsByGroup = new EnumMap<>(BloodGroup.class);
+    private final Map<BloodGroup, Map<String, Set<Long>>> idsByGroupAndLocation = new EnumMap<>(BloodGroup.class);
+    // donors that have coordinates, for nearest-donor queries
+    private final GeoGrid<Entry> located = new GeoGrid<>(GEO_CELL_DEGREES);
+
+    static final double GEO_CELL_DEGREES = 0.05; // ~5.5 km north-south
+
+    public DonorIndex() {
+        for (BloodGroup group : BloodGroup.values()) {
+            idsByGroup.put(group, new ConcurrentSkipListSet<>());
+            idsByGroupAndLocation.put(group, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Add or replace a donor. Writers are serialized so the three maps stay consistent;
+     * readers never lock and skip ids that disappear underneath them.
+     */
+    public synchronized void put(Entry donor) {
+        remove(donor.id());
+        donorsById.put(donor.id(), donor);
+        idsByGroup.get(donor.group()).add(donor.id());
+        if (donor.locationKey() != null) {
+            idsByGroupAndLocation.get(donor.group())
+                    .computeIfAbsent(donor.locationKey(), k -> ConcurrentHashMap.newKeySet())
+                    .add(donor.id());
+        }
+        if (GeoGrid.isValid(donor.latitude(), donor.longitude())) {
+            located.put(donor.id(), donor.latitude(), donor.longitude(), donor);
+        }
+    }
+
+    public synchronized void remove(Long donorId) {
+        Entry previous = donorsById.remove(donorId);
+        if (previous == null) {
+            return;
+        }
+        idsByGroup.get(previous.group()).remove(donorId);
+        located.remove(donorId);
+        if (previous.locationKey() != null) {
+            Map<String, Set<Long>> byLocation = idsByGroupAndLocation.get(previous.group());
+            Set<Long> ids = byLocation.get(previous.locationKey());
+            if (ids != null) {
+                ids.remove(donorId);
+                if (ids.isEmpty()) {
+                    byLocation.remove(previous.locationKey());
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        donorsById.clear();
+        idsByGroup.values().forEach(Set::clear);
+        idsByGroupAndLocation.values().forEach(Map::clear);
+        located.clear();
+    }
+
+    public int size() {
+        return donorsById.size();
+    }
+
+    /**
+     * Donors of exactly this group in id order, starting after afterId (from the start when null), up to limit
+     */
+    public List<Entry> byGroup(BloodGroup group, Long afterId, int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, 64));
+        NavigableSet<Long> ids = idsByGroup.get(group);
+        for (Long id : afterId == null ? ids : ids.tailSet(afterId, false)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Entry donor = donorsById.get(id);
+            if (donor != null) {
+                result.add(donor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ranked compatible donors for a recipient: same location before elsewhere, and within
+     * each of those the closest compatible group first (see {@link BloodGroup#compatibleDonors()}).
+     */
+    public List<Match> match(BloodGroup recipient, String locationKey, int limit) {
+        List<Match> result = new ArrayList<>(Math.min(limit, 64));
+        List<BloodGroup> donorGroups = recipient.compatibleDonors();
+
+        if (locationKey != null) {
+            for (BloodGroup group : donorGroups) {
+                Set<Long> local = idsByGroupAndLocation.get(group).get(locationKey);
+                if (local != null && collect(local, recipient, null, true, result, limit)) {
+                    return result;
+                }
+            }
+        }
+        for (BloodGroup group : donorGroups) {
+            if (collect(idsByGroup.get(group), recipient, locationKey, false, result, limit)) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nearest donors with coordinates who can give to the recipient (any group when null), within maxKm
+     */
+    public List<GeoGrid.Hit<Entry>> nearest(BloodGroup recipient, double latitude, double longitude, int limit, double maxKm) {
+        return located.nearest(latitude, longitude, limit, maxKm,
+                recipient == null ? null : donor -> donor.group().canDonateTo(recipient));
+    }
+
+    /**
+     * Append donors from ids (skipping those at skipLocation, already taken); true once the limit is reached
+     */
+    private boolean collect(Set<Long> ids, BloodGroup recipient, String skipLocation, boolean sameLocation,
+                            List<Match> result, int limit) {
+        for (Long id : ids) {
+            if (result.size() >= limit) {
+                return true;
+            }
+            Entry donor = donorsById.get(id);
+            if (donor == null || (skipLocation != null && skipLocation.equals(donor.locationKey()))) {
+                continue;
+            }
+            result.add(new Match(donor, sameLocation, donor.group() == recipient));
+        }
+        return result.size() >= limit;
+    }
+
+    /**
+     * Index entry for a user, or null when the user is not an eligible donor
+     * (not in the DONOR role, or no recognisable blood group)
+     */
+    public static Entry entryFor(Long id, String name, String email, String role, String bloodGroup, String location,
+                                 Double latitude, Double longitude) {
+        BloodGroup group = BloodGroup.parse(bloodGroup);
+        if (id == null || group == null || !"DONOR".equalsIgnoreCase(role)) {
+            return null;
+        }
+        return new Entry(id, name, email, group, location, LocationKey.of(location), latitude, longitude);
+    }
+
+    public record Entry(Long id, String name, String email, BloodGroup group, String location, String locationKey,
+                        Double latitude, Double longitude) {
+        public Entry {
+            Objects.requireNonNull(id);
+            Objects.requireNonNull(group);
+        }
+    }
+
+    public record Match(Entry donor, boolean sameLocation, boolean exactGroup) {}
+}
@@ -0,0 +1,46 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import org.springframework.stereotype.Component;
+
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link User}: keeps the {@link DonorIndex} in step with registrations,
+ * profile changes and deletions. Changes are applied after commit so a rolled back
+ * write never reaches the index.
+ */
+@Component
+public class DonorIndexListener {
+
+    private final DonorIndex donorIndex;
+
+    public DonorIndexListener(DonorIndex donorIndex) {
+        this.donorIndex = donorIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        Long id = user.getId();
+        DonorIndex.Entry entry = DonorIndex.entryFor(id, user.getName(), user.getEmail(),
+                user.getRole(), user.getBloodGroup(), user.getLocation(), user.getLatitude(), user.getLongitude());
+        TxHooks.afterCommit(() -> {
+            if (entry == null) {
+                donorIndex.remove(id);
+            } else {
+                donorIndex.put(entry);
+            }
+        });
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        Long id = user.getId();
+        TxHooks.afterCommit(() -> donorIndex.remove(id));
+    }
+}
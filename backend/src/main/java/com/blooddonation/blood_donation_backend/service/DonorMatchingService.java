@@ -0,0 +1,125 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.dto.DonorMatchDto;
+import com.blooddonation.blood_donation_backend.dto.UserProfileDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
+import com.blooddonation.blood_donation_backend.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ranks compatible donors for a blood request from the in-memory {@link DonorIndex}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DonorMatchingService {
+
+    private final DonorIndex donorIndex;
+    private final UserRepository userRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+
+    @Value("${bloodcare.donors.match.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${bloodcare.donors.match.max-limit:500}")
+    private int maxLimit;
+
+    /**
+     * Build the donor index from the users table once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadDonorIndex() {
+        donorIndex.clear();
+        try (Stream<UserRepository.DonorView> donors = userRepository.streamDonors()) {
+            donors.forEach(d -> {
+                DonorIndex.Entry entry = DonorIndex.entryFor(d.getId(), d.getName(), d.getEmail(),
+                        d.getRole(), d.getBloodGroup(), d.getLocation(), d.getLatitude(), d.getLongitude());
+                if (entry != null) {
+                    donorIndex.put(entry);
+                }
+            });
+        }
+        log.info("Donor index loaded with {} donors", donorIndex.size());
+    }
+
+    /**
+     * Ranked donors who can give to the patient of this request
+     */
+    public List<DonorMatchDto> matchForRequest(Long requestId, Integer limit) {
+        BloodRequest request = bloodRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Request not found: " + requestId));
+        return match(request.getBloodGroup(), request.getLocation(), limit);
+    }
+
+    /**
+     * Ranked donors who can give to a recipient of this group, nearby donors first
+     */
+    public List<DonorMatchDto> match(String bloodGroup, String location, Integer limit) {
+        BloodGroup recipient = requireGroup(bloodGroup);
+        return donorIndex.match(recipient, LocationKey.of(location), cap(limit)).stream()
+                .map(m -> new DonorMatchDto(
+                        m.donor().id(),
+                        m.donor().name(),
+                        m.donor().email(),
+                        m.donor().group().label(),
+                        m.donor().location(),
+                        m.sameLocation(),
+                        m.exactGroup()))
+                .toList();
+    }
+
+    /**
+     * One page of donors of exactly this group in id order (the max limit unless asked for fewer);
+     * the cursor is the nextCursor of the previous page
+     */
+    public CursorPage<UserProfileDto> donorsOfGroup(String bloodGroup, String cursor, Integer limit) {
+        BloodGroup group = requireGroup(bloodGroup);
+        int size = cap(limit == null ? maxLimit : limit);
+        Long afterId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        // one extra row tells whether another page follows
+        List<DonorIndex.Entry> rows = donorIndex.byGroup(group, afterId, size + 1);
+        List<UserProfileDto> items = rows.stream()
+                .limit(size)
+                .map(d -> new UserProfileDto(d.id(), d.name(), d.email(), "DONOR", d.group().label()))
+                .toList();
+        String next = rows.size() > size ? String.valueOf(items.get(size - 1).id()) : null;
+        return new CursorPage<>(items, next);
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private BloodGroup requireGroup(String bloodGroup) {
+        BloodGroup group = BloodGroup.parse(bloodGroup);
+        if (group == null) {
+            throw new IllegalArgumentException("Unknown blood group: " + bloodGroup);
+        }
+        return group;
+    }
+
+    private int cap(Integer limit) {
+        return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+    }
+}
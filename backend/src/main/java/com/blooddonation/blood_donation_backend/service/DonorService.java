@@ -6,10 +6,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
 import com.blooddonation.blood_donation_backend.model.BloodRequest;
 import com.blooddonation.blood_donation_backend.model.DonationSlot;
 import com.blooddonation.blood_donation_backend.model.Donor;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
 import com.blooddonation.blood_donation_backend.model.User;
 import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
 import com.blooddonation.blood_donation_backend.repository.DonationSlotRepository;
@@ -21,13 +24,16 @@ public class DonorService {
     private final DonorRepository donorRepository;
     private final BloodRequestRepository bloodRequestRepository;
     private final DonationSlotRepository donationSlotRepository;
+    private final RequestService requestService;
 
     public DonorService(DonorRepository donorRepository,
                         BloodRequestRepository bloodRequestRepository,
-                        DonationSlotRepository donationSlotRepository) {
+                        DonationSlotRepository donationSlotRepository,
+                        RequestService requestService) {
         this.donorRepository = donorRepository;
         this.bloodRequestRepository = bloodRequestRepository;
         this.donationSlotRepository = donationSlotRepository;
+        this.requestService = requestService;
     }
 
     // -------- Donor CRUD --------
@@ -50,36 +56,33 @@ public class DonorService {
 
     public BloodRequest createBloodRequest(String patientName, String bloodGroup, String location, User requestedBy) {
         BloodRequest request = new BloodRequest(patientName, bloodGroup, location, "PENDING", requestedBy);
-        return bloodRequestRepository.save(request);
+        return requestService.createRequest(request);
     }
 
+    @Transactional
     public BloodRequest acceptRequest(Long requestId, Long donorId) {
-        BloodRequest request = bloodRequestRepository.findById(requestId)
-            .orElseThrow(() -> new RuntimeException("Request not found"));
-        request.setStatus("ACCEPTED");
+        BloodRequest request = requestService.changeStatus(requestId, "ACCEPTED");
         // Set the donor who accepted
         request.setRequestedBy(null); // Or store the donor somewhere if needed
-        return bloodRequestRepository.save(request);
+        return request;
     }
 
     public BloodRequest declineRequest(Long requestId) {
-        BloodRequest request = bloodRequestRepository.findById(requestId)
-            .orElseThrow(() -> new RuntimeException("Request not found"));
-        request.setStatus("REJECTED");
-        return bloodRequestRepository.save(request);
+        return requestService.changeStatus(requestId, "REJECTED");
     }
 
     // -------- Search Requests --------
     public List<BloodRequest> searchByBloodGroup(String bloodGroup) {
-        return bloodRequestRepository.findByBloodGroupIgnoreCase(bloodGroup);
+        return bloodRequestRepository.findByBloodGroupCode(BloodGroup.parse(bloodGroup));
     }
 
     public List<BloodRequest> searchByLocation(String location) {
-        return bloodRequestRepository.findByLocationIgnoreCase(location);
+        return bloodRequestRepository.findByLocationKey(LocationKey.of(location));
     }
 
     public List<BloodRequest> searchByBloodGroupAndLocation(String bloodGroup, String location) {
-        return bloodRequestRepository.findByBloodGroupAndLocationIgnoreCase(bloodGroup, location);
+        return bloodRequestRepository.findByBloodGroupCodeAndLocationKey(
+                BloodGroup.parse(bloodGroup), LocationKey.of(location));
     }
 
     public List<BloodRequest> getRequestsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
@@ -1,61 +1,197 @@
 package com.blooddonation.blood_donation_backend.service;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
 /**
  * Encryption Service - Handles AES encryption/decryption for sensitive data
+ *
+ * New data is encrypted with AES-GCM (authenticated, random IV per value). Values written
+ * by the previous AES/ECB scheme are still readable; they are told apart by the "v2:" prefix.
+ * Keys are resolved once and each thread reuses its own Cipher/Mac instances.
  */
 @Service
 public class EncryptionService {
     
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String BLIND_INDEX_ALGORITHM = "HmacSHA256";
+    private static final String VERSION_PREFIX = "v2:";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
     
     @Value("${bloodcare.encryption.key:BloodCareSecretKey123456789012}")
     private String encryptionKey;
     
+    // No built-in default: the dev profile supplies one (application-dev.properties), anything else must set it
+    @Value("${bloodcare.blind-index.key:}")
+    private String blindIndexKey;
+    
+    private SecretKey secretKey;
+    private SecretKey legacyKey;
+    private SecretKey blindIndexSecret;
+    
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> newCipher(TRANSFORMATION));
+    private final ThreadLocal<Cipher> legacyCiphers = ThreadLocal.withInitial(() -> newCipher(LEGACY_TRANSFORMATION));
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance(BLIND_INDEX_ALGORITHM);
+            mac.init(blindIndexSecret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create " + BLIND_INDEX_ALGORITHM, e);
+        }
+    });
+    
+    /**
+     * Resolve keys once. A configured key of 16/24/32 bytes is used as is;
+     * any other length is stretched to 256 bits with SHA-256.
+     */
+    @PostConstruct
+    void initKeys() throws GeneralSecurityException {
+        if (blindIndexKey == null || blindIndexKey.isBlank()) {
+            throw new IllegalStateException("bloodcare.blind-index.key is not set: set BLOODCARE_BLIND_INDEX_KEY, "
+                    + "or run with the dev profile for the development key");
+        }
+        byte[] raw = encryptionKey.getBytes(StandardCharsets.UTF_8);
+        boolean validAesLength = raw.length == 16 || raw.length == 24 || raw.length == 32;
+        byte[] keyBytes = validAesLength ? raw : MessageDigest.getInstance("SHA-256").digest(raw);
+        this.secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
+        // ECB data could only ever have been written with a valid raw key
+        this.legacyKey = validAesLength ? secretKey : null;
+        this.blindIndexSecret = new SecretKeySpec(blindIndexKey.getBytes(StandardCharsets.UTF_8), BLIND_INDEX_ALGORITHM);
+    }
+    
     /**
      * Encrypt data using AES encryption
      */
     public String encrypt(String data) {
+        byte[] encrypted = encryptBytes(data.getBytes(StandardCharsets.UTF_8));
+        return VERSION_PREFIX + Base64.getEncoder().encodeToString(encrypted);
+    }
+    
+    /**
+     * Decrypt data using AES decryption
+     */
+    public String decrypt(String encryptedData) {
+        if (encryptedData.startsWith(VERSION_PREFIX)) {
+            byte[] decoded = Base64.getDecoder().decode(encryptedData.substring(VERSION_PREFIX.length()));
+            return new String(decryptBytes(decoded), StandardCharsets.UTF_8);
+        }
+        return decryptLegacy(encryptedData);
+    }
+    
+    /**
+     * Encrypt raw bytes. Output layout is IV || ciphertext || tag, in a single allocation.
+     */
+    public byte[] encryptBytes(byte[] plain) {
         try {
-            SecretKey secretKey = new SecretKeySpec(encryptionKey.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes());
-            return Base64.getEncoder().encodeToString(encryptedBytes);
-        } catch (Exception e) {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] out = new byte[IV_LENGTH + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, out, 0, IV_LENGTH);
+            cipher.doFinal(plain, 0, plain.length, out, IV_LENGTH);
+            return out;
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error encrypting data", e);
         }
     }
     
     /**
-     * Decrypt data using AES decryption
+     * Decrypt bytes produced by {@link #encryptBytes(byte[])}; fails if the data was tampered with
      */
-    public String decrypt(String encryptedData) {
+    public byte[] decryptBytes(byte[] encrypted) {
         try {
-            SecretKey secretKey = new SecretKeySpec(encryptionKey.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            
-            byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
-            return new String(decryptedBytes);
-        } catch (Exception e) {
+            if (encrypted.length < IV_LENGTH) {
+                throw new IllegalArgumentException("Encrypted data is too short");
+            }
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, encrypted, 0, IV_LENGTH));
+            return cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+    }
+    
+    /**
+     * Encrypt a batch of values, reusing the calling thread's cipher
+     */
+    public List<byte[]> encryptAll(List<byte[]> plain) {
+        List<byte[]> result = new ArrayList<>(plain.size());
+        for (byte[] p : plain) {
+            result.add(encryptBytes(p));
+        }
+        return result;
+    }
+    
+    /**
+     * Decrypt a batch of values, reusing the calling thread's cipher
+     */
+    public List<byte[]> decryptAll(List<byte[]> encrypted) {
+        List<byte[]> result = new ArrayList<>(encrypted.size());
+        for (byte[] e : encrypted) {
+            result.add(decryptBytes(e));
+        }
+        return result;
+    }
+    
+    /**
+     * Keyed hash (HMAC-SHA256) of a value, used as a searchable blind index
+     * for sensitive identifiers without storing a plain hash of them
+     */
+    public String blindIndex(String value) {
+        Mac mac = macs.get();
+        return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    /**
+     * Decrypt a value written by the old AES/ECB scheme
+     */
+    private String decryptLegacy(String encryptedData) {
+        if (legacyKey == null) {
+            throw new RuntimeException("Error decrypting data: no legacy key configured");
+        }
+        try {
+            Cipher cipher = legacyCiphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+            byte[] decryptedBytes = cipher.doFinal(Base64.getDecoder().decode(encryptedData));
+            return new String(decryptedBytes, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error decrypting data", e);
         }
     }
     
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create cipher " + transformation, e);
+        }
+    }
+    
     /**
      * Generate a secure hash for fingerprint templates
      * This is a simplified version - in production, use proper fingerprint SDK
@@ -64,9 +200,8 @@ public class EncryptionService {
         try {
             // Simple hash generation for demo purposes
             // In production, use proper fingerprint template extraction
-            SecureRandom random = new SecureRandom();
             byte[] salt = new byte[16];
-            random.nextBytes(salt);
+            RANDOM.nextBytes(salt);
             
             // Combine fingerprint data with salt
             byte[] combined = new byte[fingerprintData.length + salt.length];
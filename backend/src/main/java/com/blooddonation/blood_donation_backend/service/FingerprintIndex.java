@@ -0,0 +1,73 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Fingerprint Index - In-memory lookup from the blind index of a normalized template to patient id.
+ * Built once at startup and kept current on enrollment, so a scan is a single hash lookup
+ * instead of decrypting every stored template.
+ */
+@Component
+public class FingerprintIndex {
+
+    private final EncryptionService encryptionService;
+    private final Map<String, UUID> patientsByKey = new ConcurrentHashMap<>();
+
+    public FingerprintIndex(EncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
+
+    /**
+     * Register the template of a patient. A template is enrolled for one patient only: if it
+     * already belongs to someone else, the first patient keeps it and false is returned.
+     */
+    public boolean put(String fingerprintTemplate, UUID patientId) {
+        UUID existing = patientsByKey.putIfAbsent(key(fingerprintTemplate), patientId);
+        return existing == null || existing.equals(patientId);
+    }
+
+    /**
+     * Remove a template, but only if it still points at the given patient
+     */
+    public void remove(String fingerprintTemplate, UUID patientId) {
+        patientsByKey.remove(key(fingerprintTemplate), patientId);
+    }
+
+    /**
+     * Find the patient enrolled with this template, if any
+     */
+    public Optional<UUID> find(String fingerprintTemplate) {
+        return Optional.ofNullable(patientsByKey.get(key(fingerprintTemplate)));
+    }
+
+    /**
+     * Whether a scanned template is the stored one, under the same normalization the index keys on
+     */
+    public boolean matches(String scannedTemplate, String storedTemplate) {
+        return normalize(scannedTemplate).equals(normalize(storedTemplate));
+    }
+
+    public int size() {
+        return patientsByKey.size();
+    }
+
+    public void clear() {
+        patientsByKey.clear();
+    }
+
+    /**
+     * Templates are compared exactly, apart from surrounding whitespace
+     */
+    static String normalize(String fingerprintTemplate) {
+        return fingerprintTemplate.trim();
+    }
+
+    private String key(String fingerprintTemplate) {
+        return encryptionService.blindIndex(normalize(fingerprintTemplate));
+    }
+}
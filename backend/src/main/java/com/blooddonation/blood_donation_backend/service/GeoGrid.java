@@ -0,0 +1,165 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index: points bucketed into fixed lat/lon grid cells. A nearest-k query scans
+ * rings of cells outward from the query cell and stops once no unscanned cell can hold anything
+ * closer than the k-th best hit, so its cost depends on local density, not on the number of points.
+ * Longitude wrap-around at the antimeridian is not handled.
+ */
+public final class GeoGrid<T> {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final Map<Long, Map<Long, Point<T>>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Point<T>> pointsById = new ConcurrentHashMap<>();
+
+    public GeoGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public record Point<T>(long id, double latitude, double longitude, T value) {}
+
+    public record Hit<T>(long id, T value, double distanceKm) {}
+
+    /**
+     * Add or move a point. Writers are serialized; readers never lock.
+     */
+    public synchronized void put(long id, double latitude, double longitude, T value) {
+        remove(id);
+        Point<T> point = new Point<>(id, latitude, longitude, value);
+        pointsById.put(id, point);
+        cells.computeIfAbsent(cellKey(row(latitude), column(longitude)), k -> new ConcurrentHashMap<>()).put(id, point);
+    }
+
+    public synchronized void remove(long id) {
+        Point<T> previous = pointsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(row(previous.latitude()), column(previous.longitude()));
+        Map<Long, Point<T>> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(id);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        cells.clear();
+        pointsById.clear();
+    }
+
+    public int size() {
+        return pointsById.size();
+    }
+
+    /**
+     * Up to k points accepted by the filter within maxKm, nearest first
+     */
+    public List<Hit<T>> nearest(double latitude, double longitude, int k, double maxKm, Predicate<T> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // max-heap on distance holding the best k so far
+        PriorityQueue<Hit<T>> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble((Hit<T> h) -> h.distanceKm()).reversed());
+        int row = row(latitude);
+        int column = column(longitude);
+        int maxRing = ringsFor(latitude, maxKm);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean edgeRow = r == row - ring || r == row + ring;
+                // interior rows only contribute the two cells on the ring's left and right edges
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    Map<Long, Point<T>> cell = cells.get(cellKey(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Point<T> point : cell.values()) {
+                        if (filter != null && !filter.test(point.value())) {
+                            continue;
+                        }
+                        double bound = best.size() == k ? Math.min(best.peek().distanceKm(), maxKm) : maxKm;
+                        // north-south separation alone is a cheap lower bound on the distance
+                        if (Math.abs(point.latitude() - latitude) * KM_PER_DEGREE > bound) {
+                            continue;
+                        }
+                        double d = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                        if (d > maxKm || (best.size() == k && d >= best.peek().distanceKm())) {
+                            continue;
+                        }
+                        best.add(new Hit<>(point.id(), point.value(), d));
+                        if (best.size() > k) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+            // Anything in ring+1 or beyond is at least this far away
+            if (best.size() == k && best.peek().distanceKm() <= ringDistanceKm(latitude, ring)) {
+                break;
+            }
+        }
+        List<Hit<T>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    /**
+     * True for a usable coordinate pair (both present and within WGS84 ranges)
+     */
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    /**
+     * Great-circle distance (haversine)
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Lower bound on the distance from the query point to any cell outside the first `ring` rings.
+    // East-west cells narrow towards the poles, so use the width at the most poleward latitude reached.
+    private double ringDistanceKm(double latitude, int ring) {
+        double poleward = Math.min(90, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(poleward)), 0);
+        return ring * cellKm;
+    }
+
+    private int ringsFor(double latitude, double maxKm) {
+        double poleward = Math.min(89, Math.abs(latitude) + maxKm / KM_PER_DEGREE);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(poleward));
+        return (int) Math.min(Math.ceil(maxKm / cellKm) + 1, 360 / cellDegrees);
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
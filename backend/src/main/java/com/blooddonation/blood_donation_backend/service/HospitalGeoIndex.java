@@ -0,0 +1,72 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.model.Hospital;
+import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spatial index of hospitals that have coordinates. Built at startup and kept in step by
+ * HospitalService; changes are applied after commit so a rolled back write never shows up.
+ */
+@Slf4j
+@Component
+public class HospitalGeoIndex {
+
+    private final HospitalRepository hospitalRepository;
+    private final GeoGrid<Site> grid = new GeoGrid<>(DonorIndex.GEO_CELL_DEGREES);
+
+    public HospitalGeoIndex(HospitalRepository hospitalRepository) {
+        this.hospitalRepository = hospitalRepository;
+    }
+
+    public record Site(Long id, String name, String location, String contact) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        grid.clear();
+        hospitalRepository.findAll().forEach(this::apply);
+        log.info("Hospital geo index loaded with {} hospitals", grid.size());
+    }
+
+    public void update(Hospital hospital) {
+        Site site = new Site(hospital.getId(), hospital.getName(), hospital.getLocation(), hospital.getContact());
+        Double latitude = hospital.getLatitude();
+        Double longitude = hospital.getLongitude();
+        TxHooks.afterCommit(() -> {
+            if (GeoGrid.isValid(latitude, longitude)) {
+                grid.put(site.id(), latitude, longitude, site);
+            } else {
+                grid.remove(site.id());
+            }
+        });
+    }
+
+    public void remove(Long hospitalId) {
+        TxHooks.afterCommit(() -> grid.remove(hospitalId));
+    }
+
+    public List<GeoGrid.Hit<Site>> nearest(double latitude, double longitude, int limit, double maxKm) {
+        return grid.nearest(latitude, longitude, limit, maxKm, null);
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    private void apply(Hospital hospital) {
+        if (GeoGrid.isValid(hospital.getLatitude(), hospital.getLongitude())) {
+            grid.put(hospital.getId(), hospital.getLatitude(), hospital.getLongitude(),
+                    new Site(hospital.getId(), hospital.getName(), hospital.getLocation(), hospital.getContact()));
+        }
+    }
+}
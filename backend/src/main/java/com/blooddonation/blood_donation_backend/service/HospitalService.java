@@ -1,12 +1,12 @@
 package com.blooddonation.blood_donation_backend.service;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.blooddonation.blood_donation_backend.model.Hospital;
 import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
@@ -18,43 +18,55 @@ import lombok.RequiredArgsConstructor;
 public class HospitalService {
 
     private final HospitalRepository repo;
+    private final HospitalStockService stockService;
+    private final ReportCounterService reportCounterService;
+    private final HospitalGeoIndex geoIndex;
 
     public List<Hospital> findAll() {
-        return repo.findAll();
+        return stockService.populate(repo.findAll());
     }
 
     public Optional<Hospital> findById(Long id) {
-        return repo.findById(id);
+        return repo.findById(id).map(stockService::populate);
     }
 
+    @Transactional
     public Hospital save(Hospital hospital) {
-        return repo.save(hospital);
+        Map<String, Integer> stock = hospital.getBloodStock();
+        boolean created = hospital.getId() == null;
+        Hospital saved = repo.save(hospital);
+        if (created) {
+            reportCounterService.increment(ReportCounterService.HOSPITALS_TOTAL, 1);
+        }
+        stockService.set(saved.getId(), stock);
+        geoIndex.update(saved);
+        return stockService.populate(saved);
     }
 
     // merge/replace provided keys into existing stock
+    @Transactional
     public Hospital updateStock(Long id, Map<String, Integer> newStock) {
         Hospital h = repo.findById(id).orElseThrow(() -> new NoSuchElementException("Hospital not found: " + id));
-        Map<String, Integer> current = Optional.ofNullable(h.getBloodStock()).orElse(new HashMap<>());
-        for (Map.Entry<String, Integer> e : newStock.entrySet()) {
-            current.put(e.getKey(), e.getValue()); // replace with provided value
-        }
-        h.setBloodStock(current);
-        return repo.save(h);
+        stockService.set(id, newStock);
+        return stockService.populate(h);
     }
 
-    // adjust stock by deltas (delta may be positive or negative)
+    // adjust stock by deltas (delta may be positive or negative, never goes below zero)
+    @Transactional
     public Hospital adjustStock(Long id, Map<String, Integer> deltas) {
         Hospital h = repo.findById(id).orElseThrow(() -> new NoSuchElementException("Hospital not found: " + id));
-        Map<String, Integer> current = Optional.ofNullable(h.getBloodStock()).orElse(new HashMap<>());
-        for (Map.Entry<String, Integer> e : deltas.entrySet()) {
-            String key = e.getKey();
-            int delta = Optional.ofNullable(e.getValue()).orElse(0);
-            int prev = Optional.ofNullable(current.get(key)).orElse(0);
-            int updated = prev + delta;
-            if (updated < 0) updated = 0; // don't go negative
-            current.put(key, updated);
+        stockService.adjust(id, deltas);
+        return stockService.populate(h);
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        if (!repo.existsById(id)) {
+            return;
         }
-        h.setBloodStock(current);
-        return repo.save(h);
+        stockService.deleteForHospital(id);
+        repo.deleteById(id);
+        geoIndex.remove(id);
+        reportCounterService.increment(ReportCounterService.HOSPITALS_TOTAL, -1);
     }
-}
\ No newline at end of file
+}
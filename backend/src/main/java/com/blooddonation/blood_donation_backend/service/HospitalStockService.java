@@ -0,0 +1,327 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.Hospital;
+import com.blooddonation.blood_donation_backend.model.HospitalStock;
+import com.blooddonation.blood_donation_backend.model.StockMovement;
+import com.blooddonation.blood_donation_backend.model.StockMovementReason;
+import com.blooddonation.blood_donation_backend.model.StockTotal;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+import com.blooddonation.blood_donation_backend.repository.StockMovementRepository;
+import com.blooddonation.blood_donation_backend.repository.StockTotalRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hospital blood stock, one ledger row per (hospital, blood group). All changes are single
+ * atomic statements, so concurrent approvals and adjustments never lose updates. A change
+ * touching several groups visits them in key order, so the ledger and totals rows it locks
+ * are always taken in the same order and two such changes cannot deadlock.
+ * Every non-zero change is journaled as a {@link StockMovement} and folded into the
+ * national {@link StockTotal} projection in the same transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HospitalStockService {
+
+    private static final int MAX_MOVEMENT_PAGE = 500;
+
+    // Takes units only if that many are on hand; no row returned means not enough stock
+    private static final String DECREMENT_IF_AVAILABLE =
+            "UPDATE hospital_stock_ledger SET units = units - ?, version = version + 1, updated_at = now() "
+            + "WHERE hospital_id = ? AND blood_group = ? AND units >= ? RETURNING units";
+
+    private static final String INCREMENT =
+            "INSERT INTO hospital_stock_ledger (hospital_id, blood_group, units, version, updated_at) "
+            + "VALUES (?, ?, ?, 0, now()) "
+            + "ON CONFLICT (hospital_id, blood_group) DO UPDATE "
+            + "SET units = hospital_stock_ledger.units + EXCLUDED.units, "
+            + "version = hospital_stock_ledger.version + 1, updated_at = now() RETURNING units";
+
+    private static final String ENSURE_ROW =
+            "INSERT INTO hospital_stock_ledger (hospital_id, blood_group, units, version, updated_at) "
+            + "VALUES (?, ?, 0, 0, now()) ON CONFLICT (hospital_id, blood_group) DO NOTHING";
+
+    // Rewrites the units of a locked row and returns both the new and the previous value;
+    // %s is one of the fixed expressions below, over the previous value "old.units"
+    private static final String REWRITE =
+            "UPDATE hospital_stock_ledger l SET units = %s, version = l.version + 1, updated_at = now() "
+            + "FROM (SELECT id, units FROM hospital_stock_ledger "
+            + "WHERE hospital_id = ? AND blood_group = ? FOR UPDATE) old "
+            + "WHERE l.id = old.id RETURNING l.units AS balance, old.units AS previous";
+
+    private static final String SUBTRACT_CLAMPED = "GREATEST(old.units - ?, 0)";
+    private static final String REPLACE = "?";
+
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO stock_movements (hospital_id, blood_group, delta, balance_after, reason, request_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, now())";
+
+    private static final String ADD_TO_TOTAL =
+            "INSERT INTO blood_stock_totals (blood_group, stripe, units, updated_at) VALUES (?, ?, ?, now()) "
+            + "ON CONFLICT (blood_group, stripe) DO UPDATE "
+            + "SET units = blood_stock_totals.units + EXCLUDED.units, updated_at = now()";
+
+    private final HospitalStockRepository stockRepository;
+    private final StockMovementRepository movementRepository;
+    private final StockTotalRepository totalRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Take units of a blood group from a hospital for a request; false (and nothing changed) if not enough on hand
+     */
+    @Transactional
+    public boolean consume(Long hospitalId, String bloodGroup, int units, Long requestId) {
+        String key = key(bloodGroup);
+        List<Integer> balance = jdbcTemplate.queryForList(DECREMENT_IF_AVAILABLE, Integer.class,
+                units, hospitalId, key, units);
+        if (balance.isEmpty()) {
+            return false;
+        }
+        record(hospitalId, key, -units, balance.get(0), StockMovementReason.APPROVAL, requestId);
+        return true;
+    }
+
+    /**
+     * Apply deltas per blood group; negative deltas stop at zero
+     */
+    @Transactional
+    public void adjust(Long hospitalId, Map<String, Integer> deltas) {
+        Map<String, Integer> byKey = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : deltas.entrySet()) {
+            byKey.merge(key(e.getKey()), e.getValue() == null ? 0 : e.getValue(), Integer::sum);
+        }
+        for (Map.Entry<String, Integer> e : byKey.entrySet()) {
+            int delta = e.getValue();
+            String key = e.getKey();
+            if (delta > 0) {
+                Integer balance = jdbcTemplate.queryForObject(INCREMENT, Integer.class, hospitalId, key, delta);
+                record(hospitalId, key, delta, balance, StockMovementReason.ADJUSTMENT, null);
+            } else if (delta < 0) {
+                rewrite(hospitalId, key, SUBTRACT_CLAMPED, -delta, StockMovementReason.ADJUSTMENT);
+            }
+        }
+    }
+
+    /**
+     * Overwrite the units on hand for the given blood groups; groups not mentioned are left alone
+     */
+    @Transactional
+    public void set(Long hospitalId, Map<String, Integer> stock) {
+        if (stock == null) {
+            return;
+        }
+        Map<String, Integer> byKey = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : stock.entrySet()) {
+            int units = e.getValue() == null ? 0 : Math.max(0, e.getValue());
+            // Spellings of one group ("a+", "A+") collapse to one key; the last one wins, as before
+            byKey.put(key(e.getKey()), units);
+        }
+        for (Map.Entry<String, Integer> e : byKey.entrySet()) {
+            jdbcTemplate.update(ENSURE_ROW, hospitalId, e.getKey());
+            rewrite(hospitalId, e.getKey(), REPLACE, e.getValue(), StockMovementReason.SET);
+        }
+    }
+
+    /**
+     * Remove all stock rows of a hospital, journaling what was on hand
+     */
+    @Transactional
+    public void deleteForHospital(Long hospitalId) {
+        // Lock the rows in the same (binary) key order as the TreeMaps above before deleting
+        jdbcTemplate.queryForList("SELECT id FROM hospital_stock_ledger WHERE hospital_id = ? "
+                + "ORDER BY blood_group COLLATE \"C\" FOR UPDATE", Long.class, hospitalId);
+        List<Map<String, Object>> removed = new ArrayList<>(jdbcTemplate.queryForList(
+                "DELETE FROM hospital_stock_ledger WHERE hospital_id = ? RETURNING blood_group, units", hospitalId));
+        removed.sort(Comparator.comparing(row -> (String) row.get("blood_group")));
+        for (Map<String, Object> row : removed) {
+            record(hospitalId, (String) row.get("blood_group"), -((Number) row.get("units")).intValue(), 0,
+                    StockMovementReason.HOSPITAL_REMOVED, null);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Integer> stockOf(Long hospitalId) {
+        return stockRepository.findByHospitalId(hospitalId).stream()
+                .collect(Collectors.toMap(HospitalStock::getBloodGroup, HospitalStock::getUnits, Integer::sum, TreeMap::new));
+    }
+
+    /**
+     * Fill the (transient) bloodStock of each hospital with one ledger query
+     */
+    @Transactional(readOnly = true)
+    public <T extends Collection<Hospital>> T populate(T hospitals) {
+        List<Long> ids = hospitals.stream().map(Hospital::getId).toList();
+        if (ids.isEmpty()) {
+            return hospitals;
+        }
+        Map<Long, Map<String, Integer>> byHospital = new HashMap<>();
+        for (HospitalStock row : stockRepository.findByHospitalIdIn(ids)) {
+            byHospital.computeIfAbsent(row.getHospitalId(), k -> new TreeMap<>())
+                    .merge(row.getBloodGroup(), row.getUnits(), Integer::sum);
+        }
+        for (Hospital hospital : hospitals) {
+            hospital.setBloodStock(byHospital.getOrDefault(hospital.getId(), new TreeMap<>()));
+        }
+        return hospitals;
+    }
+
+    public Hospital populate(Hospital hospital) {
+        hospital.setBloodStock(stockOf(hospital.getId()));
+        return hospital;
+    }
+
+    /**
+     * Units on hand per blood group across all hospitals, read from the precomputed totals
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> totalsByBloodGroup() {
+        Map<String, Integer> totals = new TreeMap<>();
+        for (StockTotalRepository.GroupTotal t : totalRepository.sumByBloodGroup()) {
+            totals.put(t.getBloodGroup(), t.getUnits() == null ? 0 : t.getUnits().intValue());
+        }
+        return totals;
+    }
+
+    /**
+     * Journal entries, newest first; pass the smallest id seen as beforeId for the next page
+     */
+    @Transactional(readOnly = true)
+    public List<StockMovement> movements(Long hospitalId, Long beforeId, Integer size) {
+        int limit = size == null ? 100 : Math.max(1, Math.min(size, MAX_MOVEMENT_PAGE));
+        PageRequest page = PageRequest.of(0, limit);
+        if (hospitalId == null) {
+            return beforeId == null
+                    ? movementRepository.findAllByOrderByIdDesc(page)
+                    : movementRepository.findByIdLessThanOrderByIdDesc(beforeId, page);
+        }
+        return beforeId == null
+                ? movementRepository.findByHospitalIdOrderByIdDesc(hospitalId, page)
+                : movementRepository.findByHospitalIdAndIdLessThanOrderByIdDesc(hospitalId, beforeId, page);
+    }
+
+    /**
+     * Recompute the national totals by replaying the movement journal. Writers wait on the
+     * table lock, so movements committed after the replay are added on top exactly once.
+     */
+    @Transactional
+    public Map<String, Integer> rebuildTotals() {
+        jdbcTemplate.execute("LOCK TABLE blood_stock_totals IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM blood_stock_totals");
+        jdbcTemplate.update("INSERT INTO blood_stock_totals (blood_group, stripe, units, updated_at) "
+                + "SELECT blood_group, CAST(hospital_id % " + StockTotal.STRIPES + " AS integer), SUM(delta), now() "
+                + "FROM stock_movements GROUP BY blood_group, hospital_id % " + StockTotal.STRIPES);
+        return totalsByBloodGroup();
+    }
+
+    /**
+     * Startup: move the old hospital_blood_stock element collection into the ledger, then make
+     * sure every ledger row has an OPENING movement so the journal replays to the current balances.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeStock() {
+        migrateLegacyStock();
+        int opened = jdbcTemplate.update(
+                "INSERT INTO stock_movements (hospital_id, blood_group, delta, balance_after, reason, created_at) "
+                        + "SELECT l.hospital_id, l.blood_group, l.units, l.units, ?, now() "
+                        + "FROM hospital_stock_ledger l WHERE NOT EXISTS (SELECT 1 FROM stock_movements m "
+                        + "WHERE m.hospital_id = l.hospital_id AND m.blood_group = l.blood_group)",
+                StockMovementReason.OPENING.name());
+        if (opened > 0) {
+            rebuildTotals();
+            log.info("Journaled {} opening stock balances and rebuilt national totals", opened);
+        }
+    }
+
+    /**
+     * Copied rows are removed from the old table so it no longer holds foreign keys to hospitals
+     */
+    private void migrateLegacyStock() {
+        Boolean legacyExists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('hospital_blood_stock') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(legacyExists)) {
+            return;
+        }
+        // Same keys as key(): the canonical label when the group is recognisable, else the
+        // trimmed text. Rows that land on one key are added up, never dropped.
+        String legacyKey = sqlKey("blood_group");
+        int copied = jdbcTemplate.update(
+                "INSERT INTO hospital_stock_ledger (hospital_id, blood_group, units, version, updated_at) "
+                        + "SELECT hospital_id, " + legacyKey + ", SUM(GREATEST(COALESCE(units, 0), 0)), 0, now() "
+                        + "FROM hospital_blood_stock WHERE TRIM(blood_group) <> '' "
+                        + "GROUP BY hospital_id, " + legacyKey + " "
+                        + "ON CONFLICT (hospital_id, blood_group) DO UPDATE "
+                        + "SET units = hospital_stock_ledger.units + EXCLUDED.units, "
+                        + "version = hospital_stock_ledger.version + 1, updated_at = now()");
+        int removed = jdbcTemplate.update("DELETE FROM hospital_blood_stock");
+        if (removed > 0) {
+            log.info("Migrated {} legacy hospital stock rows into {} hospital_stock_ledger rows", removed, copied);
+        }
+    }
+
+    private void rewrite(Long hospitalId, String key, String newUnits, int arg, StockMovementReason reason) {
+        List<int[]> changes = jdbcTemplate.query(String.format(REWRITE, newUnits),
+                (rs, i) -> new int[] {rs.getInt("balance"), rs.getInt("previous")},
+                arg, hospitalId, key);
+        for (int[] change : changes) {
+            record(hospitalId, key, change[0] - change[1], change[0], reason, null);
+        }
+    }
+
+    private void record(Long hospitalId, String key, int delta, int balanceAfter,
+                        StockMovementReason reason, Long requestId) {
+        if (delta == 0) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_MOVEMENT, hospitalId, key, delta, balanceAfter, reason.name(), requestId);
+        jdbcTemplate.update(ADD_TO_TOTAL, key, Math.floorMod(hospitalId, StockTotal.STRIPES), delta);
+        eventPublisher.publishEvent(new StockLevelEvent(hospitalId, key, delta, balanceAfter, reason));
+    }
+
+    /**
+     * Ledger key for a blood group: its canonical label ("A+") when recognisable, else the trimmed input
+     */
+    static String key(String bloodGroup) {
+        BloodGroup group = BloodGroup.parse(bloodGroup);
+        if (group != null) {
+            return group.label();
+        }
+        if (bloodGroup == null || bloodGroup.isBlank()) {
+            throw new IllegalArgumentException("Blood group is required");
+        }
+        return bloodGroup.trim();
+    }
+
+    /**
+     * SQL for key() over a column, using BloodGroup's canonical form (UPPER(REPLACE(col, ' ', '')))
+     */
+    static String sqlKey(String column) {
+        StringBuilder sql = new StringBuilder("CASE UPPER(REPLACE(").append(column).append(", ' ', ''))");
+        for (BloodGroup group : BloodGroup.values()) {
+            sql.append(" WHEN '").append(group.label()).append("' THEN '").append(group.label()).append('\'')
+                    .append(" WHEN '").append(group.name()).append("' THEN '").append(group.label()).append('\'');
+        }
+        return sql.append(" ELSE TRIM(").append(column).append(") END").toString();
+    }
+}
@@ -0,0 +1,222 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.model.SosEvent;
+
+/**
+ * Live feed of new SOS events and blood request status changes over server-sent events.
+ * Each subscriber has a bounded buffer drained by its own virtual thread, so a slow client
+ * never holds up publishers or other subscribers: when its buffer is full the oldest events
+ * are dropped and the client is sent an "overflow" event telling it to refetch.
+ * Recent events are kept for replay, so a client reconnecting with Last-Event-ID misses nothing.
+ */
+@Service
+public class LiveFeedService {
+
+    public static final String TYPE_SOS = "sos";
+    public static final String TYPE_REQUEST = "request";
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    // Guarded by itself: sequence numbers, the replay window and fan-out order
+    private final Deque<FeedEvent> recent = new ArrayDeque<>();
+    private long sequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public LiveFeedService(@Value("${bloodcare.feed.buffer-size:256}") int bufferSize,
+                           @Value("${bloodcare.feed.replay-size:1000}") int replaySize,
+                           @Value("${bloodcare.feed.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${bloodcare.feed.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Which events a subscriber wants; null fields match everything.
+     * SOS events carry no blood group, so a group filter only narrows request events.
+     */
+    public record Filter(Set<String> types, BloodGroup bloodGroup, String locationKey) {
+
+        boolean matches(FeedEvent event) {
+            return (types == null || types.contains(event.type()))
+                    && (bloodGroup == null || event.bloodGroup() == null || bloodGroup == event.bloodGroup())
+                    && (locationKey == null || locationKey.equals(event.locationKey()));
+        }
+    }
+
+    /**
+     * Payload of one feed event; previousStatus/status are only set for request changes
+     */
+    public record FeedItem(String type, Long id, String previousStatus, String status, String bloodGroup,
+                           String location, String message, LocalDateTime occurredAt) {}
+
+    record FeedEvent(long id, String type, BloodGroup bloodGroup, String locationKey, FeedItem item) {}
+
+    /**
+     * Open a stream for the filter, replaying anything after lastEventId still in the replay window
+     */
+    public SseEmitter subscribe(Filter filter, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(filter, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        synchronized (recent) {
+            if (lastEventId != null) {
+                FeedEvent oldest = recent.peekFirst();
+                if (lastEventId > sequence || (oldest != null && lastEventId < oldest.id() - 1)) {
+                    subscriber.resync = true; // gap (or server restart): the client has to refetch
+                }
+                for (FeedEvent event : recent) {
+                    if (event.id() > lastEventId && filter.matches(event)) {
+                        subscriber.offer(event);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        Thread.ofVirtual().name("live-feed-sender").start(() -> drain(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Request created or changed status; sent only once the change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLifecycle(RequestLifecycleEvent event) {
+        FeedItem item = new FeedItem(TYPE_REQUEST, event.requestId(), event.previousStatus(), event.status(),
+                event.bloodGroup(), event.location(), null, event.occurredAt());
+        publish(TYPE_REQUEST, BloodGroup.parse(event.bloodGroup()), LocationKey.of(event.location()), item);
+    }
+
+    public void sosRaised(SosEvent sos) {
+        FeedItem item = new FeedItem(TYPE_SOS, sos.getId(), null, null, null,
+                sos.getLocation(), sos.getMessage(), sos.getTimestamp());
+        publish(TYPE_SOS, null, LocationKey.of(sos.getLocation()), item);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away
+     */
+    @Scheduled(fixedDelayString = "${bloodcare.feed.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer.isEmpty()) {
+                subscriber.buffer.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private void publish(String type, BloodGroup group, String locationKey, FeedItem item) {
+        synchronized (recent) {
+            FeedEvent event = new FeedEvent(++sequence, type, group, locationKey, item);
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.filter.matches(event)) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resync) {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(Map.of("reason", "events missed")));
+            }
+            while (!subscriber.closed) {
+                Object next = subscriber.buffer.poll(1, TimeUnit.SECONDS);
+                if (next == null) {
+                    continue;
+                }
+                long dropped = subscriber.dropped.getAndSet(0);
+                if (dropped > 0) {
+                    subscriber.emitter.send(SseEmitter.event().name("overflow").data(Map.of("dropped", dropped)));
+                }
+                if (next == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    FeedEvent event = (FeedEvent) next;
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.id()))
+                            .name(event.type())
+                            .data(event.item()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter already completed
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private static final class Subscriber {
+        final Filter filter;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> buffer;
+        final AtomicLong dropped = new AtomicLong();
+        volatile boolean resync;
+        volatile boolean closed;
+
+        Subscriber(Filter filter, SseEmitter emitter, BlockingQueue<Object> buffer) {
+            this.filter = filter;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        // Never blocks: a full buffer gives up its oldest entries
+        void offer(Object event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Default transport for local runs: writes each message to the log instead of sending it
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bloodcare.notifications.transport", havingValue = "log", matchIfMissing = true)
+public class LogNotificationTransport implements NotificationTransport {
+
+    @Override
+    public Map<Long, String> send(List<OutgoingMessage> batch) {
+        for (OutgoingMessage message : batch) {
+            log.info("Notification {} to {}: {}", message.notificationId(), message.to(), message.subject());
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,206 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.Hospital;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.model.Notfication;
+import com.blooddonation.blood_donation_backend.model.StockMovementReason;
+import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Low-stock alert pipeline. A stock change that leaves a hospital's group below the threshold
+ * is handed over after commit to a bounded queue, so the stock transaction only pays for a map
+ * put. Alerts for the same hospital and group coalesce while they wait (the latest balance wins)
+ * and are suppressed for a cooldown after one is sent. A background worker fans each alert out
+ * as notifications to compatible donors: nearest first within maxKm when the hospital has
+ * coordinates, then donors at the hospital's location; NotificationDispatcher mails them.
+ */
+@Slf4j
+@Service
+public class LowStockAlertService {
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (user_id, type, message, hospital_id, blood_group, created_at, "
+            + "delivery_status, delivery_attempts, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, 'PENDING', 0, ?)";
+
+    private final DonorIndex donorIndex;
+    private final HospitalRepository hospitalRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int threshold;
+    private final int maxRecipients;
+    private final double maxKm;
+    private final long cooldownMillis;
+
+    // Keys waiting in the queue, each with its latest alert; a key is queued at most once
+    private final BlockingQueue<String> queue;
+    private final Map<String, Alert> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSentAt = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread worker;
+
+    public LowStockAlertService(DonorIndex donorIndex,
+                                HospitalRepository hospitalRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${bloodcare.alerts.low-stock.threshold:5}") int threshold,
+                                @Value("${bloodcare.alerts.low-stock.queue-capacity:1000}") int queueCapacity,
+                                @Value("${bloodcare.alerts.low-stock.max-recipients:200}") int maxRecipients,
+                                @Value("${bloodcare.alerts.low-stock.max-km:100}") double maxKm,
+                                @Value("${bloodcare.alerts.low-stock.cooldown:PT6H}") Duration cooldown) {
+        this.donorIndex = donorIndex;
+        this.hospitalRepository = hospitalRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.threshold = threshold;
+        this.maxRecipients = maxRecipients;
+        this.maxKm = maxKm;
+        this.cooldownMillis = cooldown.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Runs on the committing thread once the stock change is durable; never blocks
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevel(StockLevelEvent event) {
+        if (event.delta() >= 0 || event.balance() >= threshold
+                || event.reason() == StockMovementReason.HOSPITAL_REMOVED) {
+            return;
+        }
+        String key = event.hospitalId() + "|" + event.bloodGroup();
+        Alert alert = new Alert(event.hospitalId(), event.bloodGroup(), event.balance());
+        if (pending.put(key, alert) == null && !queue.offer(key)) {
+            pending.remove(key, alert);
+            long total = dropped.incrementAndGet();
+            log.warn("Low-stock alert queue full; dropped alert for {} ({} dropped so far)", key, total);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (worker == null) {
+            worker = Thread.ofPlatform().name("low-stock-alerts").daemon().start(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    public long droppedAlerts() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            String key;
+            try {
+                key = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Alert alert = pending.remove(key);
+            if (alert == null) {
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            Long sentAt = lastSentAt.get(key);
+            if (sentAt != null && now - sentAt < cooldownMillis) {
+                log.debug("Low-stock alert for {} ({} units left) suppressed: last sent {} ms ago, cooldown {} ms",
+                        key, alert.balance(), now - sentAt, cooldownMillis);
+                continue;
+            }
+            try {
+                int sent = fanOut(alert);
+                lastSentAt.put(key, now);
+                log.info("Low stock at hospital {} for {} ({} units left): notified {} donors",
+                        alert.hospitalId(), alert.bloodGroup(), alert.balance(), sent);
+            } catch (RuntimeException e) {
+                log.error("Failed to send low-stock alert for {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * Notify donors who can give to this group (see {@link #recipients})
+     */
+    int fanOut(Alert alert) {
+        BloodGroup group = BloodGroup.parse(alert.bloodGroup());
+        if (group == null) {
+            return 0;
+        }
+        Hospital hospital = hospitalRepository.findById(alert.hospitalId()).orElse(null);
+        if (hospital == null) {
+            return 0;
+        }
+        List<Long> donors = recipients(group, hospital);
+        if (donors.isEmpty()) {
+            return 0;
+        }
+        String message = hospital.getName() + " is running low on " + group.label()
+                + " blood (" + alert.balance() + " units left). Your donation can help.";
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Object[]> rows = donors.stream()
+                .map(donorId -> new Object[] {donorId, Notfication.TYPE_LOW_STOCK, message,
+                        alert.hospitalId(), group.label(), createdAt, createdAt})
+                .toList();
+        tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows));
+        return rows.size();
+    }
+
+    /**
+     * Up to maxRecipients compatible donors: by distance when the hospital has coordinates, then
+     * the rest ranked by DonorIndex.match (same location first), which also covers donors without
+     * coordinates
+     */
+    List<Long> recipients(BloodGroup group, Hospital hospital) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (hospital.getLatitude() != null && hospital.getLongitude() != null) {
+            for (GeoGrid.Hit<DonorIndex.Entry> hit
+                    : donorIndex.nearest(group, hospital.getLatitude(), hospital.getLongitude(), maxRecipients, maxKm)) {
+                ids.add(hit.value().id());
+            }
+        }
+        if (ids.size() < maxRecipients) {
+            for (DonorIndex.Match match : donorIndex.match(group, LocationKey.of(hospital.getLocation()), maxRecipients + ids.size())) {
+                if (ids.size() >= maxRecipients) {
+                    break;
+                }
+                ids.add(match.donor().id());
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    record Alert(Long hospitalId, String bloodGroup, int balance) {}
+}
@@ -0,0 +1,78 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * SMTP transport. JavaMailSender sends the whole batch over a single connection and reports
+ * the messages it could not deliver. A message that cannot even be built (e.g. a malformed
+ * address) fails on its own instead of failing the batch. Point spring.mail.host/port at a
+ * local SMTP stand-in (e.g. MailHog or GreenMail on localhost:1025) to try it without a real
+ * mail server.
+ */
+@Component
+@ConditionalOnProperty(name = "bloodcare.notifications.transport", havingValue = "mail")
+public class MailNotificationTransport implements NotificationTransport {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public MailNotificationTransport(JavaMailSender mailSender,
+                                     @Value("${bloodcare.notifications.mail.from:no-reply@bloodcare.local}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public Map<Long, String> send(List<OutgoingMessage> batch) {
+        Map<Long, String> errors = new HashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        // failures are reported against these exact instances
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        for (OutgoingMessage outgoing : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom(from);
+                helper.setTo(outgoing.to());
+                helper.setSubject(outgoing.subject());
+                helper.setText(outgoing.body());
+                messages.add(message);
+                ids.put(message, outgoing.notificationId());
+            } catch (MessagingException e) {
+                errors.put(outgoing.notificationId(), String.valueOf(e.getMessage()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return errors;
+        }
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                throw e; // connection-level failure: nothing was sent
+            }
+            failed.forEach((message, error) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    errors.put(id, String.valueOf(error.getMessage()));
+                }
+            });
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,190 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blooddonation.blood_donation_backend.model.DeliveryStatus;
+import com.blooddonation.blood_donation_backend.model.Notfication;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the notification outbox. Each poll leases a batch of due rows (SKIP LOCKED, so several
+ * instances can run side by side), splits it into transport batches and sends those in parallel
+ * on virtual threads. Failures are retried with exponential backoff and jitter until
+ * max-attempts; a lease that expires (dispatcher died mid-send) makes the rows due again.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private static final String CLAIM =
+            "UPDATE notifications n SET delivery_status = 'SENDING', next_attempt_at = ? "
+            + "WHERE n.id IN (SELECT id FROM notifications "
+            + "WHERE delivery_status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? "
+            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING n.id, n.type, n.message, n.delivery_attempts, "
+            + "(SELECT u.email FROM users u WHERE u.id = n.user_id) AS email";
+
+    private static final String MARK_SENT =
+            "UPDATE notifications SET delivery_status = 'SENT', sent_at = ?, last_error = NULL, "
+            + "delivery_attempts = COALESCE(delivery_attempts, 0) + 1 WHERE id = ? AND delivery_status = 'SENDING'";
+
+    private static final String MARK_FAILED =
+            "UPDATE notifications SET delivery_status = ?, next_attempt_at = ?, last_error = ?, "
+            + "delivery_attempts = COALESCE(delivery_attempts, 0) + 1 WHERE id = ? AND delivery_status = 'SENDING'";
+
+    private static final String MARK_SKIPPED =
+            "UPDATE notifications SET delivery_status = 'SKIPPED' WHERE id = ? AND delivery_status = 'SENDING'";
+
+    private final NotificationTransport transport;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+
+    public NotificationDispatcher(NotificationTransport transport,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${bloodcare.notifications.delivery.batch-size:50}") int batchSize,
+                                  @Value("${bloodcare.notifications.delivery.concurrency:8}") int concurrency,
+                                  @Value("${bloodcare.notifications.delivery.max-attempts:5}") int maxAttempts,
+                                  @Value("${bloodcare.notifications.delivery.lease:PT5M}") Duration lease,
+                                  @Value("${bloodcare.notifications.delivery.backoff:PT30S}") Duration backoff,
+                                  @Value("${bloodcare.notifications.delivery.max-backoff:PT1H}") Duration maxBackoff) {
+        this.transport = transport;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Send everything that is due, a leased batch at a time, until the outbox runs dry
+     */
+    @Scheduled(fixedDelayString = "${bloodcare.notifications.delivery.poll-interval:PT5S}")
+    public void dispatch() {
+        int claimSize = batchSize * concurrency;
+        List<Claimed> claimed;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            claimed = jdbcTemplate.query(CLAIM, (rs, i) -> new Claimed(
+                    rs.getLong("id"), rs.getString("type"), rs.getString("message"),
+                    rs.getInt("delivery_attempts"), rs.getString("email")),
+                    now.plus(lease), now, claimSize);
+            if (!claimed.isEmpty()) {
+                deliver(claimed);
+            }
+        } while (claimed.size() == claimSize && !Thread.currentThread().isInterrupted());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void deliver(List<Claimed> claimed) {
+        List<NotificationTransport.OutgoingMessage> messages = new ArrayList<>(claimed.size());
+        List<Object[]> skipped = new ArrayList<>();
+        Map<Long, Integer> attempts = new HashMap<>();
+        for (Claimed row : claimed) {
+            if (row.email() == null || row.email().isBlank()) {
+                skipped.add(new Object[] {row.id()});
+                continue;
+            }
+            attempts.put(row.id(), row.attempts());
+            messages.add(new NotificationTransport.OutgoingMessage(row.id(), row.email(), subject(row.type()), row.message()));
+        }
+        if (!skipped.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_SKIPPED, skipped);
+        }
+
+        List<Callable<Void>> sends = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<NotificationTransport.OutgoingMessage> batch = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            sends.add(() -> {
+                sendBatch(batch, attempts);
+                return null;
+            });
+        }
+        try {
+            senders.invokeAll(sends);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendBatch(List<NotificationTransport.OutgoingMessage> batch, Map<Long, Integer> attempts) {
+        Map<Long, String> errors;
+        try {
+            errors = transport.send(batch);
+        } catch (RuntimeException e) {
+            log.warn("Notification batch of {} failed: {}", batch.size(), e.getMessage());
+            errors = new HashMap<>();
+            for (NotificationTransport.OutgoingMessage message : batch) {
+                errors.put(message.notificationId(), String.valueOf(e.getMessage()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> sent = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (NotificationTransport.OutgoingMessage message : batch) {
+            Long id = message.notificationId();
+            String error = errors.get(id);
+            if (error == null) {
+                sent.add(new Object[] {now, id});
+                continue;
+            }
+            int attempt = attempts.getOrDefault(id, 0) + 1;
+            DeliveryStatus status = attempt >= maxAttempts ? DeliveryStatus.FAILED : DeliveryStatus.PENDING;
+            failed.add(new Object[] {status.name(), now.plus(backoffFor(attempt)), truncate(error), id});
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_SENT, sent);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED, failed);
+        }
+    }
+
+    // backoff * 2^(attempt-1), capped, with +/-20% jitter so retries from one outage spread out
+    Duration backoffFor(int attempt) {
+        long base = backoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    private static String subject(String type) {
+        return Notfication.TYPE_LOW_STOCK.equals(type)
+                ? "Urgent: blood stock is running low near you"
+                : "BloodCare notification";
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+
+    private record Claimed(Long id, String type, String message, int attempts, String email) {}
+}
@@ -0,0 +1,68 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.model.Notfication;
+import com.blooddonation.blood_donation_backend.repository.NotificationRepository;
+
+/**
+ * Per-user inbox over the notifications table (rows are written by {@link LowStockAlertService}
+ * and mailed by {@link NotificationDispatcher})
+ */
+@Service
+public class NotificationService {
+
+    private final NotificationRepository notificationRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               @Value("${bloodcare.notifications.page.default-size:20}") int defaultPageSize,
+                               @Value("${bloodcare.notifications.page.max-size:100}") int maxPageSize) {
+        this.notificationRepository = notificationRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Newest first; pass the last id of a page as beforeId for the next one
+     */
+    @Transactional(readOnly = true)
+    public List<Notfication> list(Long userId, Long beforeId, boolean unreadOnly, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        PageRequest page = PageRequest.of(0, limit);
+        if (unreadOnly) {
+            return beforeId == null
+                    ? notificationRepository.findByUserIdAndReadAtIsNullOrderByIdDesc(userId, page)
+                    : notificationRepository.findByUserIdAndIdLessThanAndReadAtIsNullOrderByIdDesc(userId, beforeId, page);
+        }
+        return beforeId == null
+                ? notificationRepository.findByUserIdOrderByIdDesc(userId, page)
+                : notificationRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, beforeId, page);
+    }
+
+    @Transactional(readOnly = true)
+    public long unreadCount(Long userId) {
+        return notificationRepository.countByUserIdAndReadAtIsNull(userId);
+    }
+
+    /**
+     * Mark one of the user's notifications read; true if it exists, whether or not it was already read
+     */
+    @Transactional
+    public boolean markRead(Long userId, Long notificationId) {
+        return notificationRepository.markRead(notificationId, userId, LocalDateTime.now()) > 0
+                || notificationRepository.existsByIdAndUserId(notificationId, userId);
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        return notificationRepository.markAllRead(userId, LocalDateTime.now());
+    }
+}
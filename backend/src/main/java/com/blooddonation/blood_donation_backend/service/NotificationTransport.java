@@ -0,0 +1,17 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers a batch of outgoing messages. Implementations send the whole batch over one
+ * connection where the channel allows it and report per-message failures; anything not in
+ * the returned map counts as delivered. Throwing fails the whole batch.
+ * Selected with bloodcare.notifications.transport (log | mail).
+ */
+public interface NotificationTransport {
+
+    Map<Long, String> send(List<OutgoingMessage> batch);
+
+    record OutgoingMessage(Long notificationId, String to, String subject, String body) {}
+}
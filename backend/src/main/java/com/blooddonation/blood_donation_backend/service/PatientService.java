@@ -1,10 +1,19 @@
 package com.blooddonation.blood_donation_backend.service;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -17,19 +26,88 @@ import com.blooddonation.blood_donation_backend.model.MedicalRecord;
 import com.blooddonation.blood_donation_backend.model.Patient;
 import com.blooddonation.blood_donation_backend.repository.MedicalRecordRepository;
 import com.blooddonation.blood_donation_backend.repository.PatientRepository;
+import com.blooddonation.blood_donation_backend.util.TxHooks;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Patient Service - Handles patient enrollment, fingerprint scanning, and Aadhaar verification
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PatientService {
 
     private final PatientRepository patientRepository;
     private final MedicalRecordRepository medicalRecordRepository;
     private final EncryptionService encryptionService;
+    private final FingerprintIndex fingerprintIndex;
+
+    /**
+     * Build the fingerprint index from stored templates once the application is up. A template
+     * stored for more than one patient stays with the earliest enrolled and is logged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFingerprintIndex() {
+        fingerprintIndex.clear();
+        try (Stream<PatientRepository.FingerprintTemplateView> templates = patientRepository.streamFingerprintTemplates()) {
+            templates.forEach(t -> {
+                String template;
+                try {
+                    template = encryptionService.decrypt(t.getFingerprintTemplate());
+                } catch (Exception e) {
+                    log.warn("Skipping unreadable fingerprint template for patient {}", t.getId(), e);
+                    return;
+                }
+                if (!fingerprintIndex.put(template, t.getId())) {
+                    log.warn("Fingerprint template of patient {} is enrolled for another patient; not indexed", t.getId());
+                }
+            });
+        }
+        log.info("Fingerprint index loaded with {} templates", fingerprintIndex.size());
+    }
+
+    /**
+     * Compute the Aadhaar blind index for patients enrolled before it existed. Numbers that
+     * normalize to the same value as another patient's (duplicates, or spacing/hyphen variants)
+     * can't all take the unique index; those patients are logged and left without one, so
+     * startup never fails on them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillAadhaarHashes() {
+        List<Patient> patients = patientRepository.findByAadhaarNumberIsNotNullAndAadhaarHashIsNull();
+        if (patients.isEmpty()) {
+            return;
+        }
+        Map<String, List<Patient>> byHash = new HashMap<>();
+        for (Patient patient : patients) {
+            if (patient.getAadhaarNumber().replaceAll("[\\s-]", "").isEmpty()) {
+                continue;
+            }
+            byHash.computeIfAbsent(aadhaarBlindIndex(patient.getAadhaarNumber()), h -> new ArrayList<>()).add(patient);
+        }
+        if (byHash.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(patientRepository.findTakenAadhaarHashes(byHash.keySet()));
+        int backfilled = 0;
+        for (Map.Entry<String, List<Patient>> entry : byHash.entrySet()) {
+            List<Patient> holders = entry.getValue();
+            if (holders.size() > 1 || taken.contains(entry.getKey())) {
+                log.warn("Aadhaar number of patients {} matches another patient's; blind index left empty",
+                        holders.stream().map(Patient::getId).toList());
+                continue;
+            }
+            holders.get(0).setAadhaarHash(entry.getKey());
+            backfilled++;
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled Aadhaar blind index for {} patients", backfilled);
+        }
+    }
 
     /**
      * Enroll a new patient with medical records and fingerprint
@@ -44,8 +122,18 @@ public class PatientService {
                 throw new RuntimeException("Patient with this phone number already exists");
             }
 
+            String aadhaarHash = patientDto.getAadhaarNumber() == null || patientDto.getAadhaarNumber().isBlank()
+                    ? null
+                    : aadhaarBlindIndex(patientDto.getAadhaarNumber());
+            if (aadhaarHash != null && patientRepository.existsByAadhaarHash(aadhaarHash)) {
+                throw new RuntimeException("Patient with this Aadhaar number already exists");
+            }
+
             // Process fingerprint image (simplified - in real implementation, use fingerprint SDK)
             String fingerprintTemplate = processFingerprintImage(fingerprintImage);
+            if (fingerprintIndex.find(fingerprintTemplate).isPresent()) {
+                throw new RuntimeException("Patient with this fingerprint already exists");
+            }
 
             // Encrypt fingerprint template
             String encryptedFingerprint = encryptionService.encrypt(fingerprintTemplate);
@@ -60,11 +148,10 @@ public class PatientService {
                 encryptedFingerprint
             );
             
-            // Set Aadhaar number
+            // Set Aadhaar number and its blind index
             patient.setAadhaarNumber(patientDto.getAadhaarNumber());
+            patient.setAadhaarHash(aadhaarHash);
 
-            // Add Aadhaar number if provided (assuming it's added to Patient model)
-            // For now, we'll assume Patient has aadhaarNumber field
             patient = patientRepository.save(patient);
 
             // Create medical record
@@ -77,7 +164,14 @@ public class PatientService {
             );
             medicalRecordRepository.save(medicalRecord);
 
-            return Map.of("success", true, "patientId", patient.getId().toString());
+            UUID patientId = patient.getId();
+            TxHooks.afterCommit(() -> {
+                if (!fingerprintIndex.put(fingerprintTemplate, patientId)) {
+                    log.warn("Fingerprint of patient {} was enrolled concurrently for another patient; not indexed", patientId);
+                }
+            });
+
+            return Map.of("success", true, "patientId", patientId.toString());
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to enroll patient: " + e.getMessage());
@@ -91,17 +185,16 @@ public class PatientService {
         try {
             String fingerprintTemplate = processFingerprintImage(fingerprintImage);
 
-            // Find patient by fingerprint (simplified matching)
-            List<Patient> patients = patientRepository.findAll();
-            for (Patient patient : patients) {
-                String decryptedFingerprint = encryptionService.decrypt(patient.getFingerprintTemplate());
-                if (fingerprintTemplate.equals(decryptedFingerprint)) {
-                    // Found match
-                    return createPatientMatchResponse(patient, "FINGERPRINT");
-                }
-            }
+            // Look up the candidate in the index, then confirm against its stored template
+            Optional<Patient> match = fingerprintIndex.find(fingerprintTemplate)
+                    .flatMap(patientRepository::findById)
+                    .filter(patient -> fingerprintIndex.matches(fingerprintTemplate,
+                            encryptionService.decrypt(patient.getFingerprintTemplate())));
 
-            throw new RuntimeException("No matching patient found");
+            if (match.isEmpty()) {
+                throw new RuntimeException("No matching patient found");
+            }
+            return createPatientMatchResponse(match.get(), "FINGERPRINT");
 
         } catch (Exception e) {
             throw new RuntimeException("Fingerprint scan failed: " + e.getMessage());
@@ -114,10 +207,11 @@ public class PatientService {
     public AadhaarValidationResponseDto verifyAadhaar(AadhaarVerificationRequestDto request) {
         // In real implementation, integrate with Aadhaar API
         // For now, check if patient exists with this Aadhaar
-        List<Patient> patients = patientRepository.findAll();
-        for (Patient patient : patients) {
-            if (request.getAadhaarNumber().equals(patient.getAadhaarNumber())) {
-                AadhaarValidationResponseDto.PatientDto patientDto = new AadhaarValidationResponseDto.PatientDto(
+        if (request.getAadhaarNumber() == null || request.getAadhaarNumber().isBlank()) {
+            return new AadhaarValidationResponseDto(false, null);
+        }
+        return patientRepository.findByAadhaarHash(aadhaarBlindIndex(request.getAadhaarNumber()))
+                .map(patient -> new AadhaarValidationResponseDto(true, new AadhaarValidationResponseDto.PatientDto(
                     patient.getId(),
                     patient.getName(),
                     patient.getPhone(),
@@ -126,32 +220,36 @@ public class PatientService {
                     patient.getEmergencyContact(),
                     patient.getAadhaarNumber(),
                     patient.getCreatedAt()
-                );
-                return new AadhaarValidationResponseDto(true, patientDto);
-            }
-        }
-        return new AadhaarValidationResponseDto(false, null);
+                )))
+                .orElseGet(() -> new AadhaarValidationResponseDto(false, null));
     }
 
     /**
      * Search patient by Aadhaar and return match response
      */
+    @Transactional(readOnly = true)
     public PatientMatchResponseDto searchByAadhaar(AadhaarVerificationRequestDto request) {
-        AadhaarValidationResponseDto validation = verifyAadhaar(request);
-        if (!validation.isValid() || validation.getPatient() == null) {
+        if (request.getAadhaarNumber() == null || request.getAadhaarNumber().isBlank()) {
             throw new RuntimeException("Patient not found with this Aadhaar number");
         }
 
-        // Find the full patient with medical records
-        Optional<Patient> patientOpt = patientRepository.findByIdWithMedicalRecords(
-            validation.getPatient().getId()
-        );
+        // Patient and medical records in one fetch
+        Patient patient = patientRepository
+                .findByAadhaarHashWithMedicalRecords(aadhaarBlindIndex(request.getAadhaarNumber()))
+                .orElseThrow(() -> new RuntimeException("Patient not found with this Aadhaar number"));
 
-        if (patientOpt.isPresent()) {
-            return createPatientMatchResponse(patientOpt.get(), "AADHAAR");
-        } else {
-            throw new RuntimeException("Patient data not found");
-        }
+        MedicalRecord latestRecord = patient.getMedicalRecords() == null ? null : patient.getMedicalRecords().stream()
+                .max(Comparator.comparing(MedicalRecord::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .orElse(null);
+
+        return createPatientMatchResponse(patient, "AADHAAR", latestRecord);
+    }
+
+    /**
+     * Blind index of an Aadhaar number, ignoring spaces and hyphens
+     */
+    private String aadhaarBlindIndex(String aadhaarNumber) {
+        return encryptionService.blindIndex(aadhaarNumber.replaceAll("[\\s-]", ""));
     }
 
     /**
@@ -172,6 +270,17 @@ public class PatientService {
      * Create patient match response DTO
      */
     private PatientMatchResponseDto createPatientMatchResponse(Patient patient, String matchMethod) {
+        MedicalRecord latestRecord = medicalRecordRepository
+                .findTopByPatientIdOrderByCreatedAtDesc(patient.getId())
+                .orElse(null);
+        return createPatientMatchResponse(patient, matchMethod, latestRecord);
+    }
+
+    /**
+     * Create patient match response DTO from an already loaded medical record
+     */
+    private PatientMatchResponseDto createPatientMatchResponse(Patient patient, String matchMethod,
+                                                               MedicalRecord latestRecord) {
         // Convert patient to DTO
         PatientMatchResponseDto.PatientDto patientDto = new PatientMatchResponseDto.PatientDto(
             patient.getId(),
@@ -184,10 +293,6 @@ public class PatientService {
             patient.getCreatedAt()
         );
 
-        // Get medical record
-        List<MedicalRecord> records = medicalRecordRepository.findByPatientId(patient.getId());
-        MedicalRecord latestRecord = records.isEmpty() ? null : records.get(records.size() - 1);
-
         PatientMatchResponseDto.MedicalRecordDto medicalRecordDto = null;
         if (latestRecord != null) {
             medicalRecordDto = new PatientMatchResponseDto.MedicalRecordDto(
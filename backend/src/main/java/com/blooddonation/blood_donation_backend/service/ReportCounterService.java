@@ -0,0 +1,175 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.model.ReportCounter;
+import com.blooddonation.blood_donation_backend.repository.ReportCounterRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dashboard aggregates kept in report_counters. Writers bump them in the same transaction
+ * as the change they count, so reads are a single small-table lookup; {@link #check()}
+ * and {@link #rebuild()} recompute everything from the source tables.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportCounterService {
+
+    public static final String USERS_TOTAL = "users.total";
+    public static final String HOSPITALS_TOTAL = "hospitals.total";
+    public static final String REQUESTS_TOTAL = "requests.total";
+    private static final String REQUESTS_STATUS_PREFIX = "requests.status.";
+    // Written by every rebuild; its absence means the counters were never seeded
+    static final String SEEDED = "counters.seeded";
+
+    private static final String INCREMENT =
+            "INSERT INTO report_counters (name, value, updated_at) VALUES (?, ?, now()) "
+            + "ON CONFLICT (name) DO UPDATE SET value = report_counters.value + EXCLUDED.value, updated_at = now()";
+
+    private final ReportCounterRepository counterRepository;
+    private final HospitalStockService hospitalStockService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String requestStatus(String status) {
+        return REQUESTS_STATUS_PREFIX + status;
+    }
+
+    @Transactional
+    public void increment(String name, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update(INCREMENT, name, delta);
+        }
+    }
+
+    @EventListener
+    public void onRequestLifecycle(RequestLifecycleEvent event) {
+        if (event.created()) {
+            increment(REQUESTS_TOTAL, 1);
+        } else if (event.previousStatus() != null) {
+            increment(requestStatus(event.previousStatus()), -1);
+        }
+        if (event.status() != null) {
+            increment(requestStatus(event.status()), 1);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long get(String name) {
+        return counterRepository.findById(name).map(ReportCounter::getValue).orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        for (ReportCounter counter : counterRepository.findAll()) {
+            counters.put(counter.getName(), counter.getValue());
+        }
+        return counters;
+    }
+
+    /**
+     * Recompute every aggregate from scratch and report the ones that differ from what is stored,
+     * including the national stock totals against the hospital ledger.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> check() {
+        Map<String, Long> stored = snapshot();
+        Map<String, Long> expected = recompute();
+        Map<String, Map<String, Long>> mismatches = new TreeMap<>();
+        for (String name : union(stored.keySet(), expected.keySet())) {
+            long have = stored.getOrDefault(name, 0L);
+            long want = expected.getOrDefault(name, 0L);
+            if (have != want) {
+                mismatches.put(name, Map.of("stored", have, "expected", want));
+            }
+        }
+
+        Map<String, Integer> storedStock = hospitalStockService.totalsByBloodGroup();
+        Map<String, Integer> ledgerStock = new TreeMap<>();
+        jdbcTemplate.query("SELECT blood_group, SUM(units) AS units FROM hospital_stock_ledger GROUP BY blood_group",
+                rs -> {
+                    ledgerStock.put(rs.getString("blood_group"), rs.getInt("units"));
+                });
+        Map<String, Map<String, Long>> stockMismatches = new TreeMap<>();
+        for (String group : union(storedStock.keySet(), ledgerStock.keySet())) {
+            long have = storedStock.getOrDefault(group, 0);
+            long want = ledgerStock.getOrDefault(group, 0);
+            if (have != want) {
+                stockMismatches.put(group, Map.of("stored", have, "expected", want));
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", mismatches.isEmpty() && stockMismatches.isEmpty());
+        report.put("counters", mismatches);
+        report.put("stock", stockMismatches);
+        return report;
+    }
+
+    /**
+     * Replace all counters with freshly computed values. Writers wait on the table lock, so
+     * changes committed after the recount are added on top exactly once.
+     */
+    @Transactional
+    public Map<String, Long> rebuild() {
+        jdbcTemplate.execute("LOCK TABLE report_counters IN EXCLUSIVE MODE");
+        Map<String, Long> values = recompute();
+        jdbcTemplate.update("DELETE FROM report_counters");
+        jdbcTemplate.batchUpdate("INSERT INTO report_counters (name, value, updated_at) VALUES (?, ?, now())",
+                values.entrySet().stream().map(e -> new Object[] {e.getKey(), e.getValue()}).toList());
+        return values;
+    }
+
+    /**
+     * Seed the counters the first time the application starts with this table. Keyed on the
+     * marker row rather than an empty table: startup runners (DataLoader) may already have
+     * bumped some counters by then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeCounters() {
+        if (!counterRepository.existsById(SEEDED)) {
+            Map<String, Long> values = rebuild();
+            log.info("Initialized {} report counters", values.size());
+        }
+    }
+
+    private Map<String, Long> recompute() {
+        Map<String, Long> values = new TreeMap<>();
+        values.put(SEEDED, 1L);
+        values.put(USERS_TOTAL, count("SELECT COUNT(*) FROM users"));
+        values.put(HOSPITALS_TOTAL, count("SELECT COUNT(*) FROM hospitals"));
+        values.put(REQUESTS_TOTAL, count("SELECT COUNT(*) FROM blood_request"));
+        jdbcTemplate.query("SELECT UPPER(TRIM(status)) AS status, COUNT(*) AS n FROM blood_request "
+                        + "WHERE status IS NOT NULL GROUP BY UPPER(TRIM(status))",
+                rs -> {
+                    values.put(requestStatus(rs.getString("status")), rs.getLong("n"));
+                });
+        return values;
+    }
+
+    private long count(String sql) {
+        return Objects.requireNonNullElse(jdbcTemplate.queryForObject(sql, Long.class), 0L);
+    }
+
+    private static List<String> union(Set<String> a, Set<String> b) {
+        Set<String> all = new TreeSet<>(a);
+        all.addAll(b);
+        return List.copyOf(all);
+    }
+}
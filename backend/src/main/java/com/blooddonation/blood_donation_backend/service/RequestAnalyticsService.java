@@ -0,0 +1,271 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.dto.RequestRollupDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.model.RequestLatencyHistogram;
+import com.blooddonation.blood_donation_backend.model.RequestRollup;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Time-bucketed request analytics. Every lifecycle event adds to an hourly
+ * {@link RequestRollup} row and, for approvals, to a {@link RequestLatencyHistogram} row, so a
+ * query only sums pre-aggregated hours instead of scanning blood_request.
+ * Day and week buckets are folded from the hourly rows at query time.
+ */
+@Slf4j
+@Service
+public class RequestAnalyticsService {
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS), WEEK(ChronoUnit.WEEKS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        // date_trunc field name; only ever one of these three constants
+        String field() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported granularity: " + value + " (use hour, day or week)");
+            }
+        }
+    }
+
+    // Upper bounds (exclusive) of the latency buckets in minutes; the last bucket is everything above
+    static final long[] LATENCY_BOUNDS_MINUTES =
+            {1, 2, 5, 10, 15, 30, 60, 120, 240, 480, 720, 1440, 2880, 4320, 10080, 20160, 43200};
+
+    static final String UNKNOWN_GROUP = "UNKNOWN";
+
+    private static final String ADD_TO_ROLLUP =
+            "INSERT INTO request_rollups_hourly (bucket_start, blood_group, location_key, created, approved, rejected) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (bucket_start, blood_group, location_key) DO UPDATE "
+            + "SET created = request_rollups_hourly.created + EXCLUDED.created, "
+            + "approved = request_rollups_hourly.approved + EXCLUDED.approved, "
+            + "rejected = request_rollups_hourly.rejected + EXCLUDED.rejected";
+
+    private static final String ADD_TO_HISTOGRAM =
+            "INSERT INTO request_latency_histogram (bucket_start, blood_group, location_key, latency_bucket, count) "
+            + "VALUES (?, ?, ?, ?, 1) "
+            + "ON CONFLICT (bucket_start, blood_group, location_key, latency_bucket) DO UPDATE "
+            + "SET count = request_latency_histogram.count + 1";
+
+    // Rebuild statements; blood_group_code and location_key are the normalized request columns
+    private static final String REBUILD_ROLLUP =
+            "INSERT INTO request_rollups_hourly (bucket_start, blood_group, location_key, created, approved, rejected) "
+            + "SELECT bucket_start, blood_group, location_key, SUM(created), SUM(approved), SUM(rejected) FROM ("
+            + " SELECT date_trunc('hour', requested_at) AS bucket_start, %1$s, 1 AS created, 0 AS approved, 0 AS rejected"
+            + " FROM blood_request WHERE requested_at IS NOT NULL"
+            + " UNION ALL"
+            + " SELECT date_trunc('hour', approved_at), %1$s, 0, 1, 0 FROM blood_request WHERE approved_at IS NOT NULL"
+            + " UNION ALL"
+            + " SELECT date_trunc('hour', rejected_at), %1$s, 0, 0, 1 FROM blood_request WHERE rejected_at IS NOT NULL"
+            + ") events GROUP BY bucket_start, blood_group, location_key";
+
+    // width_bucket over sorted thresholds returns how many bounds are <= the operand, i.e. the
+    // same bucket index as latencyBucket()
+    private static final String REBUILD_HISTOGRAM =
+            "INSERT INTO request_latency_histogram (bucket_start, blood_group, location_key, latency_bucket, count) "
+            + "SELECT date_trunc('hour', approved_at), %1$s, "
+            + "width_bucket(EXTRACT(EPOCH FROM (approved_at - requested_at)) / 60.0, ?::double precision[]) AS latency_bucket, "
+            + "COUNT(*) FROM blood_request "
+            + "WHERE approved_at IS NOT NULL AND requested_at IS NOT NULL "
+            + "GROUP BY 1, 2, 3, 4";
+
+    private static final String DIMENSIONS =
+            "COALESCE(blood_group_code, '" + UNKNOWN_GROUP + "') AS blood_group, COALESCE(location_key, '') AS location_key";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBuckets;
+
+    public RequestAnalyticsService(JdbcTemplate jdbcTemplate,
+                                   @Value("${bloodcare.analytics.max-buckets:1000}") int maxBuckets) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Fold a created/approved/rejected request into its hourly rollup, in the caller's transaction
+     */
+    @EventListener
+    public void onRequestLifecycle(RequestLifecycleEvent event) {
+        String group = groupKey(event.bloodGroup());
+        String location = locationKey(event.location());
+        if (event.created()) {
+            if (event.requestedAt() != null) {
+                jdbcTemplate.update(ADD_TO_ROLLUP, hour(event.requestedAt()), group, location, 1, 0, 0);
+            }
+        } else if ("APPROVED".equals(event.status())) {
+            LocalDateTime hour = hour(event.occurredAt());
+            jdbcTemplate.update(ADD_TO_ROLLUP, hour, group, location, 0, 1, 0);
+            if (event.requestedAt() != null) {
+                Duration latency = Duration.between(event.requestedAt(), event.occurredAt());
+                jdbcTemplate.update(ADD_TO_HISTOGRAM, hour, group, location, latencyBucket(latency));
+            }
+        } else if ("REJECTED".equals(event.status())) {
+            jdbcTemplate.update(ADD_TO_ROLLUP, hour(event.occurredAt()), group, location, 0, 0, 1);
+        }
+    }
+
+    /**
+     * Request counts and approval latency percentiles per bucket in [from, to), optionally narrowed
+     * to one blood group and/or location. Buckets with no activity are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<RequestRollupDto> rollups(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                          String bloodGroup, String location) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long buckets = granularity.unit.between(from, to);
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + buckets + " " + granularity.field()
+                    + " buckets; at most " + maxBuckets + " are allowed");
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>(List.of(from, to));
+        if (bloodGroup != null && !bloodGroup.isBlank()) {
+            BloodGroup group = BloodGroup.parse(bloodGroup);
+            if (group == null) {
+                return List.of(); // no request can match an unrecognised group
+            }
+            where.append(" AND blood_group = ?");
+            args.add(group.name());
+        }
+        if (location != null && !location.isBlank()) {
+            where.append(" AND location_key = ?");
+            args.add(locationKey(location));
+        }
+        String bucket = "date_trunc('" + granularity.field() + "', bucket_start)";
+
+        Map<LocalDateTime, long[]> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT " + bucket + " AS bucket, SUM(created) AS created, SUM(approved) AS approved, "
+                        + "SUM(rejected) AS rejected FROM request_rollups_hourly" + where + " GROUP BY 1",
+                rs -> {
+                    counts.put(rs.getTimestamp("bucket").toLocalDateTime(),
+                            new long[] {rs.getLong("created"), rs.getLong("approved"), rs.getLong("rejected")});
+                }, args.toArray());
+
+        Map<LocalDateTime, long[]> histograms = new TreeMap<>();
+        jdbcTemplate.query("SELECT " + bucket + " AS bucket, latency_bucket, SUM(count) AS n "
+                        + "FROM request_latency_histogram" + where + " GROUP BY 1, 2",
+                rs -> {
+                    long[] histogram = histograms.computeIfAbsent(rs.getTimestamp("bucket").toLocalDateTime(),
+                            b -> new long[LATENCY_BOUNDS_MINUTES.length + 1]);
+                    histogram[rs.getInt("latency_bucket")] += rs.getLong("n");
+                }, args.toArray());
+
+        List<RequestRollupDto> result = new ArrayList<>(counts.size());
+        counts.forEach((start, c) -> {
+            long[] histogram = histograms.get(start);
+            result.add(new RequestRollupDto(start, c[0], c[1], c[2],
+                    percentile(histogram, 0.50), percentile(histogram, 0.90), percentile(histogram, 0.99)));
+        });
+        return result;
+    }
+
+    /**
+     * Recompute both tables from blood_request. Writers wait on the table locks, so events
+     * committed after the recount are added on top exactly once.
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE request_rollups_hourly, request_latency_histogram IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM request_rollups_hourly");
+        jdbcTemplate.update("DELETE FROM request_latency_histogram");
+        int rows = jdbcTemplate.update(String.format(REBUILD_ROLLUP, DIMENSIONS));
+        String bounds = Arrays.stream(LATENCY_BOUNDS_MINUTES).mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "{", "}"));
+        jdbcTemplate.update(String.format(REBUILD_HISTOGRAM, DIMENSIONS), bounds);
+        return rows;
+    }
+
+    /**
+     * Build the rollups from existing requests the first time the application starts with these tables
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeRollups() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM request_rollups_hourly", Long.class);
+        if (rows != null && rows == 0) {
+            log.info("Built {} hourly request rollups", rebuild());
+        }
+    }
+
+    static int latencyBucket(Duration latency) {
+        double minutes = latency.toMillis() / 60_000.0;
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS_MINUTES.length && minutes >= LATENCY_BOUNDS_MINUTES[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // Upper bound of the bucket holding the given quantile; the open-ended last bucket reports its lower bound
+    static Long percentile(long[] histogram, double quantile) {
+        if (histogram == null) {
+            return null;
+        }
+        long total = Arrays.stream(histogram).sum();
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return LATENCY_BOUNDS_MINUTES[Math.min(i, LATENCY_BOUNDS_MINUTES.length - 1)];
+            }
+        }
+        return LATENCY_BOUNDS_MINUTES[LATENCY_BOUNDS_MINUTES.length - 1];
+    }
+
+    private static LocalDateTime hour(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    // Same keys as the normalized request columns, so live updates and rebuilds agree
+    private static String groupKey(String bloodGroup) {
+        BloodGroup group = BloodGroup.parse(bloodGroup);
+        return group == null ? UNKNOWN_GROUP : group.name();
+    }
+
+    private static String locationKey(String location) {
+        String key = LocationKey.of(location);
+        return key == null ? "" : key;
+    }
+}
@@ -0,0 +1,173 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams blood requests in a date range straight from a database cursor to the response,
+ * one row at a time, so memory use does not depend on how many rows are exported.
+ */
+@Slf4j
+@Service
+public class RequestExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final BloodRequestRepository bloodRequestRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public RequestExportService(BloodRequestRepository bloodRequestRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.bloodRequestRepository = bloodRequestRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, "json"),
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return JSON;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Write every request with requestedAt in [start, end] (and the given status, if any),
+     * oldest first, to out. Runs in its own read-only transaction because the cursor must stay
+     * open while the response is written; callers invoke it from a StreamingResponseBody.
+     */
+    public void export(String status, LocalDateTime start, LocalDateTime end, Format format, OutputStream out) {
+        readOnlyTx.executeWithoutResult(tx -> {
+            try (Stream<BloodRequestDto> rows = status == null
+                    ? bloodRequestRepository.streamForExport(start, end)
+                    : bloodRequestRepository.streamForExportWithStatus(status, start, end)) {
+                switch (format) {
+                    case CSV -> writeCsv(rows.iterator(), out);
+                    case NDJSON -> writeNdjson(rows.iterator(), out);
+                    default -> writeJsonArray(rows.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeJsonArray(Iterator<BloodRequestDto> rows, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            for (long n = 1; rows.hasNext(); n++) {
+                objectMapper.writeValue(json, rows.next());
+                if (n % FLUSH_EVERY == 0) {
+                    json.flush();
+                }
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private void writeNdjson(Iterator<BloodRequestDto> rows, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null); // newline written explicitly after each row
+            for (long n = 1; rows.hasNext(); n++) {
+                objectMapper.writeValue(json, rows.next());
+                json.writeRaw('\n');
+                if (n % FLUSH_EVERY == 0) {
+                    json.flush();
+                }
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<BloodRequestDto> rows, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("id,patientName,bloodGroup,location,status,requestedAt,requestedBy\n");
+        for (long n = 1; rows.hasNext(); n++) {
+            BloodRequestDto r = rows.next();
+            csv.write(String.valueOf(r.getId()));
+            csv.write(',');
+            csv.write(csvField(r.getPatientName()));
+            csv.write(',');
+            csv.write(csvField(r.getBloodGroup()));
+            csv.write(',');
+            csv.write(csvField(r.getLocation()));
+            csv.write(',');
+            csv.write(csvField(r.getStatus()));
+            csv.write(',');
+            csv.write(r.getRequestedAt() == null ? "" : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(r.getRequestedAt()));
+            csv.write(',');
+            csv.write(csvField(r.getRequestedBy()));
+            csv.write('\n');
+            if (n % FLUSH_EVERY == 0) {
+                csv.flush();
+            }
+        }
+        csv.flush();
+    }
+
+    /**
+     * RFC 4180 quoting; a leading formula character (or tab/CR, which some spreadsheets skip before one)
+     * is neutralized so spreadsheets don't evaluate it
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String v = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+        return v;
+    }
+}
@@ -0,0 +1,49 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.time.LocalDateTime;
+
+import com.blooddonation.blood_donation_backend.model.BloodRequest;
+
+/**
+ * Published by {@link RequestService} when a blood request is created or changes status.
+ * previousStatus can be null on a status change too (legacy rows without a status).
+ * Carries a snapshot of the request's dimensions so listeners don't need to reload it.
+ * <p>
+ * Plain {@code @EventListener}s (the dashboard counters in {@link ReportCounterService} and the
+ * hourly rollups in {@link RequestAnalyticsService}) run synchronously inside the request's
+ * transaction, so their writes commit or roll back with it. {@code @TransactionalEventListener}s
+ * (the live feed in {@link LiveFeedService}) run after the commit and never see a change that
+ * was rolled back.
+ */
+public record RequestLifecycleEvent(
+        Long requestId,
+        boolean created,
+        String previousStatus,
+        String status,
+        String bloodGroup,
+        String location,
+        LocalDateTime requestedAt,
+        LocalDateTime occurredAt
+) {
+
+    public static RequestLifecycleEvent created(BloodRequest request) {
+        return of(request, true, null, request.getRequestedAt());
+    }
+
+    public static RequestLifecycleEvent statusChanged(BloodRequest request, String previousStatus, LocalDateTime occurredAt) {
+        return of(request, false, previousStatus, occurredAt);
+    }
+
+    private static RequestLifecycleEvent of(BloodRequest request, boolean created, String previousStatus,
+                                            LocalDateTime occurredAt) {
+        return new RequestLifecycleEvent(
+                request.getId(),
+                created,
+                previousStatus,
+                request.getStatus(),
+                request.getBloodGroup(),
+                request.getLocation(),
+                request.getRequestedAt(),
+                occurredAt);
+    }
+}
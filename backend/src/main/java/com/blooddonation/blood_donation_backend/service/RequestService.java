@@ -1,16 +1,33 @@
 package com.blooddonation.blood_donation_backend.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.dto.RequestCursor;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
 import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
 import com.blooddonation.blood_donation_backend.model.Schedule;
 import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
 import com.blooddonation.blood_donation_backend.repository.ScheduleRepository;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class RequestService {
 
@@ -20,6 +37,68 @@ public class RequestService {
     @Autowired
     private ScheduleRepository scheduleRepository;
 
+    @Autowired
+    private HospitalStockService hospitalStockService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${bloodcare.requests.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${bloodcare.requests.page.max-size:200}")
+    private int maxPageSize;
+
+    /**
+     * One keyset page of requests, newest first. Filters are optional; the cursor is the
+     * nextCursor of the previous page. Fetches one extra row to know whether more pages exist.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BloodRequestDto> listRequests(String status, String bloodGroup, String location,
+                                                    String cursor, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        String normalizedStatus = blankToNull(status) == null ? null : status.trim().toUpperCase(Locale.ROOT);
+        BloodGroup group = BloodGroup.parse(blankToNull(bloodGroup));
+        if (blankToNull(bloodGroup) != null && group == null) {
+            return new CursorPage<>(List.of(), null); // not a blood group, nothing can match
+        }
+        String locationKey = LocationKey.of(location);
+        RequestCursor after = blankToNull(cursor) == null ? null : RequestCursor.decode(cursor);
+        List<BloodRequestDto> rows = bloodRequestRepository.findPage(normalizedStatus, group, locationKey,
+                after == null ? null : after.requestedAt(), after == null ? null : after.id(), limit + 1);
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<BloodRequestDto> items = rows.subList(0, limit);
+        return new CursorPage<>(items, RequestCursor.of(items.get(limit - 1)).encode());
+    }
+
+    /**
+     * Fill blood_group_code / location_key on rows saved before those columns existed, give
+     * undated rows a request time (the listings page on it) and upper-case legacy statuses. One
+     * UPDATE per blood group plus one each for the rest; a no-op once everything is normalized.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillNormalizedColumns() {
+        int groups = 0;
+        for (BloodGroup group : BloodGroup.values()) {
+            groups += bloodRequestRepository.backfillBloodGroupCode(group, group.label(), group.name());
+        }
+        int locations = bloodRequestRepository.backfillLocationKeys();
+        int dated = bloodRequestRepository.backfillRequestedAt();
+        int statuses = bloodRequestRepository.normalizeStatuses();
+        if (groups > 0 || locations > 0 || dated > 0 || statuses > 0) {
+            log.info("Backfilled blood group code on {}, location key on {}, request time on {} and status case on {} blood requests",
+                    groups, locations, dated, statuses);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     // Get all requests
     public List<BloodRequest> getAllRequests() {
         return bloodRequestRepository.findAll();
@@ -30,12 +109,74 @@ public class RequestService {
         return bloodRequestRepository.findById(id);
     }
 
+    /**
+     * Save a new request and announce it (counters, matching, feeds listen for this)
+     */
+    @Transactional
+    public BloodRequest createRequest(BloodRequest request) {
+        if (request.getStatus() == null) {
+            request.setStatus("PENDING");
+        }
+        if (request.getRequestedAt() == null) {
+            request.setRequestedAt(LocalDateTime.now());
+        }
+        BloodRequest saved = bloodRequestRepository.save(request);
+        eventPublisher.publishEvent(RequestLifecycleEvent.created(saved));
+        return saved;
+    }
+
     // Accept request (update status)
     public BloodRequest acceptRequest(Long id) throws Exception {
-        BloodRequest request = bloodRequestRepository.findById(id)
-                .orElseThrow(() -> new Exception("Request not found"));
-        request.setStatus("Approved");
-        return bloodRequestRepository.save(request);
+        try {
+            return changeStatus(id, "APPROVED");
+        } catch (NoSuchElementException e) {
+            throw new Exception("Request not found");
+        }
+    }
+
+    /**
+     * Move a request to a new status under its row lock; a no-op if it already has that status
+     */
+    @Transactional
+    public BloodRequest changeStatus(Long id, String status) {
+        BloodRequest request = bloodRequestRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NoSuchElementException("Request not found: " + id));
+        transition(request, status);
+        return request;
+    }
+
+    /**
+     * Approve a request, taking one unit of its blood group from the hospital when given.
+     * Approving an already approved request is a no-op, so stock is taken at most once;
+     * if the hospital is out of stock nothing changes and IllegalStateException is thrown.
+     */
+    @Transactional
+    public BloodRequest approveRequest(Long id, Long hospitalId) {
+        BloodRequest request = bloodRequestRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NoSuchElementException("Request not found: " + id));
+        if ("APPROVED".equals(request.getStatus())) {
+            return request;
+        }
+        if (hospitalId != null && !hospitalStockService.consume(hospitalId, request.getBloodGroup(), 1, id)) {
+            throw new IllegalStateException("NOT_ENOUGH_STOCK");
+        }
+        transition(request, "APPROVED");
+        return request;
+    }
+
+    private void transition(BloodRequest request, String status) {
+        String previous = request.getStatus();
+        request.setStatus(status);
+        if (Objects.equals(previous, request.getStatus())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if ("APPROVED".equals(request.getStatus()) && request.getApprovedAt() == null) {
+            request.setApprovedAt(now);
+        } else if ("REJECTED".equals(request.getStatus()) && request.getRejectedAt() == null) {
+            request.setRejectedAt(now);
+        }
+        eventPublisher.publishEvent(RequestLifecycleEvent.statusChanged(request, previous, now));
     }
 
     // Create schedule for a request
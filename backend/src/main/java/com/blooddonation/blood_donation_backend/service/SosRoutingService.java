@@ -0,0 +1,118 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blooddonation.blood_donation_backend.dto.SosRoutingDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.HospitalStock;
+import com.blooddonation.blood_donation_backend.model.SosEvent;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+
+/**
+ * Routes an SOS to the nearest hospitals with compatible stock and the nearest compatible donors.
+ * Both lookups run against in-memory grids; the only database access is one ledger query per
+ * batch of hospital candidates, usually just one.
+ */
+@Service
+public class SosRoutingService {
+
+    private static final int MAX_HOSPITAL_CANDIDATES = 1024;
+
+    private final HospitalGeoIndex hospitalIndex;
+    private final DonorIndex donorIndex;
+    private final HospitalStockRepository stockRepository;
+    private final int hospitalLimit;
+    private final int donorLimit;
+    private final int minUnits;
+    private final double maxKm;
+
+    public SosRoutingService(HospitalGeoIndex hospitalIndex,
+                             DonorIndex donorIndex,
+                             HospitalStockRepository stockRepository,
+                             @Value("${bloodcare.sos.hospitals:5}") int hospitalLimit,
+                             @Value("${bloodcare.sos.donors:20}") int donorLimit,
+                             @Value("${bloodcare.sos.min-units:1}") int minUnits,
+                             @Value("${bloodcare.sos.max-km:100}") double maxKm) {
+        this.hospitalIndex = hospitalIndex;
+        this.donorIndex = donorIndex;
+        this.stockRepository = stockRepository;
+        this.hospitalLimit = hospitalLimit;
+        this.donorLimit = donorLimit;
+        this.minUnits = minUnits;
+        this.maxKm = maxKm;
+    }
+
+    /**
+     * Routing for an SOS with coordinates; null when it has none
+     */
+    @Transactional(readOnly = true)
+    public SosRoutingDto route(SosEvent sos) {
+        if (!GeoGrid.isValid(sos.getLatitude(), sos.getLongitude())) {
+            return null;
+        }
+        double latitude = sos.getLatitude();
+        double longitude = sos.getLongitude();
+        BloodGroup recipient = BloodGroup.parse(sos.getBloodGroup());
+        return new SosRoutingDto(nearestHospitals(latitude, longitude, recipient),
+                nearestDonors(latitude, longitude, recipient));
+    }
+
+    /**
+     * Widen the candidate set nearest-first until enough of them hold at least minUnits of
+     * blood the recipient can receive (any group when the recipient is unknown)
+     */
+    private List<SosRoutingDto.HospitalHit> nearestHospitals(double latitude, double longitude, BloodGroup recipient) {
+        Set<String> usable = recipient == null ? null
+                : recipient.compatibleDonors().stream().map(BloodGroup::label).collect(Collectors.toSet());
+        List<SosRoutingDto.HospitalHit> result = new ArrayList<>(hospitalLimit);
+        int checked = 0;
+        int want = hospitalLimit * 4;
+        while (result.size() < hospitalLimit) {
+            List<GeoGrid.Hit<HospitalGeoIndex.Site>> candidates = hospitalIndex.nearest(latitude, longitude, want, maxKm);
+            List<GeoGrid.Hit<HospitalGeoIndex.Site>> batch = candidates.subList(Math.min(checked, candidates.size()), candidates.size());
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, Integer> units = new HashMap<>();
+            for (HospitalStock stock : stockRepository.findByHospitalIdIn(batch.stream().map(h -> h.value().id()).toList())) {
+                if (usable == null || usable.contains(stock.getBloodGroup())) {
+                    units.merge(stock.getHospitalId(), stock.getUnits(), Integer::sum);
+                }
+            }
+            for (GeoGrid.Hit<HospitalGeoIndex.Site> hit : batch) {
+                int available = units.getOrDefault(hit.value().id(), 0);
+                if (available >= minUnits && result.size() < hospitalLimit) {
+                    HospitalGeoIndex.Site site = hit.value();
+                    result.add(new SosRoutingDto.HospitalHit(site.id(), site.name(), site.location(), site.contact(),
+                            round(hit.distanceKm()), available));
+                }
+            }
+            checked = candidates.size();
+            if (candidates.size() < want || want >= MAX_HOSPITAL_CANDIDATES) {
+                break; // nothing further within range, or searched far enough
+            }
+            want = Math.min(want * 4, MAX_HOSPITAL_CANDIDATES);
+        }
+        return result;
+    }
+
+    private List<SosRoutingDto.DonorHit> nearestDonors(double latitude, double longitude, BloodGroup recipient) {
+        return donorIndex.nearest(recipient, latitude, longitude, donorLimit, maxKm).stream()
+                .map(hit -> new SosRoutingDto.DonorHit(hit.value().id(), hit.value().name(),
+                        hit.value().group().label(), round(hit.distanceKm())))
+                .toList();
+    }
+
+    private static double round(double km) {
+        return Math.round(km * 100) / 100.0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import com.blooddonation.blood_donation_backend.model.StockMovementReason;
+
+/**
+ * Published by {@link HospitalStockService} for every journaled stock change, inside the
+ * changing transaction. bloodGroup is the ledger key ("A+").
+ */
+public record StockLevelEvent(
+        Long hospitalId,
+        String bloodGroup,
+        int delta,
+        int balance,
+        StockMovementReason reason
+) {
+
+    public int previousBalance() {
+        return balance - delta;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.blooddonation.blood_donation_backend.model.User;
 import com.blooddonation.blood_donation_backend.repository.UserRepository;
@@ -24,14 +25,18 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final BCryptPasswordEncoder passwordEncoder;
     private final CustomerUserDetailsService customUserDetailsService;
+    private final ReportCounterService reportCounterService;
 
     // Registration
+    @Transactional
     public User register(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Email already registered");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword())); // BCrypt encode
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        reportCounterService.increment(ReportCounterService.USERS_TOTAL, 1);
+        return saved;
     }
 
     // Login
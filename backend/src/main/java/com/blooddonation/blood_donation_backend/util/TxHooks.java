@@ -0,0 +1,30 @@
+package com.blooddonation.blood_donation_backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction callbacks for in-memory state (caches, indexes) that must only reflect committed rows.
+ */
+public final class TxHooks {
+
+    private TxHooks() {
+    }
+
+    /**
+     * Run the action once the current transaction commits; at once when there is none.
+     * Nothing runs if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,13 +0,0 @@
-package com.blooddonation.blood_donation_backend;
-
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
-@SpringBootTest
-class BloodDonationBackendApplicationTests {
-
-	@Test
-	void contextLoads() {
-	}
-
-}
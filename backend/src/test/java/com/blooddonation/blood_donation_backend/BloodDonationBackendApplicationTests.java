@@ -0,0 +1,14 @@
+package com.blooddonation.blood_donation_backend;
+
+import org.junit.jupiter.api.Test;
+
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+// The full context on the embedded PostgreSQL, startup jobs included (H2 can't run their native SQL)
+class BloodDonationBackendApplicationTests extends PostgresIntegrationTest {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
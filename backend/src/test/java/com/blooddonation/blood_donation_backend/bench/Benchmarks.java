@@ -0,0 +1,29 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blooddonation.blood_donation_backend.service.EncryptionService;
+
+/**
+ * Fixtures shared by the JMH benchmarks in this package. Benchmarks are run with the bench
+ * profile, not by surefire: {@code mvn -Pbench test-compile exec:exec -Dbench.args="FingerprintIndex"}.
+ */
+final class Benchmarks {
+
+    static final String ENCRYPTION_KEY = "bench-encryption-key-0123456789a";
+
+    private Benchmarks() {
+    }
+
+    /**
+     * An EncryptionService with fixed keys, initialised the way Spring would
+     * (the encryption key is 32 bytes, so it is used as is)
+     */
+    static EncryptionService encryptionService() {
+        EncryptionService service = new EncryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", ENCRYPTION_KEY);
+        ReflectionTestUtils.setField(service, "blindIndexKey", "bench-blind-index-key");
+        ReflectionTestUtils.invokeMethod(service, "initKeys");
+        return service;
+    }
+}
@@ -0,0 +1,224 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.blooddonation.blood_donation_backend.model.DemandForecast;
+import com.blooddonation.blood_donation_backend.repository.DemandForecastRepository;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+import com.blooddonation.blood_donation_backend.service.DemandForecastService;
+
+/**
+ * Cost of the nightly {@link DemandForecastService#refresh()} on a synthetic multi-year history,
+ * against rebuilding the forecasts from the whole history, which is what a refresh that rescans
+ * would pay every night. The database is replaced by a JdbcTemplate that generates the daily
+ * demand rows on the fly, so this measures the service's own work per row, not SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DemandForecastBenchmark {
+
+    private static final LocalDate HISTORY_START = LocalDate.of(2020, 1, 1);
+    private static final String[] GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+
+    @Param({"3"})
+    int years;
+
+    @Param({"50"})
+    int hospitals;
+
+    private MovableClock clock;
+    private DemandForecastService nightly;
+    private DemandForecastService rebuild;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        // each refresh logs a summary line; writing thousands of them to the console is not what is measured
+        ((Logger) LoggerFactory.getLogger(DemandForecastService.class)).setLevel(ch.qos.logback.classic.Level.WARN);
+        LocalDate today = HISTORY_START.plusYears(years);
+        // the nightly service has folded everything up to yesterday and moves on one day per call
+        clock = new MovableClock(today.atTime(1, 0));
+        List<DemandForecast> folded = new ArrayList<>();
+        nightly = service(clock, repository(folded));
+        nightly.refresh();
+        // the rebuild service starts from nothing each time
+        rebuild = service(Clock.fixed(today.atTime(1, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                repository(null));
+    }
+
+    /**
+     * One more day folded into forecasts that already hold the whole history
+     */
+    @Benchmark
+    public int nightlyRefresh() {
+        clock.advanceDays(1);
+        return nightly.refresh();
+    }
+
+    /**
+     * Every day of the history folded from scratch
+     */
+    @Benchmark
+    public int fullRebuild() {
+        return rebuild.refresh();
+    }
+
+    private DemandForecastService service(Clock clock, DemandForecastRepository repository) {
+        return new DemandForecastService(repository, mock(HospitalStockRepository.class), new SyntheticHistory(),
+                clock, 28, 8, Duration.ofMinutes(10));
+    }
+
+    // Keeps saved forecasts in the given list, or forgets them when it is null
+    private static DemandForecastRepository repository(List<DemandForecast> store) {
+        DemandForecastRepository repository = mock(DemandForecastRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> store == null ? List.of() : new ArrayList<>(store));
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<DemandForecast> saved = new ArrayList<>();
+            invocation.<Iterable<DemandForecast>>getArgument(0).forEach(saved::add);
+            if (store != null) {
+                store.clear();
+                store.addAll(saved);
+            }
+            return saved;
+        });
+        return repository;
+    }
+
+    /**
+     * Approval rows for every hospital and group since HISTORY_START: busier on weekdays, with
+     * roughly a third of the days having no approvals at all. Each day's rows are the same on every call.
+     */
+    private final class SyntheticHistory extends JdbcTemplate {
+
+        @Override
+        public void execute(String sql) {
+            // LOCK TABLE
+        }
+
+        @Override
+        public int update(String sql) {
+            // DELETE of forecasts for removed hospitals
+            return 0;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return requiredType.cast(HISTORY_START.atStartOfDay());
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler handler, Object... args) {
+            LocalDate to = ((LocalDateTime) args[2]).toLocalDate();
+            Row row = new Row();
+            ResultSet resultSet = row.resultSet();
+            try {
+                for (LocalDate day = ((LocalDateTime) args[1]).toLocalDate(); day.isBefore(to); day = day.plusDays(1)) {
+                    SplittableRandom random = new SplittableRandom(day.toEpochDay());
+                    int busy = day.getDayOfWeek().getValue() <= 5 ? 3 : 1;
+                    for (long hospitalId = 1; hospitalId <= hospitals; hospitalId++) {
+                        for (String group : GROUPS) {
+                            long units = random.nextInt(3 * busy) - busy + 1;
+                            if (units > 0) {
+                                row.set(hospitalId, group, day, units);
+                                handler.processRow(resultSet);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // The current demand row, read through the columns the service asks for
+    private static final class Row {
+        private long hospitalId;
+        private String bloodGroup;
+        private Date day;
+        private long units;
+
+        void set(long hospitalId, String bloodGroup, LocalDate day, long units) {
+            this.hospitalId = hospitalId;
+            this.bloodGroup = bloodGroup;
+            this.day = Date.valueOf(day);
+            this.units = units;
+        }
+
+        ResultSet resultSet() {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName() + " " + args[0]) {
+                        case "getLong hospital_id" -> hospitalId;
+                        case "getString blood_group" -> bloodGroup;
+                        case "getDate day" -> day;
+                        case "getLong units" -> units;
+                        default -> throw new UnsupportedOperationException(method.getName() + " " + args[0]);
+                    });
+        }
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant instant;
+
+        MovableClock(LocalDateTime start) {
+            this.instant = start.toInstant(ZoneOffset.UTC);
+        }
+
+        void advanceDays(int days) {
+            instant = instant.plus(Duration.ofDays(days));
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
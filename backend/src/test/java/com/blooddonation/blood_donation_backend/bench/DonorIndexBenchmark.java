@@ -0,0 +1,106 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.LocationKey;
+import com.blooddonation.blood_donation_backend.service.DonorIndex;
+
+/**
+ * Matches per second from {@link DonorIndex#match} with hundreds of thousands of registered
+ * donors, against ranking the same donors by a full pass over all of them. Requests cycle
+ * through every recipient group and a spread of locations, so the rare groups are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DonorIndexBenchmark {
+
+    private static final int LOCATIONS = 200;
+    private static final int REQUESTS = 1024;
+    private static final int LIMIT = 50;
+    // roughly the share of each group among donors, in BloodGroup order: A+ A- B+ B- AB+ AB- O+ O-
+    private static final double[] GROUP_SHARE = {0.34, 0.06, 0.10, 0.02, 0.04, 0.01, 0.36, 0.07};
+
+    @Param({"100000", "500000"})
+    int donors;
+
+    private DonorIndex index;
+    private List<DonorIndex.Entry> allDonors;
+    private BloodGroup[] recipients;
+    private String[] locations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void register() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new DonorIndex();
+        allDonors = new ArrayList<>(donors);
+        for (long id = 1; id <= donors; id++) {
+            DonorIndex.Entry donor = DonorIndex.entryFor(id, "Donor " + id, "donor" + id + "@bloodcare.org", "DONOR",
+                    group(random).label(), "City " + random.nextInt(LOCATIONS), null, null);
+            index.put(donor);
+            allDonors.add(donor);
+        }
+        recipients = new BloodGroup[REQUESTS];
+        locations = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            recipients[i] = BloodGroup.values()[i % BloodGroup.values().length];
+            locations[i] = LocationKey.of("City " + random.nextInt(LOCATIONS));
+        }
+    }
+
+    @Benchmark
+    public List<DonorIndex.Match> match() {
+        int request = next++ & (REQUESTS - 1);
+        return index.match(recipients[request], locations[request], LIMIT);
+    }
+
+    @Benchmark
+    public List<DonorIndex.Match> fullScan() {
+        int request = next++ & (REQUESTS - 1);
+        BloodGroup recipient = recipients[request];
+        String location = locations[request];
+        List<BloodGroup> preference = recipient.compatibleDonors();
+        List<DonorIndex.Match> candidates = new ArrayList<>();
+        for (DonorIndex.Entry donor : allDonors) {
+            if (donor.group().canDonateTo(recipient)) {
+                candidates.add(new DonorIndex.Match(donor, location.equals(donor.locationKey()), donor.group() == recipient));
+            }
+        }
+        candidates.sort(Comparator.comparing((DonorIndex.Match m) -> !m.sameLocation())
+                .thenComparingInt(m -> preference.indexOf(m.donor().group())));
+        return candidates.subList(0, Math.min(LIMIT, candidates.size()));
+    }
+
+    private static BloodGroup group(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < GROUP_SHARE.length - 1; i++) {
+            r -= GROUP_SHARE[i];
+            if (r < 0) {
+                return BloodGroup.values()[i];
+            }
+        }
+        return BloodGroup.values()[GROUP_SHARE.length - 1];
+    }
+}
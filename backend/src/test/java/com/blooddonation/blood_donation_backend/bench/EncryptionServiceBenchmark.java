@@ -0,0 +1,157 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blooddonation.blood_donation_backend.service.EncryptionService;
+
+/**
+ * Throughput of {@link EncryptionService} against the code it replaced, which built a
+ * SecretKeySpec and called Cipher.getInstance on every value. Two baselines: the old AES/ECB
+ * code as it was, and the same per-call setup with GCM, which separates the cost of the mode
+ * from the cost of not reusing the cipher. Run with {@code -prof gc} for allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionServiceBenchmark {
+
+    private static final int BATCH = 100;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // 64 bytes is a phone number or address, 4096 a fingerprint template
+    @Param({"64", "4096"})
+    int bytes;
+
+    private EncryptionService encryptionService;
+    private String plainText;
+    private String encryptedText;
+    private String legacyEncryptedText;
+    private String perCallGcmEncryptedText;
+    private List<byte[]> plainBatch;
+    private List<byte[]> encryptedBatch;
+
+    @Setup(Level.Trial)
+    public void prepare() throws GeneralSecurityException {
+        encryptionService = Benchmarks.encryptionService();
+        SplittableRandom random = new SplittableRandom(42);
+        plainText = text(random, bytes);
+        encryptedText = encryptionService.encrypt(plainText);
+        legacyEncryptedText = perCallEcbEncrypt(plainText);
+        perCallGcmEncryptedText = perCallGcmEncrypt(plainText);
+        plainBatch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            plainBatch.add(text(random, bytes).getBytes(StandardCharsets.UTF_8));
+        }
+        encryptedBatch = encryptionService.encryptAll(plainBatch);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(encryptedText);
+    }
+
+    /**
+     * Scores are per batch of {@value #BATCH} values
+     */
+    @Benchmark
+    public List<byte[]> encryptAll() {
+        return encryptionService.encryptAll(plainBatch);
+    }
+
+    /**
+     * Scores are per batch of {@value #BATCH} values
+     */
+    @Benchmark
+    public List<byte[]> decryptAll() {
+        return encryptionService.decryptAll(encryptedBatch);
+    }
+
+    @Benchmark
+    public String perCallEcbEncrypt() throws GeneralSecurityException {
+        return perCallEcbEncrypt(plainText);
+    }
+
+    @Benchmark
+    public String perCallEcbDecrypt() throws GeneralSecurityException {
+        SecretKey secretKey = new SecretKeySpec(Benchmarks.ENCRYPTION_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(legacyEncryptedText)));
+    }
+
+    @Benchmark
+    public String perCallGcmEncrypt() throws GeneralSecurityException {
+        return perCallGcmEncrypt(plainText);
+    }
+
+    @Benchmark
+    public String perCallGcmDecrypt() throws GeneralSecurityException {
+        byte[] decoded = Base64.getDecoder().decode(perCallGcmEncryptedText);
+        SecretKey secretKey = new SecretKeySpec(Benchmarks.ENCRYPTION_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, decoded, 0, 12));
+        return new String(cipher.doFinal(decoded, 12, decoded.length - 12), StandardCharsets.UTF_8);
+    }
+
+    // EncryptionService.encrypt before the cipher was reused, unchanged
+    private static String perCallEcbEncrypt(String data) throws GeneralSecurityException {
+        SecretKey secretKey = new SecretKeySpec(Benchmarks.ENCRYPTION_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes()));
+    }
+
+    private static String perCallGcmEncrypt(String data) throws GeneralSecurityException {
+        byte[] iv = new byte[12];
+        RANDOM.nextBytes(iv);
+        SecretKey secretKey = new SecretKeySpec(Benchmarks.ENCRYPTION_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+        byte[] encrypted = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        byte[] out = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, out, 0, iv.length);
+        System.arraycopy(encrypted, 0, out, iv.length, encrypted.length);
+        return Base64.getEncoder().encodeToString(out);
+    }
+
+    private static String text(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
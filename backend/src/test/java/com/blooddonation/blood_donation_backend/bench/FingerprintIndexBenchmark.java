@@ -0,0 +1,90 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blooddonation.blood_donation_backend.service.EncryptionService;
+import com.blooddonation.blood_donation_backend.service.FingerprintIndex;
+
+/**
+ * Scan latency of {@link FingerprintIndex} at 10k, 100k and 1M enrolled patients, against the
+ * scan it replaced: decrypt every stored template until one matches. The baseline looks for an
+ * unknown template, which is what every scan of a new patient cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FingerprintIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int patients;
+
+    private EncryptionService encryptionService;
+    private FingerprintIndex index;
+    private String[] templates;
+    private List<String> storedTemplates;
+    private String unknownTemplate;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void enroll() {
+        encryptionService = Benchmarks.encryptionService();
+        index = new FingerprintIndex(encryptionService);
+        random = new SplittableRandom(42);
+        templates = new String[patients];
+        storedTemplates = new ArrayList<>(patients);
+        for (int i = 0; i < patients; i++) {
+            templates[i] = template(random);
+            index.put(templates[i], UUID.randomUUID());
+            storedTemplates.add(encryptionService.encrypt(templates[i]));
+        }
+        unknownTemplate = template(random);
+    }
+
+    @Benchmark
+    public UUID indexedScan() {
+        return index.find(templates[random.nextInt(patients)]).orElseThrow();
+    }
+
+    @Benchmark
+    public boolean indexedScanOfUnknownPatient() {
+        return index.find(unknownTemplate).isPresent();
+    }
+
+    @Benchmark
+    public boolean decryptingScanOfUnknownPatient() {
+        for (String stored : storedTemplates) {
+            if (index.matches(unknownTemplate, encryptionService.decrypt(stored))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Templates arrive from the scanner as Base64; 64 bytes keeps a million of them in a small heap
+    private static String template(SplittableRandom random) {
+        byte[] raw = new byte[64];
+        random.nextBytes(raw);
+        return Base64.getEncoder().encodeToString(raw);
+    }
+}
@@ -0,0 +1,133 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.service.DonorIndex;
+import com.blooddonation.blood_donation_backend.service.GeoGrid;
+
+/**
+ * Nearest-donor lookups for an SOS through {@link DonorIndex#nearest}, which sits on {@link GeoGrid},
+ * with 1M located donors, against a brute-force pass over every donor. Most donors cluster around
+ * cities and the rest are spread over the country, so both crowded and sparse cells are hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GeoGridBenchmark {
+
+    private static final int CITIES = 50;
+    private static final int QUERIES = 1024;
+    private static final int K = 10;
+    private static final double MAX_KM = 50;
+    // roughly the Indian mainland
+    private static final double MIN_LATITUDE = 8;
+    private static final double MIN_LONGITUDE = 68;
+    private static final double SPAN_DEGREES = 29;
+
+    @Param({"1000000"})
+    int points;
+
+    private DonorIndex index;
+    private DonorIndex.Entry[] donors;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private BloodGroup[] recipients;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void locate() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[][] cities = new double[CITIES][];
+        for (int i = 0; i < CITIES; i++) {
+            cities[i] = new double[] {MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES,
+                    MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES};
+        }
+        index = new DonorIndex();
+        donors = new DonorIndex.Entry[points];
+        for (int i = 0; i < points; i++) {
+            double latitude;
+            double longitude;
+            if (random.nextInt(10) < 7) {
+                double[] city = cities[random.nextInt(CITIES)];
+                latitude = city[0] + random.nextGaussian() * 0.2;
+                longitude = city[1] + random.nextGaussian() * 0.2;
+            } else {
+                latitude = MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+                longitude = MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+            }
+            BloodGroup group = BloodGroup.values()[random.nextInt(BloodGroup.values().length)];
+            donors[i] = DonorIndex.entryFor((long) i + 1, null, null, "DONOR", group.label(), null, latitude, longitude);
+            index.put(donors[i]);
+        }
+        queryLatitudes = new double[QUERIES];
+        queryLongitudes = new double[QUERIES];
+        recipients = new BloodGroup[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            // half the SOS events come from a city, half from anywhere
+            double[] city = cities[random.nextInt(CITIES)];
+            boolean inCity = i % 2 == 0;
+            queryLatitudes[i] = inCity ? city[0] + random.nextGaussian() * 0.1 : MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+            queryLongitudes[i] = inCity ? city[1] + random.nextGaussian() * 0.1 : MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+            recipients[i] = BloodGroup.values()[i % BloodGroup.values().length];
+        }
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit<DonorIndex.Entry>> nearestDonors() {
+        int query = next++ & (QUERIES - 1);
+        return index.nearest(null, queryLatitudes[query], queryLongitudes[query], K, MAX_KM);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit<DonorIndex.Entry>> nearestCompatibleDonors() {
+        int query = next++ & (QUERIES - 1);
+        return index.nearest(recipients[query], queryLatitudes[query], queryLongitudes[query], K, MAX_KM);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit<DonorIndex.Entry>> bruteForceCompatibleDonors() {
+        int query = next++ & (QUERIES - 1);
+        double latitude = queryLatitudes[query];
+        double longitude = queryLongitudes[query];
+        BloodGroup recipient = recipients[query];
+        PriorityQueue<GeoGrid.Hit<DonorIndex.Entry>> best = new PriorityQueue<>(K + 1,
+                Comparator.comparingDouble((GeoGrid.Hit<DonorIndex.Entry> h) -> h.distanceKm()).reversed());
+        for (DonorIndex.Entry donor : donors) {
+            if (!donor.group().canDonateTo(recipient)) {
+                continue;
+            }
+            double d = GeoGrid.distanceKm(latitude, longitude, donor.latitude(), donor.longitude());
+            if (d <= MAX_KM && (best.size() < K || d < best.peek().distanceKm())) {
+                best.add(new GeoGrid.Hit<>(donor.id(), donor, d));
+                if (best.size() > K) {
+                    best.poll();
+                }
+            }
+        }
+        List<GeoGrid.Hit<DonorIndex.Entry>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(GeoGrid.Hit::distanceKm));
+        return result;
+    }
+}
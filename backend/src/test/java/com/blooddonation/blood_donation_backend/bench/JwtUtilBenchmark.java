@@ -0,0 +1,109 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blooddonation.blood_donation_backend.security.JwtUtil;
+import com.blooddonation.blood_donation_backend.security.TokenClaims;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Tokens per second for signing and verifying with {@link JwtUtil}, against the code it
+ * replaced, which derived the HMAC key and built a parser on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "bench-jwt-secret-that-is-long-enough-for-hs512-0123456789abcdef0123";
+
+    private JwtUtil jwtUtil;
+    private UserDetails user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        user = User.withUsername("donor@bloodcare.org")
+                .password("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0")
+                .authorities(new SimpleGrantedAuthority("ROLE_DONOR"))
+                .build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return jwtUtil.parseAndValidate(token);
+    }
+
+    /**
+     * JwtUtil.generateToken(UserDetails) before the key was cached: same claims, same digest
+     */
+    @Benchmark
+    public String perCallKeySign() throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(user.getPassword().getBytes(StandardCharsets.UTF_8));
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(JwtUtil.ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .claim(JwtUtil.CREDENTIAL_VERSION_CLAIM, HexFormat.of().formatHex(digest, 0, 8))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(perCallKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * JwtUtil.parseClaims before the parser was cached
+     */
+    @Benchmark
+    public Claims perCallParserVerify() {
+        return Jwts.parserBuilder()
+                .setSigningKey(perCallKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    // JwtUtil.getSigningKey before the key was cached
+    private static Key perCallKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+}
@@ -0,0 +1,117 @@
+package com.blooddonation.blood_donation_backend.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blooddonation.blood_donation_backend.pharmacy.service.MedicineSearchIndex;
+
+/**
+ * Queries per second from {@link MedicineSearchIndex} on a 500k-SKU catalogue: whole words, words
+ * with a typo, and autocomplete prefixes. The baseline is what {@code LIKE '%q%'} does, a substring
+ * test against every name, run in memory so that it is a lower bound on the database's cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class MedicineSearchIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 20;
+    private static final String[] ONSETS = {"am", "bel", "car", "dex", "el", "fen", "gli", "hal", "ib", "ket",
+            "lor", "mek", "nor", "ox", "pra", "quin", "ris", "sul", "tam", "val", "xan", "zol"};
+    private static final String[] MIDDLES = {"a", "e", "i", "o", "u", "ad", "ex", "im", "or", "ul", "av", "et"};
+    private static final String[] ENDINGS = {"pine", "mycin", "prazole", "statin", "sartan", "olol", "cillin",
+            "dronate", "fenac", "tidine", "zepam", "vir", "mab", "tide", "xetine", "lukast"};
+    private static final String[] FORMS = {"Tablet", "Capsule", "Syrup", "Injection", "Cream", "Drops", "Suspension"};
+    private static final String[] STRENGTHS = {"5 mg", "10 mg", "20 mg", "40 mg", "100 mg", "250 mg", "500 mg", "1 g"};
+    private static final String[] USES = {"hypertension", "infection", "acid reflux", "cholesterol", "pain and fever",
+            "allergy", "asthma", "anxiety", "diabetes", "osteoporosis", "viral infection", "inflammation"};
+
+    @Param({"500000"})
+    int skus;
+
+    private MedicineSearchIndex index;
+    private String[] lowerCaseNames;
+    private String[] words;
+    private String[] typos;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void stock() {
+        SplittableRandom random = new SplittableRandom(42);
+        // about 20 SKUs (strengths and forms) per brand, like a real catalogue
+        List<String> brands = new ArrayList<>();
+        for (int i = 0; i < skus / 20; i++) {
+            String brand = ONSETS[random.nextInt(ONSETS.length)] + MIDDLES[random.nextInt(MIDDLES.length)]
+                    + ENDINGS[random.nextInt(ENDINGS.length)];
+            brands.add(Character.toUpperCase(brand.charAt(0)) + brand.substring(1) + (i % 7 == 0 ? "" : " " + (char) ('A' + i % 26)));
+        }
+        index = new MedicineSearchIndex();
+        lowerCaseNames = new String[skus];
+        for (int i = 0; i < skus; i++) {
+            String name = brands.get(random.nextInt(brands.size())) + " " + STRENGTHS[random.nextInt(STRENGTHS.length)]
+                    + " " + FORMS[random.nextInt(FORMS.length)];
+            String description = "Used for " + USES[random.nextInt(USES.length)] + ". Prescription only.";
+            index.put((long) i + 1, name, description);
+            lowerCaseNames[i] = name.toLowerCase(Locale.ROOT);
+        }
+        words = new String[QUERIES];
+        typos = new String[QUERIES];
+        prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = brands.get(random.nextInt(brands.size())).split(" ")[0].toLowerCase(Locale.ROOT);
+            words[i] = word;
+            // swap two neighbouring letters, the commonest typing slip
+            int at = 1 + random.nextInt(word.length() - 2);
+            typos[i] = word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+            prefixes[i] = word.substring(0, 3 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public List<MedicineSearchIndex.Hit> search() {
+        return index.search(words[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<MedicineSearchIndex.Hit> searchWithTypo() {
+        return index.search(typos[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<MedicineSearchIndex.Hit> autocomplete() {
+        return index.autocomplete(prefixes[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<Integer> substringScan() {
+        String query = words[next++ & (QUERIES - 1)];
+        List<Integer> result = new ArrayList<>(LIMIT);
+        for (int i = 0; i < lowerCaseNames.length && result.size() < LIMIT; i++) {
+            if (lowerCaseNames[i].contains(query)) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.blooddonation.blood_donation_backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * Controllers don't check for a missing caller themselves; the security chain must turn anonymous
+ * requests away with 401 before they get there.
+ */
+@AutoConfigureMockMvc
+class AnonymousAccessTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void donorAndRequestEndpointsRejectAnonymousCallers() throws Exception {
+        for (String path : new String[] {"/api/donors?group=A%2B", "/api/donors/match?group=A%2B",
+                "/api/donors/match/1", "/api/requests", "/api/requests/search", "/api/requests/1"}) {
+            int status = mockMvc.perform(get(path)).andReturn().getResponse().getStatus();
+            assertThat(status).as(path).isEqualTo(401);
+        }
+        assertThat(mockMvc.perform(post("/api/requests").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getStatus()).isEqualTo(401);
+    }
+}
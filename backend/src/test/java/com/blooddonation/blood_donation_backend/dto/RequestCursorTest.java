@@ -0,0 +1,57 @@
+package com.blooddonation.blood_donation_backend.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class RequestCursorTest {
+
+    @Test
+    void roundTripsThroughItsToken() {
+        RequestCursor cursor = new RequestCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        assertThat(RequestCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsWholeSecondsAndMidnight() {
+        RequestCursor onTheMinute = new RequestCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 1L);
+        RequestCursor onTheSecond = new RequestCursor(LocalDateTime.of(2025, 1, 1, 12, 30, 5), Long.MAX_VALUE);
+
+        assertThat(RequestCursor.decode(onTheMinute.encode())).isEqualTo(onTheMinute);
+        assertThat(RequestCursor.decode(onTheSecond.encode())).isEqualTo(onTheSecond);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new RequestCursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_999_999), 999_999L).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void takesItsPositionFromTheLastRow() {
+        LocalDateTime at = LocalDateTime.of(2025, 6, 1, 8, 0);
+        BloodRequestDto last = new BloodRequestDto(7L, "P", "A+", "Pune", "PENDING", at, "Hospital");
+
+        assertThat(RequestCursor.of(last)).isEqualTo(new RequestCursor(at, 7L));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> RequestCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RequestCursor.decode(token("2025-01-01T00:00"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RequestCursor.decode(token("yesterday|5"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RequestCursor.decode(token("2025-01-01T00:00|x"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RequestCursor.decode("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,63 @@
+package com.blooddonation.blood_donation_backend.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class BloodGroupTest {
+
+    @Test
+    void oNegativeGivesToEveryoneAndAbPositiveTakesFromEveryone() {
+        for (BloodGroup group : BloodGroup.values()) {
+            assertThat(BloodGroup.O_NEG.canDonateTo(group)).as("O- to %s", group).isTrue();
+            assertThat(group.canDonateTo(BloodGroup.AB_POS)).as("%s to AB+", group).isTrue();
+        }
+    }
+
+    @Test
+    void donorMustNotCarryAnAntigenTheRecipientLacks() {
+        assertThat(BloodGroup.A_POS.canDonateTo(BloodGroup.A_NEG)).isFalse();
+        assertThat(BloodGroup.A_NEG.canDonateTo(BloodGroup.B_NEG)).isFalse();
+        assertThat(BloodGroup.B_NEG.canDonateTo(BloodGroup.A_POS)).isFalse();
+        assertThat(BloodGroup.AB_NEG.canDonateTo(BloodGroup.A_NEG)).isFalse();
+        assertThat(BloodGroup.O_POS.canDonateTo(BloodGroup.O_NEG)).isFalse();
+        assertThat(BloodGroup.A_NEG.canDonateTo(BloodGroup.AB_POS)).isTrue();
+        assertThat(BloodGroup.O_POS.canDonateTo(BloodGroup.B_POS)).isTrue();
+    }
+
+    @Test
+    void compatibleDonorsMatchCanDonateToClosestFirst() {
+        for (BloodGroup recipient : BloodGroup.values()) {
+            assertThat(recipient.compatibleDonors())
+                    .containsExactlyInAnyOrderElementsOf(Arrays.stream(BloodGroup.values())
+                            .filter(donor -> donor.canDonateTo(recipient))
+                            .toList())
+                    .startsWith(recipient)
+                    .endsWith(BloodGroup.O_NEG);
+        }
+        assertThat(BloodGroup.O_NEG.compatibleDonors()).containsExactly(BloodGroup.O_NEG);
+        assertThat(BloodGroup.A_NEG.compatibleDonors()).containsExactly(BloodGroup.A_NEG, BloodGroup.O_NEG);
+    }
+
+    @Test
+    void parseAcceptsLabelsAndNamesInAnyCaseAndSpacing() {
+        assertThat(BloodGroup.parse("AB+")).isEqualTo(BloodGroup.AB_POS);
+        assertThat(BloodGroup.parse("ab+")).isEqualTo(BloodGroup.AB_POS);
+        assertThat(BloodGroup.parse(" O - ")).isEqualTo(BloodGroup.O_NEG);
+        assertThat(BloodGroup.parse("b_pos")).isEqualTo(BloodGroup.B_POS);
+        for (BloodGroup group : BloodGroup.values()) {
+            assertThat(BloodGroup.parse(group.label())).isEqualTo(group);
+        }
+    }
+
+    @Test
+    void parseReturnsNullForBlankOrUnknown() {
+        assertThat(BloodGroup.parse(null)).isNull();
+        assertThat(BloodGroup.parse("")).isNull();
+        assertThat(BloodGroup.parse("   ")).isNull();
+        assertThat(BloodGroup.parse("C+")).isNull();
+        assertThat(BloodGroup.parse("A")).isNull();
+    }
+}
@@ -0,0 +1,50 @@
+package com.blooddonation.blood_donation_backend.pharmacy.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CatalogCursorTest {
+
+    @Test
+    void roundTripsNameAndPriceValues() {
+        CatalogCursor byName = new CatalogCursor("Paracetamol 500mg", 12L);
+        CatalogCursor byPrice = new CatalogCursor("149.50", 7L);
+
+        assertThat(CatalogCursor.decode(byName.encode())).isEqualTo(byName);
+        assertThat(CatalogCursor.decode(byPrice.encode())).isEqualTo(byPrice);
+    }
+
+    @Test
+    void valuesMayContainTheSeparatorAndNonAsciiText() {
+        CatalogCursor piped = new CatalogCursor("Cough syrup | 100 ml", 3L);
+        CatalogCursor devanagari = new CatalogCursor("अश्वगंधा चूर्ण", 4L);
+
+        assertThat(CatalogCursor.decode(piped.encode())).isEqualTo(piped);
+        assertThat(CatalogCursor.decode(devanagari.encode())).isEqualTo(devanagari);
+        assertThat(piped.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void aMissingValueComesBackEmpty() {
+        // the newest-first sort keys on id alone
+        assertThat(CatalogCursor.decode(new CatalogCursor(null, 9L).encode())).isEqualTo(new CatalogCursor("", 9L));
+        assertThat(CatalogCursor.decode(new CatalogCursor("", 9L).encode())).isEqualTo(new CatalogCursor("", 9L));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> CatalogCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CatalogCursor.decode(token("no separator"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CatalogCursor.decode(token("Aspirin|twelve"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CatalogCursor.decode("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
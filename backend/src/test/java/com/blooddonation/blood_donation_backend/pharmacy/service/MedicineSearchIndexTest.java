@@ -0,0 +1,118 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MedicineSearchIndexTest {
+
+    private MedicineSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MedicineSearchIndex();
+        index.put(1L, "Paracetamol 500mg", "Pain relief and fever reducer tablets");
+        index.put(2L, "Paracetamol Syrup", "Fever syrup for children");
+        index.put(3L, "Ibuprofen 400mg", "Anti-inflammatory pain relief");
+        index.put(4L, "Amoxicillin", "Antibiotic capsules");
+        index.put(5L, "Cetirizine", "Allergy relief");
+    }
+
+    @Test
+    void editDistanceCountsSwapsAsOneEdit() {
+        assertThat(MedicineSearchIndex.editDistance("aspirin", "aspirin", 2)).isZero();
+        assertThat(MedicineSearchIndex.editDistance("aspirin", "asprin", 2)).isEqualTo(1);
+        assertThat(MedicineSearchIndex.editDistance("aspirin", "apsirin", 2)).isEqualTo(1);
+        assertThat(MedicineSearchIndex.editDistance("aspirin", "aspirine", 2)).isEqualTo(1);
+        assertThat(MedicineSearchIndex.editDistance("kitten", "sitting", 3)).isEqualTo(3);
+    }
+
+    @Test
+    void editDistanceStopsPastTheMaximum() {
+        assertThat(MedicineSearchIndex.editDistance("paracetamol", "ibuprofen", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccents() {
+        assertThat(MedicineSearchIndex.tokenize("Crème  ANTI-itch crème")).containsExactly("creme", "anti", "itch");
+    }
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        List<MedicineSearchIndex.Hit> hits = index.search("fever", 10);
+        assertThat(ids(hits)).containsExactlyInAnyOrder(1L, 2L);
+
+        hits = index.search("relief", 10);
+        assertThat(ids(hits)).containsExactlyInAnyOrder(1L, 3L, 5L);
+
+        hits = index.search("amoxicillin", 10);
+        assertThat(ids(hits)).containsExactly(4L);
+    }
+
+    @Test
+    void prefixAndTypoMatches() {
+        assertThat(ids(index.search("parac", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("ibuprofin", 10))).containsExactly(3L);
+        assertThat(ids(index.search("amoxicilin", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void allTokensMustMatch() {
+        assertThat(ids(index.search("paracetamol syrup", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void unknownWordDoesNotEmptyTheResult() {
+        assertThat(ids(index.search("paracetamol zzzzqqq", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("zzzzqqq", 10)).isEmpty();
+    }
+
+    @Test
+    void commonestTokenIsDroppedWhenNothingMatchesEverything() {
+        // "relief" and "syrup" never occur together; the rarer one ("syrup") is kept
+        assertThat(ids(index.search("relief syrup", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        assertThat(index.search("relief", 1)).hasSize(1);
+    }
+
+    @Test
+    void autocompletePrefersNamesStartingWithTheText() {
+        List<MedicineSearchIndex.Hit> hits = index.autocomplete("paracetamol s", 10);
+        assertThat(ids(hits)).containsExactly(2L);
+        assertThat(ids(index.autocomplete("ce", 10))).containsExactly(5L);
+    }
+
+    @Test
+    void updatesAndRemovesAreVisible() {
+        index.put(4L, "Azithromycin", "Antibiotic tablets");
+        assertThat(index.search("amoxicillin", 10)).isEmpty();
+        assertThat(ids(index.search("azithromycin", 10))).containsExactly(4L);
+
+        index.remove(5L);
+        assertThat(index.search("cetirizine", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void repeatedUpdatesAreCompacted() {
+        for (int round = 0; round < 5000; round++) {
+            index.put(1L, "Paracetamol 500mg v" + round, "Pain relief");
+        }
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.ordinals()).isLessThan(2000);
+        assertThat(ids(index.search("paracetamol 500mg", 10))).containsExactly(1L);
+        assertThat(index.search("v17", 10)).isEmpty();
+        assertThat(ids(index.search("v4999", 10))).containsExactly(1L);
+        assertThat(ids(index.search("ibuprofen", 10))).containsExactly(3L);
+    }
+
+    private static List<Long> ids(List<MedicineSearchIndex.Hit> hits) {
+        return hits.stream().map(MedicineSearchIndex.Hit::id).toList();
+    }
+}
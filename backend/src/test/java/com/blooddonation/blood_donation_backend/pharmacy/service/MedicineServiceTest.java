@@ -0,0 +1,101 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.blooddonation.blood_donation_backend.pharmacy.dto.CreateOrderRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderItemRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
+import com.blooddonation.blood_donation_backend.pharmacy.model.MedicineLot;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineLotRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * Catalogue writes on a real database: lots go with their medicine, and the search index follows
+ * committed changes.
+ */
+class MedicineServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private MedicineInventoryService inventory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineLotRepository lotRepository;
+
+    @Test
+    void deletingAMedicineDeletesItsLots() {
+        Medicine medicine = medicine("Quorvatin", 4, 6);
+        assertThat(medicineService.searchMedicines("quorvatin", 10)).extracting(Medicine::getId).contains(medicine.getId());
+
+        medicineService.deleteMedicine(medicine.getId());
+
+        assertThat(medicineRepository.findById(medicine.getId())).isEmpty();
+        assertThat(lotRepository.findByMedicineIdOrderByExpiryDateAscIdAsc(medicine.getId())).isEmpty();
+        assertThat(medicineService.searchMedicines("quorvatin", 10)).extracting(Medicine::getId).doesNotContain(medicine.getId());
+    }
+
+    @Test
+    void aMedicineThatWasOrderedIsKeptWithAllItsLots() {
+        Medicine medicine = medicine("Brelotide", 5);
+        orderService.placeOrder(9_500_001L, order(medicine.getId(), 2));
+
+        assertThatThrownBy(() -> medicineService.deleteMedicine(medicine.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(medicineRepository.findById(medicine.getId())).isPresent();
+        assertThat(lotRepository.findByMedicineIdOrderByExpiryDateAscIdAsc(medicine.getId()))
+                .extracting(MedicineLot::getQuantity)
+                .containsExactly(3);
+        assertThat(medicineService.searchMedicines("brelotide", 10)).extracting(Medicine::getId).contains(medicine.getId());
+    }
+
+    @Test
+    void renamedMedicinesAreFoundByTheirNewName() {
+        Medicine medicine = medicine("Halvexin", 1);
+        Medicine updated = new Medicine("Torminex " + System.nanoTime(), 0, null, 9.0);
+
+        medicineService.updateMedicine(medicine.getId(), updated);
+
+        assertThat(medicineService.searchMedicines("torminex", 10)).extracting(Medicine::getId).contains(medicine.getId());
+        assertThat(medicineService.searchMedicines("halvexin", 10)).extracting(Medicine::getId).doesNotContain(medicine.getId());
+    }
+
+    // A medicine whose stock is the given lots, created through the service so it is indexed
+    private Medicine medicine(String name, int... lots) {
+        Medicine medicine = medicineService.addMedicine(new Medicine(name + " " + System.nanoTime(), 0, null, 12.5));
+        for (int i = 0; i < lots.length; i++) {
+            MedicineLot lot = new MedicineLot();
+            lot.setLotNumber("L" + i);
+            lot.setQuantity(lots[i]);
+            lot.setExpiryDate(LocalDate.now().plusMonths(6 + i));
+            inventory.receiveLot(medicine.getId(), lot);
+        }
+        return medicine;
+    }
+
+    private static CreateOrderRequest order(Long medicineId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setMedicineId(medicineId);
+        item.setQuantity(quantity);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setItems(List.of(item));
+        return request;
+    }
+}
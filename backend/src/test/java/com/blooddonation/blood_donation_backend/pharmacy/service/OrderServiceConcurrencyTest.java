@@ -0,0 +1,204 @@
+package com.blooddonation.blood_donation_backend.pharmacy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.blooddonation.blood_donation_backend.pharmacy.dto.CreateOrderRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderDto;
+import com.blooddonation.blood_donation_backend.pharmacy.dto.OrderItemRequest;
+import com.blooddonation.blood_donation_backend.pharmacy.model.Medicine;
+import com.blooddonation.blood_donation_backend.pharmacy.model.MedicineLot;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineLotRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.MedicineRepository;
+import com.blooddonation.blood_donation_backend.pharmacy.repository.OrderRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * Checkouts racing for the same stock on a real database: the reservation must never sell more
+ * than is on hand, and an order that cannot be filled must leave nothing behind.
+ */
+class OrderServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    // order owners are plain ids; keep them apart from anything else in the shared database
+    private static final AtomicLong USER_IDS = new AtomicLong(9_000_000);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MedicineInventoryService inventory;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineLotRepository lotRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void racingCheckoutsSellExactlyTheUnitsOnHand() throws Exception {
+        Medicine medicine = medicine("Insulin glargine", 3, 2);
+        int available = 5;
+        int checkouts = 40;
+
+        List<Outcome> outcomes = race(checkouts, i -> order(medicine.getId(), 1));
+
+        assertThat(outcomes.stream().filter(Outcome::placed)).hasSize(available);
+        assertThat(outcomes.stream().filter(o -> !o.placed()))
+                .hasSize(checkouts - available)
+                .allSatisfy(o -> assertThat(o.error()).isInstanceOf(OutOfStockException.class));
+        assertThat(stock(medicine.getId())).isZero();
+        assertThat(lotQuantities(medicine.getId())).containsOnly(0);
+        assertThat(allocatedUnits(medicine.getId())).isEqualTo(available);
+    }
+
+    @Test
+    void stockNeverGoesNegativeWhenOrdersWantSeveralUnits() throws Exception {
+        Medicine medicine = medicine("Amoxicillin 500mg", 7);
+
+        List<Outcome> outcomes = race(30, i -> order(medicine.getId(), 1 + i % 3));
+
+        int sold = outcomes.stream().filter(Outcome::placed).mapToInt(o -> o.order().items().get(0).quantity()).sum();
+        assertThat(sold).isLessThanOrEqualTo(7);
+        assertThat(stock(medicine.getId())).isEqualTo(7 - sold).isGreaterThanOrEqualTo(0);
+        assertThat(lotQuantities(medicine.getId())).allSatisfy(q -> assertThat(q).isGreaterThanOrEqualTo(0));
+        // whatever is left is less than the smallest order that failed
+        int smallestRejected = outcomes.stream().filter(o -> !o.placed()).mapToInt(Outcome::quantity).min().orElse(Integer.MAX_VALUE);
+        assertThat(stock(medicine.getId())).isLessThan(smallestRejected);
+    }
+
+    @Test
+    void ordersSharingMedicinesInOppositeOrderDoNotDeadlock() throws Exception {
+        Medicine first = medicine("Paracetamol 650mg", 100);
+        Medicine second = medicine("Cetirizine 10mg", 100);
+
+        List<Outcome> outcomes = race(THREADS * 2, i -> i % 2 == 0
+                ? order(first.getId(), 1, second.getId(), 1)
+                : order(second.getId(), 1, first.getId(), 1));
+
+        assertThat(outcomes).allSatisfy(o -> assertThat(o.error()).isNull());
+        assertThat(stock(first.getId())).isEqualTo(100 - THREADS * 2);
+        assertThat(stock(second.getId())).isEqualTo(100 - THREADS * 2);
+    }
+
+    @Test
+    void aShortLineRollsBackTheWholeOrder() {
+        Medicine plenty = medicine("ORS sachet", 10);
+        Medicine scarce = medicine("Salbutamol inhaler", 1);
+        long userId = USER_IDS.incrementAndGet();
+
+        assertThatThrownBy(() -> orderService.placeOrder(userId, order(plenty.getId(), 3, scarce.getId(), 2)))
+                .isInstanceOfSatisfying(OutOfStockException.class,
+                        e -> assertThat(e.getMedicineIds()).containsExactly(scarce.getId()));
+
+        assertThat(stock(plenty.getId())).isEqualTo(10);
+        assertThat(stock(scarce.getId())).isEqualTo(1);
+        assertThat(lotQuantities(plenty.getId())).containsExactly(10);
+        assertThat(allocatedUnits(plenty.getId())).isZero();
+        assertThat(orderRepository.findByUserIdOrderByCreatedAtDesc(userId)).isEmpty();
+    }
+
+    private record Outcome(int quantity, OrderDto order, Throwable error) {
+        boolean placed() {
+            return order != null;
+        }
+    }
+
+    private interface OrderFactory {
+        CreateOrderRequest build(int i);
+    }
+
+    // Start every checkout at once and collect how each one ended
+    private List<Outcome> race(int checkouts, OrderFactory factory) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < checkouts; i++) {
+            CreateOrderRequest request = factory.build(i);
+            long userId = USER_IDS.incrementAndGet();
+            futures.add(pool.submit(() -> {
+                start.await();
+                int quantity = request.getItems().get(0).getQuantity();
+                try {
+                    return new Outcome(quantity, orderService.placeOrder(userId, request), null);
+                } catch (RuntimeException e) {
+                    return new Outcome(quantity, null, e);
+                }
+            }));
+        }
+        start.countDown();
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return outcomes;
+    }
+
+    // A medicine whose stock is the given lots, received the normal way
+    private Medicine medicine(String name, int... lots) {
+        Medicine medicine = medicineRepository.save(new Medicine(name + " " + System.nanoTime(), 0, null, 12.5));
+        for (int i = 0; i < lots.length; i++) {
+            MedicineLot lot = new MedicineLot();
+            lot.setLotNumber("L" + i);
+            lot.setQuantity(lots[i]);
+            lot.setExpiryDate(LocalDate.now().plusMonths(6 + i));
+            inventory.receiveLot(medicine.getId(), lot);
+        }
+        return medicine;
+    }
+
+    private static CreateOrderRequest order(Object... medicineAndQuantity) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < medicineAndQuantity.length; i += 2) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setMedicineId((Long) medicineAndQuantity[i]);
+            item.setQuantity((Integer) medicineAndQuantity[i + 1]);
+            items.add(item);
+        }
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setItems(items);
+        return request;
+    }
+
+    private int stock(Long medicineId) {
+        return medicineRepository.findById(medicineId).orElseThrow().getStock();
+    }
+
+    private List<Integer> lotQuantities(Long medicineId) {
+        return lotRepository.findByMedicineIdOrderByExpiryDateAscIdAsc(medicineId).stream()
+                .map(MedicineLot::getQuantity)
+                .toList();
+    }
+
+    private int allocatedUnits(Long medicineId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_lot_allocations WHERE medicine_id = ?", Integer.class, medicineId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.security.PrincipalCache;
+import com.blooddonation.blood_donation_backend.service.DonorIndex;
+
+/**
+ * Guards the request listing against N+1 loading of requestedBy: a page is one statement,
+ * however many requesters it shows. Runs on H2; the entity listeners on User need their beans.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PrincipalCache.class, DonorIndex.class})
+class BloodRequestListingQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BloodRequestRepository repository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int u = 0; u < 5; u++) {
+            User user = entityManager.persist(User.builder()
+                    .name("User " + u).email("user" + u + "@x.org").password("x")
+                    .role("HOSPITAL").bloodGroup("A+").build());
+            for (int r = 0; r < 4; r++) {
+                BloodRequest request = new BloodRequest("Patient " + u + "-" + r, r % 2 == 0 ? "A+" : "O-",
+                        "Pune", "PENDING", user);
+                request.setRequestedAt(start.plusMinutes(u * 4L + r));
+                entityManager.persist(request);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void firstPageIsOneStatement() {
+        List<BloodRequestDto> page = repository.findPage(null, null, null, null, null, 50);
+
+        assertThat(page).hasSize(20);
+        assertThat(page).extracting(BloodRequestDto::getRequestedBy).doesNotContainNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void filteredPageAfterACursorIsOneStatement() {
+        List<BloodRequestDto> first = repository.findPage("PENDING", BloodGroup.A_POS, "pune", null, null, 4);
+        BloodRequestDto last = first.get(first.size() - 1);
+        statistics.clear();
+
+        List<BloodRequestDto> next = repository.findPage("PENDING", BloodGroup.A_POS, "pune",
+                last.getRequestedAt(), last.getId(), 4);
+
+        assertThat(next).hasSize(4).allSatisfy(r -> assertThat(r.getRequestedAt()).isBefore(last.getRequestedAt()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,30 @@
+package com.blooddonation.blood_donation_backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class BloodRequestPageQueriesImplTest {
+
+    @Test
+    void everyFilterCombinationIsItsOwnStatement() {
+        Set<String> statements = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            String jpql = BloodRequestPageQueriesImpl.pageQuery((i & 1) != 0, (i & 2) != 0, (i & 4) != 0, (i & 8) != 0);
+            assertThat(jpql).doesNotContain("IS NULL OR").endsWith("ORDER BY r.requestedAt DESC, r.id DESC");
+            statements.add(jpql);
+        }
+        assertThat(statements).hasSize(16);
+    }
+
+    @Test
+    void onlyGivenFiltersArePartOfTheQuery() {
+        String jpql = BloodRequestPageQueriesImpl.pageQuery(false, true, false, true);
+
+        assertThat(jpql).contains("r.bloodGroupCode = :bloodGroup", ":cursorAt", ":cursorId")
+                .doesNotContain(":status", ":locationKey");
+    }
+}
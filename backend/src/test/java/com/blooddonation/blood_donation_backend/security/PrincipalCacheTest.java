@@ -0,0 +1,65 @@
+package com.blooddonation.blood_donation_backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache(2, Duration.ofMinutes(5));
+
+    @Test
+    void cachesACopyOfThePrincipal() {
+        cache.put("a@x.org", principal("a@x.org", "DONOR"), cache.generation());
+
+        UserDetails cached = cache.get("a@x.org");
+        assertThat(cached.getUsername()).isEqualTo("a@x.org");
+        assertThat(cached.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_DONOR");
+        assertThat(cached).isNotSameAs(cache.get("a@x.org"));
+    }
+
+    @Test
+    void principalReadBeforeAnInvalidationIsNotCached() {
+        long readAt = cache.generation();
+        cache.invalidate("a@x.org"); // the role changed and committed while the old row was being read
+        cache.put("a@x.org", principal("a@x.org", "DONOR"), readAt);
+
+        assertThat(cache.get("a@x.org")).isNull();
+    }
+
+    @Test
+    void invalidateDropsTheEntry() {
+        cache.put("a@x.org", principal("a@x.org", "DONOR"), cache.generation());
+        cache.invalidate("a@x.org");
+
+        assertThat(cache.get("a@x.org")).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFirst() {
+        cache.put("a@x.org", principal("a@x.org", "DONOR"), cache.generation());
+        cache.put("b@x.org", principal("b@x.org", "DONOR"), cache.generation());
+        cache.get("a@x.org");
+        cache.put("c@x.org", principal("c@x.org", "DONOR"), cache.generation());
+
+        assertThat(cache.get("a@x.org")).isNotNull();
+        assertThat(cache.get("b@x.org")).isNull();
+        assertThat(cache.get("c@x.org")).isNotNull();
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        PrincipalCache shortLived = new PrincipalCache(10, Duration.ofMillis(-1));
+        shortLived.put("a@x.org", principal("a@x.org", "DONOR"), shortLived.generation());
+
+        assertThat(shortLived.get("a@x.org")).isNull();
+    }
+
+    private static UserDetails principal(String email, String role) {
+        return User.withUsername(email).password("secret").roles(role).build();
+    }
+}
@@ -0,0 +1,283 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blooddonation.blood_donation_backend.dto.DemandForecastDto;
+import com.blooddonation.blood_donation_backend.model.DemandForecast;
+import com.blooddonation.blood_donation_backend.model.Hospital;
+import com.blooddonation.blood_donation_backend.repository.DemandForecastRepository;
+import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * The smoothing helpers on their own, then the nightly fold against the journal with a pinned clock.
+ */
+class DemandForecastServiceTest extends PostgresIntegrationTest {
+
+    private static final double ALPHA = 2.0 / 29;
+    private static final double SEASON_ALPHA = 2.0 / 9;
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private DemandForecastRepository forecastRepository;
+
+    @Autowired
+    private HospitalStockRepository stockRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private HospitalStockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearWatermark() {
+        // forecasts are derived data and the watermark is global; each fold test starts from scratch
+        jdbcTemplate.update("DELETE FROM demand_forecasts");
+    }
+
+    @Test
+    void theFirstDaysAreNotPulledTowardsZero() {
+        DemandForecast forecast = new DemandForecast();
+        DemandForecastService.observe(forecast, MONDAY, 6, ALPHA, SEASON_ALPHA);
+        assertThat(forecast.dailyRate()).isCloseTo(6, within(1e-12));
+
+        DemandForecastService.observe(forecast, MONDAY.plusDays(1), 6, ALPHA, SEASON_ALPHA);
+        assertThat(forecast.dailyRate()).isCloseTo(6, within(1e-12));
+        assertThat(forecast.getTotalUnits()).isEqualTo(12);
+        assertThat(forecast.getFirstDay()).isEqualTo(MONDAY);
+        assertThat(forecast.getLastDay()).isEqualTo(MONDAY.plusDays(1));
+    }
+
+    @Test
+    void aDayAlreadyFoldedIsIgnored() {
+        DemandForecast forecast = new DemandForecast();
+        DemandForecastService.observe(forecast, MONDAY.plusDays(3), 5, ALPHA, SEASON_ALPHA);
+        double rate = forecast.dailyRate();
+
+        DemandForecastService.observe(forecast, MONDAY.plusDays(3), 5, ALPHA, SEASON_ALPHA);
+        DemandForecastService.observe(forecast, MONDAY, 9, ALPHA, SEASON_ALPHA);
+        DemandForecastService.decayThrough(forecast, MONDAY.plusDays(2), ALPHA, SEASON_ALPHA);
+
+        assertThat(forecast.getTotalUnits()).isEqualTo(5);
+        assertThat(forecast.dailyRate()).isEqualTo(rate);
+        assertThat(forecast.getLastDay()).isEqualTo(MONDAY.plusDays(3));
+    }
+
+    @Test
+    void idleDaysDecayAsIfZeroDemandHadBeenObserved() {
+        DemandForecast skipped = new DemandForecast();
+        DemandForecast dayByDay = new DemandForecast();
+        for (DemandForecast forecast : List.of(skipped, dayByDay)) {
+            DemandForecastService.observe(forecast, MONDAY, 10, ALPHA, SEASON_ALPHA);
+            DemandForecastService.observe(forecast, MONDAY.plusDays(1), 4, ALPHA, SEASON_ALPHA);
+        }
+
+        // 17 idle days: two whole weeks plus three days, then demand again
+        DemandForecastService.decayThrough(skipped, MONDAY.plusDays(18), ALPHA, SEASON_ALPHA);
+        DemandForecastService.observe(skipped, MONDAY.plusDays(19), 7, ALPHA, SEASON_ALPHA);
+        for (int day = 2; day <= 18; day++) {
+            DemandForecastService.observe(dayByDay, MONDAY.plusDays(day), 0, ALPHA, SEASON_ALPHA);
+        }
+        DemandForecastService.observe(dayByDay, MONDAY.plusDays(19), 7, ALPHA, SEASON_ALPHA);
+
+        assertThat(skipped.getSmoothedUnits()).isCloseTo(dayByDay.getSmoothedUnits(), within(1e-12));
+        assertThat(skipped.getWeight()).isCloseTo(dayByDay.getWeight(), within(1e-12));
+        for (int i = 0; i < 7; i++) {
+            assertThat(skipped.getWeekdayUnits()[i]).isCloseTo(dayByDay.getWeekdayUnits()[i], within(1e-12));
+            assertThat(skipped.getWeekdayWeights()[i]).isCloseTo(dayByDay.getWeekdayWeights()[i], within(1e-12));
+        }
+        assertThat(skipped.getLastDay()).isEqualTo(dayByDay.getLastDay());
+        assertThat(skipped.getTotalUnits()).isEqualTo(21);
+    }
+
+    @Test
+    void steadyDemandProjectsAtTheFlatRate() {
+        DemandForecast forecast = history(28, day -> 4);
+
+        DemandForecastDto small = DemandForecastService.project(forecast, 10, MONDAY, SEASON_ALPHA);
+        assertThat(small.weekdayFactors().values()).allSatisfy(f -> assertThat(f).isCloseTo(1, within(1e-9)));
+        assertThat(small.daysOfCover()).isCloseTo(2.5, within(1e-9));
+        assertThat(small.shortfallDate()).isEqualTo(MONDAY.plusDays(2));
+
+        DemandForecastDto large = DemandForecastService.project(forecast, 1002, MONDAY, SEASON_ALPHA);
+        assertThat(large.daysOfCover()).isCloseTo(250.5, within(1e-6));
+        assertThat(large.shortfallDate()).isEqualTo(MONDAY.plusDays(250));
+    }
+
+    @Test
+    void theWeeklyProfileWaitsForTwoSightingsOfEveryWeekday() {
+        // Saturday-only demand, but only ten days of it
+        DemandForecast forecast = history(10, day -> day % 7 == 5 ? 14 : 0);
+
+        assertThat(DemandForecastService.weekdayFactors(forecast, SEASON_ALPHA)).containsOnly(1.0);
+    }
+
+    @Test
+    void weekendDemandMovesTheShortfallToTheWeekend() {
+        DemandForecast forecast = history(8 * 7, day -> day % 7 == 5 ? 14 : 0);
+        double rate = forecast.dailyRate();
+
+        DemandForecastDto dto = DemandForecastService.project(forecast, 5, MONDAY, SEASON_ALPHA);
+
+        assertThat(dto.weekdayFactors().get(DayOfWeek.SATURDAY)).isCloseTo(7, within(1e-9));
+        assertThat(dto.weekdayFactors().get(DayOfWeek.MONDAY)).isZero();
+        // a flat rate of about 2 a day would run out on Wednesday
+        assertThat(dto.shortfallDate()).isEqualTo(MONDAY.plusDays(5));
+        assertThat(dto.daysOfCover()).isCloseTo(5 + 5 / (7 * rate), within(1e-9));
+    }
+
+    @Test
+    void skippingWholeWeeksGivesTheSameShortfallAsWalkingEveryDay() {
+        DemandForecast forecast = history(8 * 7, day -> new int[] {3, 1, 0, 2, 6, 9, 4}[day % 7]);
+        double rate = forecast.dailyRate();
+        double[] factors = DemandForecastService.weekdayFactors(forecast, SEASON_ALPHA);
+
+        for (int units = 0; units <= 400; units += 7) {
+            for (LocalDate today = MONDAY; today.isBefore(MONDAY.plusDays(7)); today = today.plusDays(1)) {
+                double remaining = units;
+                LocalDate day = today;
+                while (rate * factors[day.getDayOfWeek().getValue() - 1] <= remaining) {
+                    remaining -= rate * factors[day.getDayOfWeek().getValue() - 1];
+                    day = day.plusDays(1);
+                }
+                assertThat(DemandForecastService.project(forecast, units, today, SEASON_ALPHA).shortfallDate())
+                        .as("%d units from %s", units, today)
+                        .isEqualTo(day);
+            }
+        }
+    }
+
+    @Test
+    void noDemandMeansNoShortfall() {
+        DemandForecastDto dto = DemandForecastService.project(new DemandForecast(), 3, MONDAY, SEASON_ALPHA);
+
+        assertThat(dto.dailyDemand()).isZero();
+        assertThat(dto.daysOfCover()).isNull();
+        assertThat(dto.shortfallDate()).isNull();
+    }
+
+    @Test
+    void aDayIsFoldedOnlyOnceItHasClosedAndTheGraceHasPassed() {
+        long hospital = hospital();
+        LocalDate day = LocalDate.of(2100, 3, 1);
+        approve(hospital, "A+", 3, day.atTime(9, 0));
+        approve(hospital, "A+", 2, day.atTime(23, 58));
+
+        refreshAt(day.atTime(23, 59));
+        assertThat(forecastRepository.findByHospitalId(hospital)).isEmpty();
+
+        refreshAt(day.plusDays(1).atTime(0, 5));
+        assertThat(forecastRepository.findByHospitalId(hospital)).isEmpty();
+
+        int folded = refreshAt(day.plusDays(1).atTime(0, 15));
+        assertThat(folded).isPositive();
+        DemandForecast forecast = forecastRepository.findByHospitalId(hospital).get(0);
+        assertThat(forecast.getTotalUnits()).isEqualTo(5);
+        assertThat(forecast.getFirstDay()).isEqualTo(day);
+        assertThat(forecast.getLastDay()).isEqualTo(day);
+        assertThat(forecast.dailyRate()).isCloseTo(5, within(1e-9));
+
+        // a second run the same night has nothing to do
+        assertThat(refreshAt(day.plusDays(1).atTime(3, 0))).isZero();
+        assertThat(forecastRepository.findByHospitalId(hospital).get(0).getTotalUnits()).isEqualTo(5);
+    }
+
+    @Test
+    void laterRunsFoldTheNewDaysAndDecayTheIdleOnes() {
+        long hospital = hospital();
+        LocalDate day = LocalDate.of(2100, 6, 7);
+        approve(hospital, "O-", 4, day.atTime(12, 0));
+        refreshAt(day.plusDays(1).atTime(1, 0));
+
+        approve(hospital, "O-", 6, day.plusDays(3).atTime(12, 0));
+        refreshAt(day.plusDays(10).atTime(1, 0));
+
+        DemandForecast expected = new DemandForecast();
+        DemandForecastService.observe(expected, day, 4, ALPHA, SEASON_ALPHA);
+        DemandForecastService.observe(expected, day.plusDays(3), 6, ALPHA, SEASON_ALPHA);
+        DemandForecastService.decayThrough(expected, day.plusDays(9), ALPHA, SEASON_ALPHA);
+        DemandForecast forecast = forecastRepository.findByHospitalId(hospital).get(0);
+        assertThat(forecast.getLastDay()).isEqualTo(day.plusDays(9));
+        assertThat(forecast.getTotalUnits()).isEqualTo(10);
+        assertThat(forecast.dailyRate()).isCloseTo(expected.dailyRate(), within(1e-9));
+        assertThat(forecast.getWeekdayUnits()).containsExactly(expected.getWeekdayUnits(), within(1e-9));
+    }
+
+    @Test
+    void forecastsProjectFromTheLiveLedgerAndTheClocksToday() {
+        long hospital = hospital();
+        LocalDate day = LocalDate.of(2100, 9, 6);
+        for (int i = 0; i < 5; i++) {
+            approve(hospital, "B+", 2, day.plusDays(i).atTime(10, 0));
+        }
+        stockService.set(hospital, Map.of("B+", 7));
+        LocalDateTime now = day.plusDays(5).atTime(8, 0);
+        refreshAt(now);
+
+        DemandForecastDto dto = service(now).forecasts(hospital).get(0);
+
+        assertThat(dto.unitsOnHand()).isEqualTo(7);
+        assertThat(dto.dailyDemand()).isCloseTo(2, within(1e-9));
+        assertThat(dto.daysOfCover()).isCloseTo(3.5, within(1e-9));
+        assertThat(dto.shortfallDate()).isEqualTo(now.toLocalDate().plusDays(3));
+        assertThat(dto.observedThrough()).isEqualTo(day.plusDays(4));
+    }
+
+    // Consecutive days of demand from MONDAY, units by day index
+    private static DemandForecast history(int days, IntUnaryOperator units) {
+        DemandForecast forecast = new DemandForecast();
+        for (int day = 0; day < days; day++) {
+            DemandForecastService.observe(forecast, MONDAY.plusDays(day), units.applyAsInt(day), ALPHA, SEASON_ALPHA);
+        }
+        return forecast;
+    }
+
+    private long hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setName("Forecast test hospital");
+        hospital.setLocation("Nowhere");
+        return hospitalRepository.save(hospital).getId();
+    }
+
+    private void approve(long hospital, String bloodGroup, int units, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO stock_movements (hospital_id, blood_group, delta, balance_after, reason, created_at) "
+                + "VALUES (?, ?, ?, 0, 'APPROVAL', ?)", hospital, bloodGroup, -units, at);
+    }
+
+    private int refreshAt(LocalDateTime now) {
+        DemandForecastService service = service(now);
+        // refresh() locks the table, which needs the transaction its proxy would normally open
+        return transactionTemplate.execute(status -> service.refresh());
+    }
+
+    private DemandForecastService service(LocalDateTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new DemandForecastService(forecastRepository, stockRepository, jdbcTemplate,
+                Clock.fixed(now.atZone(zone).toInstant(), zone), 28, 8, Duration.ofMinutes(10));
+    }
+}
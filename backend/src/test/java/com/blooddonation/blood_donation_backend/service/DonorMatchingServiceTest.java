@@ -0,0 +1,92 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blooddonation.blood_donation_backend.dto.CursorPage;
+import com.blooddonation.blood_donation_backend.dto.DonorMatchDto;
+import com.blooddonation.blood_donation_backend.dto.UserProfileDto;
+import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
+import com.blooddonation.blood_donation_backend.repository.UserRepository;
+
+class DonorMatchingServiceTest {
+
+    private final DonorIndex index = new DonorIndex();
+    private DonorMatchingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DonorMatchingService(index, mock(UserRepository.class), mock(BloodRequestRepository.class));
+        ReflectionTestUtils.setField(service, "defaultLimit", 50);
+        ReflectionTestUtils.setField(service, "maxLimit", 5);
+    }
+
+    @Test
+    void donorsOfGroupArePagedWithoutLosingAnyone() {
+        for (long id = 12; id >= 1; id--) {
+            donor(id, "A+", "Pune");
+        }
+        donor(100L, "B+", "Pune");
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<UserProfileDto> page = service.donorsOfGroup("a+", cursor, null);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(5);
+            page.items().forEach(d -> seen.add(d.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L);
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        for (long id = 1; id <= 5; id++) {
+            donor(id, "O-", null);
+        }
+        assertThat(service.donorsOfGroup("O-", null, null).nextCursor()).isNull();
+        assertThat(service.donorsOfGroup("O-", null, 2).nextCursor()).isEqualTo("2");
+    }
+
+    @Test
+    void badInputIsRejected() {
+        assertThatThrownBy(() -> service.donorsOfGroup("Q+", null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.donorsOfGroup("A+", "abc", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownRequestIsNotFound() {
+        assertThatThrownBy(() -> service.matchForRequest(42L, null))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("42");
+    }
+
+    @Test
+    void matchPrefersLocalDonorsThenTheClosestGroup() {
+        donor(1L, "O-", "Pune");
+        donor(2L, "A+", "Mumbai");
+        donor(3L, "A-", "Pune");
+        donor(4L, "B+", "Pune"); // cannot give to A+
+
+        List<DonorMatchDto> matches = service.match("A+", "pune", 10);
+
+        assertThat(matches).extracting(DonorMatchDto::id).containsExactly(3L, 1L, 2L);
+    }
+
+    private void donor(Long id, String group, String location) {
+        index.put(DonorIndex.entryFor(id, "Donor " + id, id + "@x.org", "DONOR", group, location, null, null));
+    }
+}
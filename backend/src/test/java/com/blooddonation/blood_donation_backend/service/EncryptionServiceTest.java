@@ -0,0 +1,114 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EncryptionServiceTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+
+    @Test
+    void encryptsWithGcmAndDecryptsBack() throws Exception {
+        EncryptionService service = service(KEY);
+
+        String encrypted = service.encrypt("1234 5678 9012");
+
+        assertThat(encrypted).startsWith("v2:").doesNotContain("1234");
+        assertThat(service.decrypt(encrypted)).isEqualTo("1234 5678 9012");
+        assertThat(service.decrypt(service.encrypt(""))).isEmpty();
+    }
+
+    @Test
+    void everyEncryptionUsesAFreshIv() throws Exception {
+        EncryptionService service = service(KEY);
+
+        assertThat(service.encrypt("same value")).isNotEqualTo(service.encrypt("same value"));
+    }
+
+    @Test
+    void tamperedCiphertextIsRejected() throws Exception {
+        EncryptionService service = service(KEY);
+        byte[] encrypted = service.encryptBytes("blood group O-".getBytes(StandardCharsets.UTF_8));
+
+        encrypted[encrypted.length / 2] ^= 1;
+
+        assertThatThrownBy(() -> service.decryptBytes(encrypted)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> service.decryptBytes(new byte[5])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void anotherKeyCannotDecrypt() throws Exception {
+        String encrypted = service(KEY).encrypt("secret");
+
+        assertThatThrownBy(() -> service("fedcba9876543210fedcba9876543210").decrypt(encrypted))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void readsValuesWrittenByTheLegacyEcbScheme() throws Exception {
+        Cipher ecb = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        ecb.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+        String legacy = Base64.getEncoder().encodeToString(ecb.doFinal("old patient note".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(service(KEY).decrypt(legacy)).isEqualTo("old patient note");
+    }
+
+    @Test
+    void keysOfOtherLengthsAreStretchedAndHaveNoLegacyFallback() throws Exception {
+        EncryptionService service = service("short key");
+
+        assertThat(service.decrypt(service.encrypt("value"))).isEqualTo("value");
+        assertThatThrownBy(() -> service.decrypt("AAAAAAAAAAAAAAAAAAAAAA==")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void batchesRoundTrip() throws Exception {
+        EncryptionService service = service(KEY);
+        List<byte[]> plain = List.of("a".getBytes(StandardCharsets.UTF_8), new byte[0], new byte[1000]);
+
+        assertThat(service.decryptAll(service.encryptAll(plain))).containsExactlyElementsOf(plain);
+    }
+
+    @Test
+    void blindIndexIsDeterministicAndKeyed() throws Exception {
+        EncryptionService service = service(KEY);
+
+        assertThat(service.blindIndex("123456789012")).isEqualTo(service.blindIndex("123456789012")).hasSize(64);
+        assertThat(service.blindIndex("123456789012")).isNotEqualTo(service.blindIndex("123456789013"));
+
+        EncryptionService otherIndexKey = new EncryptionService();
+        ReflectionTestUtils.setField(otherIndexKey, "encryptionKey", KEY);
+        ReflectionTestUtils.setField(otherIndexKey, "blindIndexKey", "another-blind-index-key");
+        otherIndexKey.initKeys();
+        assertThat(otherIndexKey.blindIndex("123456789012")).isNotEqualTo(service.blindIndex("123456789012"));
+    }
+
+    @Test
+    void aMissingBlindIndexKeyFailsStartup() {
+        EncryptionService service = new EncryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", KEY);
+        ReflectionTestUtils.setField(service, "blindIndexKey", "");
+
+        assertThatThrownBy(service::initKeys)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bloodcare.blind-index.key");
+    }
+
+    private static EncryptionService service(String key) throws Exception {
+        EncryptionService service = new EncryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", key);
+        ReflectionTestUtils.setField(service, "blindIndexKey", "test-blind-index-key");
+        service.initKeys();
+        return service;
+    }
+}
@@ -0,0 +1,102 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class GeoGridTest {
+
+    private record Place(long id, double latitude, double longitude, boolean open) {}
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(42);
+        for (double cellDegrees : new double[] {0.05, 0.5, 2.0}) {
+            // a dense city plus scattered points, including high latitudes where cells narrow
+            List<Place> places = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                places.add(new Place(i, 18.5 + random.nextGaussian() * 0.2, 73.8 + random.nextGaussian() * 0.2,
+                        random.nextBoolean()));
+            }
+            for (int i = 400; i < 800; i++) {
+                places.add(new Place(i, -80 + random.nextDouble() * 160, -170 + random.nextDouble() * 340,
+                        random.nextBoolean()));
+            }
+            GeoGrid<Place> grid = new GeoGrid<>(cellDegrees);
+            places.forEach(p -> grid.put(p.id(), p.latitude(), p.longitude(), p));
+
+            for (int q = 0; q < 200; q++) {
+                double latitude = q % 2 == 0 ? 18.5 + random.nextGaussian() * 0.3 : -75 + random.nextDouble() * 150;
+                double longitude = q % 2 == 0 ? 73.8 + random.nextGaussian() * 0.3 : -160 + random.nextDouble() * 320;
+                int k = 1 + random.nextInt(10);
+                double maxKm = q % 3 == 0 ? 25 : 400;
+                Predicate<Place> filter = q % 4 == 0 ? Place::open : null;
+
+                assertThat(ids(grid.nearest(latitude, longitude, k, maxKm, filter)))
+                        .as("cell %s, query (%s, %s), k %s, max %s km", cellDegrees, latitude, longitude, k, maxKm)
+                        .isEqualTo(bruteForce(places, latitude, longitude, k, maxKm, filter));
+            }
+        }
+    }
+
+    @Test
+    void hitsAreSortedAndCarryTheirDistance() {
+        GeoGrid<String> grid = new GeoGrid<>(0.1);
+        grid.put(1, 18.52, 73.85, "near");
+        grid.put(2, 18.60, 73.90, "farther");
+        grid.put(3, 19.07, 72.88, "far");
+
+        List<GeoGrid.Hit<String>> hits = grid.nearest(18.52, 73.86, 3, 500, null);
+
+        assertThat(hits).extracting(GeoGrid.Hit::value).containsExactly("near", "farther", "far");
+        assertThat(hits.get(2).distanceKm()).isCloseTo(GeoGrid.distanceKm(18.52, 73.86, 19.07, 72.88),
+                offset(1e-9));
+    }
+
+    @Test
+    void putMovesAPointAndRemoveDropsIt() {
+        GeoGrid<String> grid = new GeoGrid<>(0.1);
+        grid.put(1, 10, 10, "a");
+        grid.put(1, 50, 50, "a");
+
+        assertThat(grid.size()).isEqualTo(1);
+        assertThat(grid.nearest(10, 10, 1, 100, null)).isEmpty();
+        assertThat(grid.nearest(50, 50, 1, 100, null)).extracting(GeoGrid.Hit::id).containsExactly(1L);
+
+        grid.remove(1);
+        assertThat(grid.size()).isZero();
+        assertThat(grid.nearest(50, 50, 1, 100, null)).isEmpty();
+    }
+
+    @Test
+    void distanceIsHaversine() {
+        // Pune to Mumbai, roughly 120 km
+        assertThat(GeoGrid.distanceKm(18.5204, 73.8567, 19.0760, 72.8777)).isBetween(115.0, 125.0);
+        assertThat(GeoGrid.distanceKm(0, 0, 0, 0)).isZero();
+        assertThat(GeoGrid.isValid(91.0, 0.0)).isFalse();
+        assertThat(GeoGrid.isValid(null, 0.0)).isFalse();
+        assertThat(GeoGrid.isValid(-90.0, 180.0)).isTrue();
+    }
+
+    private static List<Long> ids(List<GeoGrid.Hit<Place>> hits) {
+        return hits.stream().map(GeoGrid.Hit::id).toList();
+    }
+
+    private static List<Long> bruteForce(List<Place> places, double latitude, double longitude, int k,
+                                         double maxKm, Predicate<Place> filter) {
+        return places.stream()
+                .filter(p -> filter == null || filter.test(p))
+                .filter(p -> GeoGrid.distanceKm(latitude, longitude, p.latitude(), p.longitude()) <= maxKm)
+                .sorted(Comparator.comparingDouble(p -> GeoGrid.distanceKm(latitude, longitude, p.latitude(), p.longitude())))
+                .limit(k)
+                .map(Place::id)
+                .toList();
+    }
+}
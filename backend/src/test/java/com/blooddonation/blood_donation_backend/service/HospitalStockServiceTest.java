@@ -0,0 +1,259 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.blooddonation.blood_donation_backend.model.HospitalStock;
+import com.blooddonation.blood_donation_backend.model.StockMovement;
+import com.blooddonation.blood_donation_backend.repository.HospitalStockRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * The stock ledger under concurrent writers, on a real database: no lost updates, no negative
+ * balances, and national totals that agree with the per-hospital rows.
+ */
+class HospitalStockServiceTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 12;
+    // the ledger keys on plain hospital ids; keep clear of seeded hospitals
+    private static final AtomicLong HOSPITAL_IDS = new AtomicLong(8_000_000);
+
+    @Autowired
+    private HospitalStockService stockService;
+
+    @Autowired
+    private HospitalStockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentAdjustmentsAreAllApplied() throws Exception {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(hospital, Map.of("A+", 100, "O-", 100, "B+", 100));
+
+        // half the writers name the groups in one order, half in the other; each adds 2 A+,
+        // takes 1 O- and adds 1 B+
+        List<Callable<Object>> writers = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Map<String, Integer> deltas = new LinkedHashMap<>();
+            if (i % 2 == 0) {
+                deltas.put("a+", 2);
+                deltas.put("O-", -1);
+                deltas.put("B_POS", 1);
+            } else {
+                deltas.put("B+", 1);
+                deltas.put("o -", -1);
+                deltas.put("A+", 2);
+            }
+            writers.add(() -> {
+                stockService.adjust(hospital, deltas);
+                return null;
+            });
+        }
+        race(writers);
+
+        assertThat(stockService.stockOf(hospital)).containsExactlyInAnyOrderEntriesOf(Map.of("A+", 220, "O-", 40, "B+", 160));
+        assertThat(journalSum(hospital)).isEqualTo(stockService.stockOf(hospital));
+    }
+
+    @Test
+    void racingConsumersTakeOnlyWhatIsOnHand() throws Exception {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(hospital, Map.of("AB-", 5));
+
+        List<Callable<Object>> consumers = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            long requestId = i;
+            consumers.add(() -> stockService.consume(hospital, "AB-", 1, requestId));
+        }
+        List<Object> results = race(consumers);
+
+        assertThat(results).filteredOn(Boolean.TRUE::equals).hasSize(5);
+        assertThat(stockService.stockOf(hospital)).containsEntry("AB-", 0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movements WHERE hospital_id = ? AND reason = 'APPROVAL'", Integer.class, hospital))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void aConsumptionLargerThanTheBalanceIsRejectedAndChangesNothing() {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(hospital, Map.of("B-", 3));
+
+        assertThat(stockService.consume(hospital, "B-", 4, 1L)).isFalse();
+        assertThat(stockService.consume(hospital, "O+", 1, 1L)).isFalse();
+
+        assertThat(stockService.stockOf(hospital)).containsExactlyEntriesOf(Map.of("B-", 3));
+        assertThat(journalSum(hospital)).containsExactlyEntriesOf(Map.of("B-", 3));
+    }
+
+    @Test
+    void negativeAdjustmentsStopAtZero() {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(hospital, Map.of("A-", 4, "O+", -7));
+
+        stockService.adjust(hospital, Map.of("A-", -10));
+
+        assertThat(stockService.stockOf(hospital)).containsEntry("A-", 0).containsEntry("O+", 0);
+        assertThat(stockRepository.findByHospitalId(hospital)).allSatisfy(row -> assertThat(row.getUnits()).isNotNegative());
+        // the journal records what was actually taken, not what was asked for
+        assertThat(journalSum(hospital)).containsEntry("A-", 0);
+    }
+
+    @Test
+    void nationalTotalsMatchThePerHospitalRows() throws Exception {
+        long first = HOSPITAL_IDS.incrementAndGet();
+        long second = HOSPITAL_IDS.incrementAndGet();
+        List<Callable<Object>> writers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long hospital = i % 2 == 0 ? first : second;
+            int n = i;
+            writers.add(() -> {
+                switch (n % 4) {
+                    case 0 -> stockService.adjust(hospital, Map.of("A+", 3, "O-", 1));
+                    case 1 -> stockService.consume(hospital, "A+", 2, (long) n);
+                    case 2 -> stockService.adjust(hospital, Map.of("O-", -2));
+                    default -> stockService.set(hospital, Map.of("AB+", n));
+                }
+                return null;
+            });
+        }
+        race(writers);
+        stockService.deleteForHospital(second);
+
+        assertThat(stockService.totalsByBloodGroup()).isEqualTo(ledgerTotals());
+    }
+
+    @Test
+    void replayingTheJournalReproducesTheLiveTotals() throws Exception {
+        long first = HOSPITAL_IDS.incrementAndGet();
+        long second = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(first, Map.of("A+", 12, "O-", 4));
+        stockService.set(second, Map.of("A+", 3, "B-", 9));
+        List<Callable<Object>> writers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long hospital = i % 2 == 0 ? first : second;
+            int n = i;
+            writers.add(() -> {
+                if (n % 3 == 0) {
+                    stockService.consume(hospital, "A+", 1, (long) n);
+                } else {
+                    stockService.adjust(hospital, Map.of("O-", n % 2 == 0 ? 2 : -1));
+                }
+                return null;
+            });
+        }
+        race(writers);
+        Map<String, Integer> live = stockService.totalsByBloodGroup();
+
+        // throw the projection off, then rebuild it from the journal alone
+        jdbcTemplate.update("UPDATE blood_stock_totals SET units = units + 1000");
+        Map<String, Integer> rebuilt = stockService.rebuildTotals();
+
+        assertThat(rebuilt).isEqualTo(live).isEqualTo(ledgerTotals());
+        assertThat(stockService.totalsByBloodGroup()).isEqualTo(live);
+    }
+
+    @Test
+    void eachHospitalsJournalEndsAtItsLedgerBalance() {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        stockService.set(hospital, Map.of("AB+", 6));
+        stockService.adjust(hospital, Map.of("AB+", 4));
+        stockService.consume(hospital, "AB+", 3, 99L);
+        stockService.adjust(hospital, Map.of("AB+", -20));
+
+        assertThat(stockService.movements(hospital, null, 1))
+                .singleElement()
+                .satisfies(latest -> assertThat(latest.getBalanceAfter()).isZero());
+        assertThat(stockService.movements(hospital, null, null))
+                .extracting(StockMovement::getDelta)
+                .containsExactly(-7, -3, 4, 6);
+    }
+
+    @Test
+    void movementsPageNewestFirstWithAndWithoutAHospital() {
+        long hospital = HOSPITAL_IDS.incrementAndGet();
+        for (int i = 1; i <= 7; i++) {
+            stockService.adjust(hospital, Map.of("O+", i));
+        }
+
+        List<StockMovement> firstPage = stockService.movements(hospital, null, 3);
+        List<StockMovement> secondPage = stockService.movements(hospital, firstPage.get(2).getId(), 3);
+        List<StockMovement> lastPage = stockService.movements(hospital, secondPage.get(2).getId(), 3);
+
+        assertThat(firstPage).extracting(StockMovement::getDelta).containsExactly(7, 6, 5);
+        assertThat(secondPage).extracting(StockMovement::getDelta).containsExactly(4, 3, 2);
+        assertThat(lastPage).extracting(StockMovement::getDelta).containsExactly(1);
+
+        // across hospitals the newest movement overall comes first
+        List<StockMovement> everywhere = stockService.movements(null, null, 2);
+        assertThat(everywhere.get(0).getId()).isGreaterThan(everywhere.get(1).getId())
+                .isGreaterThanOrEqualTo(firstPage.get(0).getId());
+        assertThat(stockService.movements(null, firstPage.get(0).getId(), 1))
+                .singleElement()
+                .satisfies(m -> assertThat(m.getId()).isEqualTo(firstPage.get(1).getId()));
+    }
+
+    // Run every task at once and return their results in submission order
+    private List<Object> race(List<Callable<Object>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<Object> task : tasks) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private Map<String, Integer> journalSum(long hospital) {
+        Map<String, Integer> sums = new TreeMap<>();
+        jdbcTemplate.query("SELECT blood_group, SUM(delta) AS units FROM stock_movements WHERE hospital_id = ? GROUP BY blood_group",
+                rs -> {
+                    sums.put(rs.getString("blood_group"), rs.getInt("units"));
+                }, hospital);
+        return sums;
+    }
+
+    // Units per blood group added up over every hospital's ledger rows; groups with no rows left are
+    // still listed by the totals (at zero), so they are listed here too
+    private Map<String, Integer> ledgerTotals() {
+        Map<String, Integer> totals = new TreeMap<>();
+        stockService.totalsByBloodGroup().keySet().forEach(group -> totals.put(group, 0));
+        for (HospitalStock row : stockRepository.findAll()) {
+            totals.merge(row.getBloodGroup(), row.getUnits(), Integer::sum);
+        }
+        return totals;
+    }
+}
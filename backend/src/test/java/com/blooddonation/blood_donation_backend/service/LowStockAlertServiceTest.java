@@ -0,0 +1,70 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.blooddonation.blood_donation_backend.model.BloodGroup;
+import com.blooddonation.blood_donation_backend.model.Hospital;
+import com.blooddonation.blood_donation_backend.repository.HospitalRepository;
+
+class LowStockAlertServiceTest {
+
+    private final DonorIndex index = new DonorIndex();
+
+    @Test
+    void donorsAreNotifiedNearestFirstThenByLocation() {
+        donor(1L, "O-", "Pune", 18.60, 73.90);   // ~10 km
+        donor(2L, "A+", "Pune", 18.52, 73.86);   // next door
+        donor(3L, "A+", "Pune", null, null);     // no coordinates, same location
+        donor(4L, "A+", "Mumbai", null, null);
+        donor(5L, "A+", "Mumbai", 19.07, 72.88); // ~120 km, beyond maxKm
+        donor(6L, "B+", "Pune", 18.52, 73.86);   // cannot give to A+
+
+        assertThat(service(10).recipients(BloodGroup.A_POS, hospital(18.52, 73.85)))
+                .containsExactly(2L, 1L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void withoutCoordinatesTheHospitalsLocationComesFirst() {
+        donor(1L, "A+", "Mumbai", 18.52, 73.86);
+        donor(2L, "A+", "Pune", null, null);
+
+        assertThat(service(10).recipients(BloodGroup.A_POS, hospital(null, null))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void recipientsAreCappedWithoutLosingSlotsToOverlap() {
+        for (long id = 1; id <= 4; id++) {
+            donor(id, "A+", "Pune", 18.52 + id / 100.0, 73.85);
+        }
+        donor(5L, "A+", "Pune", null, null);
+
+        assertThat(service(3).recipients(BloodGroup.A_POS, hospital(18.52, 73.85))).containsExactly(1L, 2L, 3L);
+        assertThat(service(5).recipients(BloodGroup.A_POS, hospital(18.52, 73.85))).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private LowStockAlertService service(int maxRecipients) {
+        return new LowStockAlertService(index, mock(HospitalRepository.class), mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), 5, 10, maxRecipients, 100, Duration.ofHours(6));
+    }
+
+    private static Hospital hospital(Double latitude, Double longitude) {
+        Hospital hospital = new Hospital();
+        hospital.setId(1L);
+        hospital.setName("City Hospital");
+        hospital.setLocation("Pune");
+        hospital.setLatitude(latitude);
+        hospital.setLongitude(longitude);
+        return hospital;
+    }
+
+    private void donor(Long id, String group, String location, Double latitude, Double longitude) {
+        index.put(DonorIndex.entryFor(id, "Donor " + id, id + "@x.org", "DONOR", group, location, latitude, longitude));
+    }
+}
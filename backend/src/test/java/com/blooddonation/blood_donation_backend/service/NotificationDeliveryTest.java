@@ -0,0 +1,149 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.blooddonation.blood_donation_backend.model.DeliveryStatus;
+import com.blooddonation.blood_donation_backend.model.Notfication;
+import com.blooddonation.blood_donation_backend.model.User;
+import com.blooddonation.blood_donation_backend.repository.NotificationRepository;
+import com.blooddonation.blood_donation_backend.repository.UserRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * The outbox delivered through the mail transport to a local SMTP stand-in (GreenMail)
+ */
+class NotificationDeliveryTest extends PostgresIntegrationTest {
+
+    @RegisterExtension
+    static final GreenMailExtension SMTP = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcherOn(SMTP.getSmtp().getPort());
+    }
+
+    @Test
+    void pendingNotificationsAreMailedInBatchesAndMarkedSent() throws Exception {
+        List<Notfication> pending = List.of(pending(donor()), pending(donor()), pending(donor()),
+                pending(donor()), pending(donor()));
+
+        dispatcher.dispatch();
+
+        assertThat(SMTP.waitForIncomingEmail(5_000, 5)).isTrue();
+        List<String> recipients = Arrays.stream(SMTP.getReceivedMessages()).map(NotificationDeliveryTest::recipient).toList();
+        for (Notfication n : pending) {
+            Notfication after = notificationRepository.findById(n.getId()).orElseThrow();
+            assertThat(after.getDeliveryStatus()).isEqualTo(DeliveryStatus.SENT);
+            assertThat(after.getDeliveryAttempts()).isEqualTo(1);
+            assertThat(after.getSentAt()).isNotNull();
+            assertThat(recipients).contains(userRepository.findById(n.getUserId()).orElseThrow().getEmail());
+        }
+        MimeMessage first = SMTP.getReceivedMessages()[0];
+        assertThat(first.getSubject()).isEqualTo("Urgent: blood stock is running low near you");
+        assertThat(first.getFrom()[0].toString()).isEqualTo("no-reply@bloodcare.test");
+    }
+
+    @Test
+    void anUnreachableServerLeavesTheRowsPendingWithBackoff() throws Exception {
+        Notfication n = pending(donor());
+        int closedPort = SMTP.getSmtp().getPort();
+        SMTP.stop();
+        try {
+            dispatcherOn(closedPort).dispatch();
+        } finally {
+            SMTP.start();
+        }
+
+        Notfication after = notificationRepository.findById(n.getId()).orElseThrow();
+        assertThat(after.getDeliveryStatus()).isEqualTo(DeliveryStatus.PENDING);
+        assertThat(after.getDeliveryAttempts()).isEqualTo(1);
+        assertThat(after.getLastError()).isNotBlank();
+        assertThat(after.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(10));
+    }
+
+    @Test
+    void oneBadAddressDoesNotHoldBackTheRestOfTheBatch() throws Exception {
+        Notfication good = pending(donor());
+        Notfication bad = pending(donorWithEmail("not an address"));
+        Notfication alsoGood = pending(donor());
+
+        dispatcher.dispatch();
+
+        assertThat(status(good)).isEqualTo(DeliveryStatus.SENT);
+        assertThat(status(alsoGood)).isEqualTo(DeliveryStatus.SENT);
+        assertThat(status(bad)).isEqualTo(DeliveryStatus.PENDING);
+    }
+
+    private NotificationDispatcher dispatcherOn(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        // batch size 2 with 2 senders: five rows take several transport batches
+        return new NotificationDispatcher(new MailNotificationTransport(sender, "no-reply@bloodcare.test"), jdbcTemplate,
+                2, 2, 3, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(1));
+    }
+
+    private User donor() {
+        return donorWithEmail("donor" + USERS.incrementAndGet() + "-" + System.nanoTime() + "@bloodcare.test");
+    }
+
+    private User donorWithEmail(String email) {
+        return userRepository.save(User.builder().name("Donor").email(email).password("x")
+                .role("DONOR").bloodGroup("O-").build());
+    }
+
+    private Notfication pending(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        return notificationRepository.save(Notfication.builder()
+                .userId(user.getId())
+                .type(Notfication.TYPE_LOW_STOCK)
+                .message("O- is running low at City Hospital")
+                .createdAt(now)
+                .deliveryStatus(DeliveryStatus.PENDING)
+                .deliveryAttempts(0)
+                .nextAttemptAt(now.minusSeconds(1))
+                .build());
+    }
+
+    private DeliveryStatus status(Notfication n) {
+        return notificationRepository.findById(n.getId()).orElseThrow().getDeliveryStatus();
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (jakarta.mail.MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
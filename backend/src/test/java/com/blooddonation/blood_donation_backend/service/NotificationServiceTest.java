@@ -0,0 +1,94 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.blooddonation.blood_donation_backend.model.DeliveryStatus;
+import com.blooddonation.blood_donation_backend.model.Notfication;
+import com.blooddonation.blood_donation_backend.repository.NotificationRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+class NotificationServiceTest extends PostgresIntegrationTest {
+
+    // inbox rows key on plain user ids; keep clear of real users
+    private static final AtomicLong USER_IDS = new AtomicLong(7_000_000);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void pagesRunNewestFirstAndResumeBeforeTheLastId() {
+        long user = USER_IDS.incrementAndGet();
+        List<Long> ids = inbox(user, 5);
+
+        List<Notfication> first = notificationService.list(user, null, false, 2);
+        List<Notfication> second = notificationService.list(user, first.get(1).getId(), false, 2);
+        List<Notfication> third = notificationService.list(user, second.get(1).getId(), false, 2);
+
+        assertThat(first).extracting(Notfication::getId).containsExactly(ids.get(4), ids.get(3));
+        assertThat(second).extracting(Notfication::getId).containsExactly(ids.get(2), ids.get(1));
+        assertThat(third).extracting(Notfication::getId).containsExactly(ids.get(0));
+    }
+
+    @Test
+    void unreadOnlySkipsReadNotificationsWithAndWithoutACursor() {
+        long user = USER_IDS.incrementAndGet();
+        List<Long> ids = inbox(user, 5);
+        notificationService.markRead(user, ids.get(3));
+        notificationService.markRead(user, ids.get(1));
+
+        assertThat(notificationService.list(user, null, true, 10)).extracting(Notfication::getId)
+                .containsExactly(ids.get(4), ids.get(2), ids.get(0));
+        assertThat(notificationService.list(user, ids.get(4), true, 10)).extracting(Notfication::getId)
+                .containsExactly(ids.get(2), ids.get(0));
+        assertThat(notificationService.unreadCount(user)).isEqualTo(3);
+    }
+
+    @Test
+    void markingReadTwiceSucceedsAndKeepsTheFirstReadTime() {
+        long user = USER_IDS.incrementAndGet();
+        Long id = inbox(user, 1).get(0);
+
+        assertThat(notificationService.markRead(user, id)).isTrue();
+        LocalDateTime readAt = notificationRepository.findById(id).orElseThrow().getReadAt();
+        assertThat(notificationService.markRead(user, id)).isTrue();
+
+        assertThat(notificationRepository.findById(id).orElseThrow().getReadAt()).isEqualTo(readAt);
+    }
+
+    @Test
+    void anotherUsersOrAMissingNotificationIsNotFound() {
+        long owner = USER_IDS.incrementAndGet();
+        long other = USER_IDS.incrementAndGet();
+        Long id = inbox(owner, 1).get(0);
+
+        assertThat(notificationService.markRead(other, id)).isFalse();
+        assertThat(notificationService.markRead(owner, Long.MAX_VALUE)).isFalse();
+        assertThat(notificationRepository.findById(id).orElseThrow().getReadAt()).isNull();
+    }
+
+    // n inbox entries, oldest first; already delivered so the outbox leaves them alone
+    private List<Long> inbox(long user, int n) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(notificationRepository.save(Notfication.builder()
+                    .userId(user)
+                    .type(Notfication.TYPE_LOW_STOCK)
+                    .message("message " + i)
+                    .createdAt(LocalDateTime.now())
+                    .deliveryStatus(DeliveryStatus.SENT)
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,157 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blooddonation.blood_donation_backend.dto.PatientEnrollmentRequestDto;
+import com.blooddonation.blood_donation_backend.model.Patient;
+import com.blooddonation.blood_donation_backend.repository.MedicalRecordRepository;
+import com.blooddonation.blood_donation_backend.repository.PatientRepository;
+
+class PatientServiceTest {
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private EncryptionService encryptionService;
+    private FingerprintIndex fingerprintIndex;
+    private PatientService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        encryptionService = new EncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "encryptionKey", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(encryptionService, "blindIndexKey", "test-blind-index-key");
+        encryptionService.initKeys();
+        fingerprintIndex = new FingerprintIndex(encryptionService);
+        service = new PatientService(patientRepository, mock(MedicalRecordRepository.class), encryptionService,
+                fingerprintIndex);
+    }
+
+    @Test
+    void backfillHashesTheNormalizedNumber() {
+        Patient patient = patient("1234 5678-9012");
+        when(patientRepository.findByAadhaarNumberIsNotNullAndAadhaarHashIsNull()).thenReturn(List.of(patient));
+        when(patientRepository.findTakenAadhaarHashes(anyCollection())).thenReturn(List.of());
+
+        service.backfillAadhaarHashes();
+
+        assertThat(patient.getAadhaarHash()).isEqualTo(encryptionService.blindIndex("123456789012"));
+    }
+
+    @Test
+    void collidingNumbersAreLeftWithoutABlindIndex() {
+        Patient spaced = patient("1234 5678 9012");
+        Patient hyphenated = patient("1234-5678-9012");
+        Patient other = patient("999988887777");
+        when(patientRepository.findByAadhaarNumberIsNotNullAndAadhaarHashIsNull())
+                .thenReturn(List.of(spaced, hyphenated, other));
+        when(patientRepository.findTakenAadhaarHashes(anyCollection())).thenReturn(List.of());
+
+        service.backfillAadhaarHashes();
+
+        assertThat(spaced.getAadhaarHash()).isNull();
+        assertThat(hyphenated.getAadhaarHash()).isNull();
+        assertThat(other.getAadhaarHash()).isNotNull();
+    }
+
+    @Test
+    void numberAlreadyIndexedForAnotherPatientIsSkipped() {
+        Patient patient = patient("123456789012");
+        when(patientRepository.findByAadhaarNumberIsNotNullAndAadhaarHashIsNull()).thenReturn(List.of(patient));
+        when(patientRepository.findTakenAadhaarHashes(anyCollection()))
+                .thenReturn(List.of(encryptionService.blindIndex("123456789012")));
+
+        service.backfillAadhaarHashes();
+
+        assertThat(patient.getAadhaarHash()).isNull();
+    }
+
+    @Test
+    void blankNumbersAreIgnored() {
+        Patient patient = patient(" - ");
+        when(patientRepository.findByAadhaarNumberIsNotNullAndAadhaarHashIsNull()).thenReturn(List.of(patient));
+
+        service.backfillAadhaarHashes();
+
+        assertThat(patient.getAadhaarHash()).isNull();
+    }
+
+    @Test
+    void aTemplateStoredTwiceStaysWithTheFirstPatient() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unreadable = UUID.randomUUID();
+        when(patientRepository.streamFingerprintTemplates()).thenReturn(Stream.of(
+                template(first, encryptionService.encrypt("tmpl")),
+                template(unreadable, "not-ciphertext"),
+                template(second, encryptionService.encrypt("tmpl"))));
+
+        service.loadFingerprintIndex();
+
+        assertThat(fingerprintIndex.size()).isEqualTo(1);
+        assertThat(fingerprintIndex.find("tmpl")).contains(first);
+    }
+
+    @Test
+    void enrollingAnEnrolledFingerprintIsRejected() {
+        byte[] image = {1, 2, 3, 4};
+        fingerprintIndex.put(Base64.getEncoder().encodeToString(image), UUID.randomUUID());
+
+        assertThatThrownBy(() -> service.enrollPatient(
+                new PatientEnrollmentRequestDto.PatientDto("A", "555", null, "O+", null, null),
+                new PatientEnrollmentRequestDto.MedicalRecordDto(),
+                new MockMultipartFile("fingerprint", image)))
+                .hasMessageContaining("fingerprint already exists");
+        verify(patientRepository, never()).save(any());
+    }
+
+    @Test
+    void scanUsesTheIndexNormalizationToConfirm() {
+        byte[] image = {9, 8, 7};
+        String template = Base64.getEncoder().encodeToString(image);
+        Patient patient = patient(null);
+        patient.setFingerprintTemplate(encryptionService.encrypt(template + "\n"));
+        fingerprintIndex.put(" " + template, patient.getId());
+        when(patientRepository.findById(patient.getId())).thenReturn(Optional.of(patient));
+
+        assertThat(service.scanFingerprint(new MockMultipartFile("fingerprint", image)).getPatient().getId())
+                .isEqualTo(patient.getId());
+    }
+
+    private static PatientRepository.FingerprintTemplateView template(UUID id, String encrypted) {
+        return new PatientRepository.FingerprintTemplateView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getFingerprintTemplate() {
+                return encrypted;
+            }
+        };
+    }
+
+    private static Patient patient(String aadhaarNumber) {
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID());
+        patient.setAadhaarNumber(aadhaarNumber);
+        return patient;
+    }
+}
@@ -0,0 +1,58 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.repository.ReportCounterRepository;
+
+class ReportCounterServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ReportCounterService service = new ReportCounterService(
+            mock(ReportCounterRepository.class), mock(HospitalStockService.class), jdbcTemplate);
+
+    @Test
+    void createdRequestCountsTowardsTotalAndStatus() {
+        service.onRequestLifecycle(RequestLifecycleEvent.created(request("PENDING")));
+
+        verify(jdbcTemplate).update(anyString(), eq(ReportCounterService.REQUESTS_TOTAL), eq(1L));
+        verify(jdbcTemplate).update(anyString(), eq("requests.status.PENDING"), eq(1L));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void statusChangeMovesTheRequestBetweenStatuses() {
+        service.onRequestLifecycle(RequestLifecycleEvent.statusChanged(request("APPROVED"), "PENDING", LocalDateTime.now()));
+
+        verify(jdbcTemplate).update(anyString(), eq("requests.status.PENDING"), eq(-1L));
+        verify(jdbcTemplate).update(anyString(), eq("requests.status.APPROVED"), eq(1L));
+        verify(jdbcTemplate, never()).update(anyString(), eq(ReportCounterService.REQUESTS_TOTAL), anyLong());
+    }
+
+    @Test
+    void statusChangeOnALegacyRowWithoutStatusIsNotANewRequest() {
+        service.onRequestLifecycle(RequestLifecycleEvent.statusChanged(request("APPROVED"), null, LocalDateTime.now()));
+
+        verify(jdbcTemplate).update(anyString(), eq("requests.status.APPROVED"), eq(1L));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    private static BloodRequest request(String status) {
+        BloodRequest request = new BloodRequest();
+        request.setStatus(status);
+        request.setBloodGroup("A+");
+        request.setRequestedAt(LocalDateTime.now());
+        return request;
+    }
+}
@@ -0,0 +1,39 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RequestExportServiceTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertThat(RequestExportService.csvField("Ravi Kumar")).isEqualTo("Ravi Kumar");
+        assertThat(RequestExportService.csvField("A+")).isEqualTo("A+");
+        assertThat(RequestExportService.csvField(null)).isEmpty();
+        assertThat(RequestExportService.csvField("")).isEmpty();
+    }
+
+    @Test
+    void leadingFormulaCharactersAreNeutralized() {
+        assertThat(RequestExportService.csvField("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(RequestExportService.csvField("+91 98765")).isEqualTo("'+91 98765");
+        assertThat(RequestExportService.csvField("-2+3")).isEqualTo("'-2+3");
+        assertThat(RequestExportService.csvField("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(RequestExportService.csvField("\t=1")).isEqualTo("'\t=1");
+        assertThat(RequestExportService.csvField("\r=1")).isEqualTo("\"'\r=1\"");
+    }
+
+    @Test
+    void formulaCharactersAfterTheFirstAreLeftAlone() {
+        assertThat(RequestExportService.csvField("O-")).isEqualTo("O-");
+        assertThat(RequestExportService.csvField("a=b")).isEqualTo("a=b");
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() {
+        assertThat(RequestExportService.csvField("Pune, MH")).isEqualTo("\"Pune, MH\"");
+        assertThat(RequestExportService.csvField("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(RequestExportService.csvField("line1\nline2")).isEqualTo("\"line1\nline2\"");
+    }
+}
@@ -0,0 +1,61 @@
+package com.blooddonation.blood_donation_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.blooddonation.blood_donation_backend.dto.BloodRequestDto;
+import com.blooddonation.blood_donation_backend.model.BloodRequest;
+import com.blooddonation.blood_donation_backend.repository.BloodRequestRepository;
+import com.blooddonation.blood_donation_backend.support.PostgresIntegrationTest;
+
+/**
+ * Requests saved without a request time must still show up in the keyset listing.
+ */
+class RequestServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void undatedRequestsAreBackfilledInCreationOrderAndListed() {
+        String location = "Backfill town " + System.nanoTime();
+        // later than anything else in the shared database, so these rows bound the backfill
+        LocalDateTime first = LocalDateTime.of(2200, 1, 1, 9, 0);
+        BloodRequest before = request(location, first);
+        BloodRequest undated = request(location, first.plusHours(1));
+        BloodRequest after = request(location, first.plusHours(2));
+        jdbcTemplate.update("UPDATE blood_request SET requested_at = NULL WHERE id = ?", undated.getId());
+
+        requestService.backfillNormalizedColumns();
+
+        assertThat(bloodRequestRepository.findById(undated.getId()).orElseThrow().getRequestedAt()).isEqualTo(first);
+        assertThat(requestService.listRequests(null, null, location, null, 10).items())
+                .extracting(BloodRequestDto::getId)
+                .containsExactly(after.getId(), undated.getId(), before.getId());
+    }
+
+    @Test
+    void aRequestSavedWithoutATimeIsStampedOnInsert() {
+        BloodRequest request = new BloodRequest("Undated", "B+", "Stamp town", "PENDING", null);
+        request.setRequestedAt(null);
+
+        assertThat(bloodRequestRepository.save(request).getRequestedAt()).isNotNull();
+    }
+
+    private BloodRequest request(String location, LocalDateTime requestedAt) {
+        BloodRequest request = new BloodRequest("Patient", "O+", location, "PENDING", null);
+        request.setRequestedAt(requestedAt);
+        return requestService.createRequest(request);
+    }
+}
@@ -0,0 +1,50 @@
+package com.blooddonation.blood_donation_backend.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base for tests that need the real database: the native SQL (row locks, unnest, ON CONFLICT) only
+ * runs on PostgreSQL. One embedded server is started per test JVM and every subclass shares it, along
+ * with the cached application context, so tests must not rely on an empty database. Scheduled jobs
+ * are off; tests run the ones they need themselves.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "bloodcare.scheduling.enabled=false",
+        "bloodcare.prescriptions.storage-dir=target/test-prescriptions",
+        "bloodcare.blind-index.key=test-blind-index-key"
+})
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // the JVM is going away anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}